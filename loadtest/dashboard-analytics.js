@@ -0,0 +1,59 @@
+// k6 load test for the two heaviest read endpoints.
+//
+//   BASE_URL=http://localhost:8080 TOKEN=<jwt> k6 run loadtest/dashboard-analytics.js
+//
+// Run it once against the default profile and once with the "virtual" profile
+// added, same data set and same pool size, then compare the summaries.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const TOKEN = __ENV.TOKEN;
+
+export const options = {
+  scenarios: {
+    dashboard: {
+      executor: 'ramping-arrival-rate',
+      exec: 'dashboard',
+      startRate: 10,
+      timeUnit: '1s',
+      preAllocatedVUs: 200,
+      maxVUs: 2000,
+      stages: [
+        { target: 100, duration: '1m' },
+        { target: 400, duration: '2m' },
+        { target: 400, duration: '2m' },
+      ],
+    },
+    analytics: {
+      executor: 'ramping-arrival-rate',
+      exec: 'analytics',
+      startRate: 5,
+      timeUnit: '1s',
+      preAllocatedVUs: 100,
+      maxVUs: 1000,
+      stages: [
+        { target: 50, duration: '1m' },
+        { target: 200, duration: '2m' },
+        { target: 200, duration: '2m' },
+      ],
+    },
+  },
+  thresholds: {
+    'http_req_failed': ['rate<0.01'],
+    'http_req_duration{scenario:dashboard}': ['p(95)<500'],
+    'http_req_duration{scenario:analytics}': ['p(95)<1000'],
+  },
+};
+
+const params = { headers: { Authorization: `Bearer ${TOKEN}` } };
+
+export function dashboard() {
+  const res = http.get(`${BASE_URL}/api/v1/dashboard`, params);
+  check(res, { 'dashboard 200': (r) => r.status === 200 });
+}
+
+export function analytics() {
+  const res = http.get(`${BASE_URL}/api/v1/analytics/full`, params);
+  check(res, { 'analytics 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,18 @@
+package com.example.financial_tracker.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Tells other nodes to drop a local entry. A {@code null} key clears the whole cache.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class CacheInvalidation {
+
+  private final String originNode;
+  private final String cacheName;
+  private final Object key;
+}
@@ -0,0 +1,14 @@
+package com.example.financial_tracker.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts {@link CacheInvalidation} messages to every node, including the sender;
+ * subscribers skip their own messages by {@link CacheInvalidation#getOriginNode()}.
+ */
+public interface CacheInvalidationBus {
+
+  void publish(CacheInvalidation invalidation);
+
+  void subscribe(Consumer<CacheInvalidation> subscriber);
+}
@@ -0,0 +1,69 @@
+package com.example.financial_tracker.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-local {@link L2CacheStore}, standing in for a shared store in tests and
+ * single-node deployments. Each cache name holds at most {@code maxSize} entries, and
+ * entries expire once their TTL has passed whether or not they are read again.
+ */
+public class InMemoryL2CacheStore implements L2CacheStore {
+
+  private final long maxSize;
+  private final Map<String, Cache<Object, Entry>> caches = new ConcurrentHashMap<>();
+
+  public InMemoryL2CacheStore(long maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  @Override
+  public Object get(String cacheName, Object key) {
+    Cache<Object, Entry> cache = caches.get(cacheName);
+    Entry entry = cache != null ? cache.getIfPresent(key) : null;
+    return entry != null ? entry.value : null;
+  }
+
+  @Override
+  public void put(String cacheName, Object key, Object value, Duration ttl) {
+    caches.computeIfAbsent(cacheName, name -> newCache()).put(key, new Entry(value, ttl));
+  }
+
+  @Override
+  public void evict(String cacheName, Object key) {
+    Cache<Object, Entry> cache = caches.get(cacheName);
+    if (cache != null) {
+      cache.invalidate(key);
+    }
+  }
+
+  @Override
+  public void clear(String cacheName) {
+    Cache<Object, Entry> cache = caches.get(cacheName);
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  private Cache<Object, Entry> newCache() {
+    return Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .expireAfter(Expiry.writing((Object key, Entry entry) -> entry.ttl))
+      .build();
+  }
+
+  private static final class Entry {
+    private final Object value;
+    private final Duration ttl;
+
+    Entry(Object value, Duration ttl) {
+      this.value = value;
+      this.ttl = ttl;
+    }
+  }
+}
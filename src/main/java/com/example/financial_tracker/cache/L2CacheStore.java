@@ -0,0 +1,23 @@
+package com.example.financial_tracker.cache;
+
+import java.time.Duration;
+
+/**
+ * Shared second-level cache tier visible to every application node.
+ * Values are stored as given; implementations backed by a remote store
+ * must serialize them.
+ */
+public interface L2CacheStore {
+
+  /**
+   * @return the stored value, {@link org.springframework.cache.support.NullValue#INSTANCE}
+   * for a cached {@code null}, or {@code null} when absent
+   */
+  Object get(String cacheName, Object key);
+
+  void put(String cacheName, Object key, Object value, Duration ttl);
+
+  void evict(String cacheName, Object key);
+
+  void clear(String cacheName);
+}
@@ -0,0 +1,30 @@
+package com.example.financial_tracker.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coalesces concurrent identical calls of the annotated method: while one call for
+ * the same authenticated user and equal arguments is in progress, later ones wait
+ * for its result instead of computing their own. Callers share the returned object,
+ * so it must not be modified after the method returns.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SingleFlight {
+
+  /**
+   * Name used as the metrics tag; defaults to {@code ClassName.methodName}.
+   */
+  String value() default "";
+
+  /**
+   * How long a coalesced call waits for the one in progress before computing on its
+   * own; {@code -1} uses {@code app.single-flight.max-wait}.
+   */
+  long maxWaitMs() default -1;
+}
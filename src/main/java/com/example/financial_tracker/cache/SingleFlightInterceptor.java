@@ -0,0 +1,144 @@
+package com.example.financial_tracker.cache;
+
+import com.example.financial_tracker.datasource.QueryCancellation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Implements {@link SingleFlight}. The first call for a key runs the method on its
+ * own thread and publishes the outcome through a future in {@link #inFlight}; calls
+ * arriving before it finishes wait on that future. A waiter computes on its own when
+ * the wait runs out or when the call it joined was cancelled because its own client
+ * went away; any other failure is shared like a result.
+ */
+@Slf4j
+public class SingleFlightInterceptor implements MethodInterceptor, MeterBinder {
+
+  static final String EXECUTED = "executed";
+  static final String COALESCED = "coalesced";
+  static final String WAIT_TIMEOUT = "wait-timeout";
+
+  private final ConcurrentMap<List<Object>, Flight> inFlight = new ConcurrentHashMap<>();
+  private final Duration maxWait;
+  private volatile MeterRegistry registry;
+
+  public SingleFlightInterceptor(Duration maxWait) {
+    this.maxWait = maxWait;
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    Class<?> targetClass = invocation.getThis() != null
+      ? AopUtils.getTargetClass(invocation.getThis())
+      : invocation.getMethod().getDeclaringClass();
+    Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+    SingleFlight annotation = AnnotatedElementUtils.findMergedAnnotation(method, SingleFlight.class);
+    if (annotation == null) {
+      return invocation.proceed();
+    }
+
+    String name = !annotation.value().isEmpty()
+      ? annotation.value()
+      : targetClass.getSimpleName() + "." + method.getName();
+    List<Object> key = Arrays.asList(method, principal(), Arrays.asList(invocation.getArguments()));
+
+    Flight flight = new Flight(QueryCancellation.current());
+    Flight leader = inFlight.putIfAbsent(key, flight);
+    if (leader == null) {
+      return lead(key, flight, invocation, name);
+    }
+    long waitMs = annotation.maxWaitMs() >= 0 ? annotation.maxWaitMs() : maxWait.toMillis();
+    return follow(leader, invocation, name, waitMs);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  int inFlightCount() {
+    return inFlight.size();
+  }
+
+  private Object lead(List<Object> key, Flight flight, MethodInvocation invocation, String name) throws Throwable {
+    count(name, EXECUTED);
+    try {
+      Object result = invocation.proceed();
+      flight.result.complete(result);
+      return result;
+    } catch (Throwable t) {
+      flight.result.completeExceptionally(t);
+      throw t;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  private Object follow(Flight leader, MethodInvocation invocation, String name, long waitMs) throws Throwable {
+    try {
+      Object result = leader.result.get(waitMs, TimeUnit.MILLISECONDS);
+      count(name, COALESCED);
+      return result;
+    } catch (TimeoutException e) {
+      log.debug("{} still running after {} ms, computing separately", name, waitMs);
+      count(name, WAIT_TIMEOUT);
+      return invocation.proceed();
+    } catch (ExecutionException e) {
+      if (leader.cancellation != null && leader.cancellation.isCancelled()) {
+        count(name, EXECUTED);
+        return invocation.proceed();
+      }
+      count(name, COALESCED);
+      throw e.getCause();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException(name + " was interrupted");
+    }
+  }
+
+  private void count(String name, String outcome) {
+    MeterRegistry registry = this.registry;
+    if (registry != null) {
+      Counter.builder("app.single-flight.calls")
+        .description("Calls of @SingleFlight methods by whether they computed or shared a result")
+        .tag("name", name)
+        .tag("outcome", outcome)
+        .register(registry)
+        .increment();
+    }
+  }
+
+  private static Object principal() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication != null ? authentication.getName() : null;
+  }
+
+  private static final class Flight {
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+    private final QueryCancellation cancellation;
+
+    private Flight(QueryCancellation cancellation) {
+      this.cancellation = cancellation;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.financial_tracker.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Local cache in front of an {@link L2CacheStore}. Reads fall through to the shared
+ * tier before loading; writes go to both tiers and tell the other nodes to drop their
+ * local copy.
+ */
+public class TwoTierCache implements Cache {
+
+  private final Cache local;
+  private final L2CacheStore shared;
+  private final CacheInvalidationBus bus;
+  private final String nodeId;
+  private final Duration sharedTtl;
+
+  public TwoTierCache(Cache local, L2CacheStore shared, CacheInvalidationBus bus, String nodeId, Duration sharedTtl) {
+    this.local = local;
+    this.shared = shared;
+    this.bus = bus;
+    this.nodeId = nodeId;
+    this.sharedTtl = sharedTtl;
+  }
+
+  @Override
+  public String getName() {
+    return local.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return local.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    ValueWrapper cached = local.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    Object stored = shared.get(getName(), key);
+    if (stored == null) {
+      return null;
+    }
+    Object value = stored == NullValue.INSTANCE ? null : stored;
+    local.put(key, value);
+    return new SimpleValueWrapper(value);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Class<T> type) {
+    ValueWrapper wrapper = get(key);
+    Object value = wrapper != null ? wrapper.get() : null;
+    if (value != null && type != null && !type.isInstance(value)) {
+      throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+    }
+    return (T) value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    return local.get(key, () -> {
+      Object stored = shared.get(getName(), key);
+      if (stored != null) {
+        return stored == NullValue.INSTANCE ? null : (T) stored;
+      }
+      T value = valueLoader.call();
+      shared.put(getName(), key, value != null ? value : NullValue.INSTANCE, sharedTtl);
+      return value;
+    });
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    shared.put(getName(), key, value != null ? value : NullValue.INSTANCE, sharedTtl);
+    local.put(key, value);
+    bus.publish(new CacheInvalidation(nodeId, getName(), key));
+  }
+
+  @Override
+  public void evict(Object key) {
+    shared.evict(getName(), key);
+    local.evict(key);
+    bus.publish(new CacheInvalidation(nodeId, getName(), key));
+  }
+
+  @Override
+  public void clear() {
+    shared.clear(getName());
+    local.clear();
+    bus.publish(new CacheInvalidation(nodeId, getName(), null));
+  }
+
+  void onInvalidation(CacheInvalidation invalidation) {
+    if (invalidation.getKey() == null) {
+      local.clear();
+    } else {
+      local.evict(invalidation.getKey());
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.financial_tracker.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps every cache of a local {@link CacheManager} in a {@link TwoTierCache} and
+ * applies invalidations broadcast by other nodes to the local tier.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+  private final CacheManager localCacheManager;
+  private final L2CacheStore shared;
+  private final CacheInvalidationBus bus;
+  private final Duration sharedTtl;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+  public TwoTierCacheManager(CacheManager localCacheManager, L2CacheStore shared,
+                             CacheInvalidationBus bus, Duration sharedTtl) {
+    this.localCacheManager = localCacheManager;
+    this.shared = shared;
+    this.bus = bus;
+    this.sharedTtl = sharedTtl;
+    bus.subscribe(this::onInvalidation);
+  }
+
+  @Override
+  public Cache getCache(String name) {
+    TwoTierCache cache = caches.get(name);
+    if (cache != null) {
+      return cache;
+    }
+    Cache local = localCacheManager.getCache(name);
+    if (local == null) {
+      return null;
+    }
+    return caches.computeIfAbsent(name, n -> new TwoTierCache(local, shared, bus, nodeId, sharedTtl));
+  }
+
+  @Override
+  public Collection<String> getCacheNames() {
+    return localCacheManager.getCacheNames();
+  }
+
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  private void onInvalidation(CacheInvalidation invalidation) {
+    if (nodeId.equals(invalidation.getOriginNode())) {
+      return;
+    }
+    Cache cache = getCache(invalidation.getCacheName());
+    if (cache instanceof TwoTierCache twoTier) {
+      twoTier.onInvalidation(invalidation);
+    }
+  }
+}
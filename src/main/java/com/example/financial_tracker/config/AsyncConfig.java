@@ -1,9 +1,174 @@
 package com.example.financial_tracker.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
 @Configuration
 @EnableAsync
+@EnableConfigurationProperties(ExecutorProperties.class)
+@RequiredArgsConstructor
 public class AsyncConfig {
+
+  private final ExecutorProperties properties;
+  private final MeterRegistry meterRegistry;
+
+  @Bean(name = "mailExecutor")
+  public AsyncTaskExecutor mailExecutor() {
+    return createExecutor("mail", properties.getMail());
+  }
+
+  @Bean(name = "importExecutor")
+  public AsyncTaskExecutor importExecutor() {
+    return createExecutor("imports", properties.getImports());
+  }
+
+  @Bean(name = "reportExecutor")
+  public AsyncTaskExecutor reportExecutor() {
+    return createExecutor("reports", properties.getReports());
+  }
+
+  @Bean(name = "integrationExecutor")
+  public AsyncTaskExecutor integrationExecutor() {
+    return createExecutor("integrations", properties.getIntegrations());
+  }
+
+  @Bean(name = "streamExecutor")
+  public AsyncTaskExecutor streamExecutor() {
+    return createExecutor("streams", properties.getStreams());
+  }
+
+  @Bean(name = "fanOutExecutor")
+  public AsyncTaskExecutor fanOutExecutor() {
+    return createExecutor("fan-out", properties.getFanOut());
+  }
+
+  @Bean(name = "reportingFanOutExecutor")
+  public AsyncTaskExecutor reportingFanOutExecutor() {
+    return createExecutor("reporting-fan-out", properties.getReportingFanOut());
+  }
+
+  @Bean(name = "warmingExecutor")
+  public AsyncTaskExecutor warmingExecutor() {
+    return createExecutor("warming", properties.getWarming());
+  }
+
+  @Bean(name = "taskScheduler")
+  public TaskScheduler taskScheduler() {
+    if (useVirtualThreads()) {
+      SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+      scheduler.setVirtualThreads(true);
+      scheduler.setThreadNamePrefix("scheduling-");
+      scheduler.setConcurrencyLimit(properties.getSchedulingPoolSize());
+      return scheduler;
+    }
+
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(properties.getSchedulingPoolSize());
+    scheduler.setThreadNamePrefix("scheduling-");
+    scheduler.setWaitForTasksToCompleteOnShutdown(true);
+    scheduler.setAwaitTerminationSeconds(30);
+    Gauge.builder("app.executor.active", scheduler, ThreadPoolTaskScheduler::getActiveCount)
+      .tag("pool", "scheduling").register(meterRegistry);
+    return scheduler;
+  }
+
+  private AsyncTaskExecutor createExecutor(String name, ExecutorProperties.Pool pool) {
+    AtomicInteger active = new AtomicInteger();
+    Counter rejected = Counter.builder("app.executor.rejected").tag("pool", name).register(meterRegistry);
+    Gauge.builder("app.executor.active", active, AtomicInteger::get).tag("pool", name).register(meterRegistry);
+
+    if (useVirtualThreads()) {
+      SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(name + "-") {
+        @Override
+        @SuppressWarnings("deprecation")
+        public void execute(Runnable task, long startTimeout) {
+          try {
+            super.execute(task, startTimeout);
+          } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw e;
+          }
+        }
+      };
+      executor.setVirtualThreads(true);
+      executor.setConcurrencyLimit(pool.getMaxSize());
+      executor.setRejectTasksWhenLimitReached(pool.getRejectionPolicy() == ExecutorProperties.RejectionPolicy.ABORT);
+      executor.setTaskDecorator(decorator(active));
+      executor.setTaskTerminationTimeout(30_000);
+      return executor;
+    }
+
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(pool.getCoreSize());
+    executor.setMaxPoolSize(pool.getMaxSize());
+    executor.setQueueCapacity(pool.getQueueCapacity());
+    executor.setThreadNamePrefix(name + "-");
+    executor.setTaskDecorator(decorator(active));
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+
+    RejectedExecutionHandler policy = pool.getRejectionPolicy() == ExecutorProperties.RejectionPolicy.ABORT
+      ? new ThreadPoolExecutor.AbortPolicy()
+      : new ThreadPoolExecutor.CallerRunsPolicy();
+    executor.setRejectedExecutionHandler((task, threadPool) -> {
+      rejected.increment();
+      policy.rejectedExecution(task, threadPool);
+    });
+
+    Gauge.builder("app.executor.queue.depth", executor, ThreadPoolTaskExecutor::getQueueSize)
+      .tag("pool", name).register(meterRegistry);
+    return executor;
+  }
+
+  private TaskDecorator decorator(AtomicInteger active) {
+    return task -> {
+      Map<String, String> context = MDC.getCopyOfContextMap();
+      return () -> {
+        if (context != null) {
+          MDC.setContextMap(context);
+        }
+        active.incrementAndGet();
+        try {
+          task.run();
+        } finally {
+          active.decrementAndGet();
+          MDC.clear();
+        }
+      };
+    };
+  }
+
+  private boolean useVirtualThreads() {
+    if (!properties.isVirtualThreads()) {
+      return false;
+    }
+    if (Runtime.version().feature() < 21) {
+      log.warn("app.executors.virtual-threads requires Java 21+, running on {} - using platform thread pools",
+        Runtime.version());
+      return false;
+    }
+    return true;
+  }
 }
@@ -1,23 +1,139 @@
 package com.example.financial_tracker.config;
 
+import com.example.financial_tracker.cache.CacheInvalidationBus;
+import com.example.financial_tracker.cache.InMemoryCacheInvalidationBus;
+import com.example.financial_tracker.cache.InMemoryL2CacheStore;
+import com.example.financial_tracker.cache.L2CacheStore;
+import com.example.financial_tracker.cache.SingleFlight;
+import com.example.financial_tracker.cache.SingleFlightInterceptor;
+import com.example.financial_tracker.cache.TwoTierCacheManager;
+import com.example.financial_tracker.service.AnalyticsCache;
+import com.example.financial_tracker.service.AnalyticsCacheKey;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
+  /**
+   * Caffeine caches, optionally fronting a shared tier when
+   * {@code app.cache.shared.enabled} is set for multi-node deployments.
+   */
   @Bean
-  public CacheManager cacheManager() {
+  public CacheManager cacheManager(@Value("${app.cache.shared.enabled:false}") boolean sharedEnabled,
+                                   @Value("${app.cache.shared.ttl:1h}") Duration sharedTtl,
+                                   L2CacheStore sharedCacheStore,
+                                   CacheInvalidationBus cacheInvalidationBus) {
       CaffeineCacheManager cacheManager = new CaffeineCacheManager("exchangeRates");
       cacheManager.setCaffeine(Caffeine.newBuilder()
               .maximumSize(500)
               .expireAfterWrite(1, TimeUnit.HOURS));
-      return cacheManager;
+      cacheManager.registerCustomCache("cashFlowForecasts", Caffeine.newBuilder()
+              .maximumSize(10_000)
+              .expireAfterWrite(6, TimeUnit.HOURS)
+              .build());
+      CacheManager tiered = sharedEnabled
+              ? new TwoTierCacheManager(cacheManager, sharedCacheStore, cacheInvalidationBus, sharedTtl)
+              : cacheManager;
+      // Evictions issued inside a write transaction are applied after commit,
+      // so a concurrent read cannot re-cache the pre-commit state.
+      return new TransactionAwareCacheManagerProxy(tiered);
+  }
+
+  /**
+   * Process-local shared tier and invalidation bus. A deployment with a real shared
+   * store sets {@code app.cache.shared.store} to another value and provides its own
+   * {@link L2CacheStore} and {@link CacheInvalidationBus} beans.
+   */
+  @Bean
+  @ConditionalOnProperty(name = "app.cache.shared.store", havingValue = "in-memory", matchIfMissing = true)
+  public L2CacheStore sharedCacheStore(@Value("${app.cache.shared.max-size:10000}") long maxSize) {
+      return new InMemoryL2CacheStore(maxSize);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "app.cache.shared.store", havingValue = "in-memory", matchIfMissing = true)
+  public CacheInvalidationBus cacheInvalidationBus() {
+      return new InMemoryCacheInvalidationBus();
+  }
+
+  /**
+   * Analytics results weighed by DTO rows. Ranges made only of closed months change
+   * only on backdated writes, which evict them, so they live much longer than
+   * results that include the current month.
+   */
+  @Bean
+  public Cache<AnalyticsCacheKey, Object> analyticsResultCache(
+      @Value("${app.analytics.cache.max-weight:200000}") long maxWeight,
+      @Value("${app.analytics.cache.past-ttl:7d}") Duration pastTtl,
+      @Value("${app.analytics.cache.current-ttl:5m}") Duration currentTtl) {
+      return Caffeine.newBuilder()
+              .maximumWeight(maxWeight)
+              .weigher((AnalyticsCacheKey key, Object value) -> AnalyticsCache.weigh(value))
+              .expireAfter(new Expiry<AnalyticsCacheKey, Object>() {
+                  @Override
+                  public long expireAfterCreate(AnalyticsCacheKey key, Object value, long currentTime) {
+                      return (key.isClosedPast(LocalDate.now()) ? pastTtl : currentTtl).toNanos();
+                  }
+
+                  @Override
+                  public long expireAfterUpdate(AnalyticsCacheKey key, Object value, long currentTime, long currentDuration) {
+                      return expireAfterCreate(key, value, currentTime);
+                  }
+
+                  @Override
+                  public long expireAfterRead(AnalyticsCacheKey key, Object value, long currentTime, long currentDuration) {
+                      return currentDuration;
+                  }
+              })
+              .recordStats()
+              .build();
+  }
+
+  @Bean
+  public MeterBinder analyticsCacheMetrics(@Qualifier("analyticsResultCache") Cache<AnalyticsCacheKey, Object> cache) {
+      return registry -> CaffeineCacheMetrics.monitor(registry, cache, "analytics");
+  }
+
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  public static SingleFlightInterceptor singleFlightInterceptor(
+      @Value("${app.single-flight.max-wait:20s}") Duration maxWait) {
+      return new SingleFlightInterceptor(maxWait);
+  }
+
+  /**
+   * Runs outside the transaction and workload advisors, so calls that end up sharing
+   * a result never open a transaction or take a connection.
+   */
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  public static Advisor singleFlightAdvisor(SingleFlightInterceptor singleFlightInterceptor) {
+      DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+              AnnotationMatchingPointcut.forMethodAnnotation(SingleFlight.class), singleFlightInterceptor);
+      advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+      return advisor;
   }
 }
@@ -0,0 +1,92 @@
+package com.example.financial_tracker.config;
+
+import com.example.financial_tracker.datasource.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.db.concurrency-limit.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+  @Bean
+  public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(
+    Environment environment,
+    @Value("${app.db.concurrency-limit.max-concurrency:20}") int maxConcurrency,
+    @Value("${app.db.concurrency-limit.acquire-timeout-ms:5000}") long acquireTimeoutMillis) {
+
+    return new ConcurrencyLimitingPostProcessor(environment, maxConcurrency, acquireTimeoutMillis);
+  }
+
+  @Bean
+  public MeterBinder dataSourcePermitMetrics(Map<String, DataSource> dataSources) {
+    return registry -> dataSources.forEach((name, dataSource) -> {
+      if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+        Gauge.builder("app.db.permits.available", limited, ConcurrencyLimitedDataSource::getAvailablePermits)
+          .tag("datasource", name).register(registry);
+        Gauge.builder("app.db.permits.waiting", limited, ConcurrencyLimitedDataSource::getWaitingThreads)
+          .tag("datasource", name).register(registry);
+      }
+    });
+  }
+
+  /**
+   * Ordered so that it sees the pools before any wrapper applied to the primary
+   * {@code dataSource}, such as the replica proxy.
+   * <p>
+   * Each pool gets its own limit: {@code app.db.concurrency-limit.pools.<bean name>}
+   * when set, otherwise the Hikari pool's size capped at {@code max-concurrency}, so
+   * the reporting pool is not handed more permits than it has connections.
+   */
+  static final class ConcurrencyLimitingPostProcessor implements BeanPostProcessor, Ordered {
+    private final Environment environment;
+    private final int maxConcurrency;
+    private final long acquireTimeoutMillis;
+
+    ConcurrencyLimitingPostProcessor(Environment environment, int maxConcurrency, long acquireTimeoutMillis) {
+      this.environment = environment;
+      this.maxConcurrency = maxConcurrency;
+      this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)
+        && !(bean instanceof AbstractRoutingDataSource)) {
+        int limit = limitFor(beanName, dataSource);
+        log.info("Limiting '{}' to {} concurrent connections", beanName, limit);
+        return new ConcurrencyLimitedDataSource(dataSource, limit, acquireTimeoutMillis);
+      }
+      return bean;
+    }
+
+    int limitFor(String beanName, DataSource dataSource) {
+      Integer configured = environment.getProperty("app.db.concurrency-limit.pools." + beanName, Integer.class);
+      if (configured != null) {
+        return configured;
+      }
+      if (dataSource instanceof HikariDataSource pool) {
+        return Math.min(maxConcurrency, pool.getMaximumPoolSize());
+      }
+      return maxConcurrency;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.HIGHEST_PRECEDENCE;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.financial_tracker.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.executors")
+public class ExecutorProperties {
+
+  private boolean virtualThreads = false;
+  private Pool mail = new Pool(2, 4, 500, RejectionPolicy.CALLER_RUNS);
+  private Pool imports = new Pool(2, 2, 4, RejectionPolicy.ABORT);
+  private Pool reports = new Pool(4, 4, 100, RejectionPolicy.CALLER_RUNS);
+  private Pool integrations = new Pool(2, 4, 20, RejectionPolicy.CALLER_RUNS);
+  private Pool streams = new Pool(4, 8, 50, RejectionPolicy.CALLER_RUNS);
+  private Pool fanOut = new Pool(8, 8, 200, RejectionPolicy.CALLER_RUNS);
+  private Pool reportingFanOut = new Pool(4, 4, 200, RejectionPolicy.CALLER_RUNS);
+  private Pool warming = new Pool(1, 1, 100, RejectionPolicy.ABORT);
+  private int schedulingPoolSize = 4;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Pool {
+    private int coreSize;
+    private int maxSize;
+    private int queueCapacity;
+    private RejectionPolicy rejectionPolicy;
+  }
+
+  public enum RejectionPolicy {
+    CALLER_RUNS,
+    ABORT
+  }
+}
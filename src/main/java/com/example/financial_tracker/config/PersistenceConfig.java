@@ -0,0 +1,47 @@
+package com.example.financial_tracker.config;
+
+import com.example.financial_tracker.datasource.QueryCancellationListener;
+import com.example.financial_tracker.datasource.PersistenceContextMetricsJpaDialect;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+@Configuration
+public class PersistenceConfig {
+
+  @Bean
+  public static PersistenceContextMetricsJpaDialect persistenceContextMetricsJpaDialect(
+    @Value("${app.persistence.context.snapshot-sample-every:20}") int snapshotSampleEvery) {
+    return new PersistenceContextMetricsJpaDialect(snapshotSampleEvery);
+  }
+
+  /**
+   * Installs the dialect before the factory bean initializes; the JPA transaction
+   * manager picks it up from there.
+   */
+  @Bean
+  public static BeanPostProcessor persistenceContextMetricsJpaDialectPostProcessor(
+    ObjectProvider<PersistenceContextMetricsJpaDialect> dialect) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof AbstractEntityManagerFactoryBean factoryBean) {
+          factoryBean.setJpaDialect(dialect.getObject());
+        }
+        return bean;
+      }
+    };
+  }
+
+  /**
+   * Picked up by Boot's transaction manager customizer.
+   */
+  @Bean
+  public QueryCancellationListener queryCancellationListener(EntityManagerFactory entityManagerFactory) {
+    return new QueryCancellationListener(entityManagerFactory);
+  }
+}
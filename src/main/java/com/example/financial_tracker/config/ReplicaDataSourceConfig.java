@@ -0,0 +1,91 @@
+package com.example.financial_tracker.config;
+
+import com.example.financial_tracker.datasource.ReadReplicas;
+import com.example.financial_tracker.datasource.ReadYourWritesGuard;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to {@code app.db.replicas.targets}. The primary
+ * {@code dataSource} bean, including any workload routing and concurrency limits
+ * already applied to it, is wrapped last so write paths are unchanged. Replica pools
+ * are owned by {@link ReadReplicas} rather than registered as beans, which would
+ * otherwise switch off the primary's auto-configuration.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.db.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  public ReadYourWritesGuard readYourWritesGuard(ReplicaProperties properties) {
+    return new ReadYourWritesGuard(properties.getReadYourWritesWindow());
+  }
+
+  @Bean(destroyMethod = "close")
+  public ReadReplicas readReplicas(ReplicaProperties properties, DataSourceProperties primary,
+                                   ReadYourWritesGuard guard, ObjectProvider<MeterRegistry> meterRegistry) {
+    Map<String, DataSource> pools = new LinkedHashMap<>();
+    List<ReplicaProperties.Target> targets = properties.getTargets();
+    for (int i = 0; i < targets.size(); i++) {
+      ReplicaProperties.Target target = targets.get(i);
+      String name = target.getName() != null ? target.getName() : "replica-" + (i + 1);
+
+      HikariDataSource pool = new HikariDataSource();
+      pool.setPoolName(name);
+      pool.setJdbcUrl(target.getUrl());
+      pool.setUsername(target.getUsername() != null ? target.getUsername() : primary.getUsername());
+      pool.setPassword(target.getPassword() != null ? target.getPassword() : primary.getPassword());
+      pool.setMaximumPoolSize(properties.getMaxPoolSize());
+      pool.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+      pool.setReadOnly(true);
+      // a replica that is down at startup is marked unhealthy instead of failing the boot
+      pool.setInitializationFailTimeout(-1);
+      meterRegistry.ifAvailable(pool::setMetricRegistry);
+      pools.put(name, pool);
+    }
+    log.info("Read-only transactions use {} replica(s): {}", pools.size(), pools.keySet());
+    return new ReadReplicas(pools, guard, properties.getLagQuery(), properties.getMaxLag());
+  }
+
+  @Bean
+  public static BeanPostProcessor readReplicaPostProcessor(ObjectProvider<ReadReplicas> replicas) {
+    return new ReplicaRoutingPostProcessor(replicas);
+  }
+
+  private static final class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+    private final ObjectProvider<ReadReplicas> replicas;
+
+    ReplicaRoutingPostProcessor(ObjectProvider<ReadReplicas> replicas) {
+      this.replicas = replicas;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+        return replicas.getObject().wrap(dataSource);
+      }
+      return bean;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.LOWEST_PRECEDENCE;
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.financial_tracker.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.db.replicas")
+public class ReplicaProperties {
+
+  private boolean enabled = false;
+  private List<Target> targets = new ArrayList<>();
+  private int maxPoolSize = 8;
+  private Duration connectionTimeout = Duration.ofSeconds(2);
+  private Duration readYourWritesWindow = Duration.ofSeconds(5);
+  private String lagQuery;
+  private Duration maxLag = Duration.ofSeconds(5);
+
+  @Data
+  public static class Target {
+    private String name;
+    private String url;
+    /** Defaults to {@code spring.datasource.username}. */
+    private String username;
+    /** Defaults to {@code spring.datasource.password}. */
+    private String password;
+  }
+}
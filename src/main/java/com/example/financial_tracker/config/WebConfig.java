@@ -1,21 +1,54 @@
 package com.example.financial_tracker.config;
 
+import com.example.financial_tracker.filter.ConditionalGetInterceptor;
+import com.example.financial_tracker.filter.QueryCancellingInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.web.servlet.config.annotation.*;
 
+import java.time.Duration;
+
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+  private final ConditionalGetInterceptor conditionalGetInterceptor;
+  private final QueryCancellingInterceptor queryCancellingInterceptor;
+
+  @Qualifier("streamExecutor")
+  private final AsyncTaskExecutor streamExecutor;
+
   @Value("${cors.allowed-origin:http://localhost:5173}")
   private String allowedOrigin;
 
+  @Value("${app.http.etag.paths:/api/v1/dashboard,/api/v1/transactions/balance,/api/v1/budgets,/api/v1/analytics/**}")
+  private String[] etagPaths;
+
+  @Value("${app.http.stream.timeout:10m}")
+  private Duration streamTimeout;
+
   @Override
   public void addCorsMappings(CorsRegistry registry) {
     registry.addMapping("/**")
       .allowedOrigins(allowedOrigin)
       .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
       .allowedHeaders("*")
+      .exposedHeaders("ETag")
       .allowCredentials(true);
   }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setTaskExecutor(streamExecutor);
+    configurer.setDefaultTimeout(streamTimeout.toMillis());
+    configurer.registerCallableInterceptors(queryCancellingInterceptor);
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(conditionalGetInterceptor).addPathPatterns(etagPaths);
+  }
 }
@@ -0,0 +1,89 @@
+package com.example.financial_tracker.config;
+
+import com.example.financial_tracker.datasource.Workload;
+import com.example.financial_tracker.datasource.WorkloadClass;
+import com.example.financial_tracker.datasource.WorkloadClassInterceptor;
+import com.example.financial_tracker.datasource.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Splits the connection pool by {@link Workload}: request traffic keeps the
+ * {@code spring.datasource} pool, while {@link WorkloadClass}-annotated reporting
+ * work draws from a smaller pool with its own statement timeout. Both pools are
+ * Hikari pools named after their workload, so their {@code hikaricp.*} metrics are
+ * tagged per pool.
+ */
+@Slf4j
+@Configuration
+public class WorkloadDataSourceConfig {
+
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  public static Advisor workloadClassAdvisor() {
+    ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(WorkloadClass.class, true))
+      .union(AnnotationMatchingPointcut.forMethodAnnotation(WorkloadClass.class));
+    DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new WorkloadClassInterceptor());
+    advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return advisor;
+  }
+
+  @Configuration
+  @ConditionalOnProperty(name = "app.db.workloads.enabled", havingValue = "true")
+  static class Pools {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource interactiveDataSource(DataSourceProperties properties) {
+      HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+      dataSource.setPoolName("interactive");
+      return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource reportingDataSource(
+      DataSourceProperties properties,
+      @Value("${app.db.workloads.reporting.max-pool-size:4}") int maxPoolSize,
+      @Value("${app.db.workloads.reporting.connection-timeout:30s}") Duration connectionTimeout,
+      @Value("${app.db.workloads.reporting.connection-init-sql:}") String connectionInitSql) {
+
+      HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+      dataSource.setPoolName("reporting");
+      dataSource.setMaximumPoolSize(maxPoolSize);
+      dataSource.setMinimumIdle(Math.min(1, maxPoolSize));
+      dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+      if (StringUtils.hasText(connectionInitSql)) {
+        dataSource.setConnectionInitSql(connectionInitSql);
+      }
+      log.info("Reporting workloads use a separate pool of {} connections", maxPoolSize);
+      return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("interactiveDataSource") DataSource interactive,
+                                 @Qualifier("reportingDataSource") DataSource reporting) {
+      return new WorkloadRoutingDataSource(interactive, Map.of(Workload.REPORTING, reporting));
+    }
+  }
+}
@@ -2,15 +2,18 @@ package com.example.financial_tracker.controller;
 
 import com.example.financial_tracker.dto.*;
 import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.filter.QueryCancellingInterceptor;
 import com.example.financial_tracker.service.AnalyticsService;
 import com.example.financial_tracker.util.RequestUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -23,8 +26,11 @@ public class AnalyticsController {
 
   private final AnalyticsService analyticsService;
 
+  @Value("${app.db.statement-timeouts.analytics:30}")
+  private int analyticsTimeoutSeconds;
+
   @GetMapping("/full")
-  public ResponseEntity<AnalyticsDTO> getFullAnalytics(
+  public WebAsyncTask<ResponseEntity<AnalyticsDTO>> getFullAnalytics(
     @AuthenticationPrincipal User user,
     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
@@ -33,12 +39,14 @@ public class AnalyticsController {
     log.info("GET /api/analytics/full - User: {} from IP: {} - Date range: {} to {}",
       user.getEmail(), RequestUtils.getClientIpAddress(request), startDate, endDate);
 
-    AnalyticsDTO analytics = analyticsService.getFullAnalytics(user, startDate, endDate);
+    return QueryCancellingInterceptor.task(analyticsTimeoutSeconds, () -> {
+      AnalyticsDTO analytics = analyticsService.getFullAnalytics(user, startDate, endDate);
 
-    log.info("Generated full analytics for user: {} with {} monthly entries",
-      user.getEmail(), analytics.getMonthlyStats().size());
+      log.info("Generated full analytics for user: {} with {} monthly entries",
+        user.getEmail(), analytics.getMonthlyStats().size());
 
-    return ResponseEntity.ok(analytics);
+      return ResponseEntity.ok(analytics);
+    });
   }
 
   @GetMapping("/monthly")
@@ -98,7 +106,7 @@ public class AnalyticsController {
   }
 
   @GetMapping("/categories/monthly")
-  public ResponseEntity<List<CategoryMonthlyStatsDTO>> getCategoryMonthlyStats(
+  public WebAsyncTask<ResponseEntity<List<CategoryMonthlyStatsDTO>>> getCategoryMonthlyStats(
     @AuthenticationPrincipal User user,
     @RequestParam(defaultValue = "10") int limit,
     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -108,7 +116,7 @@ public class AnalyticsController {
     log.info("GET /api/analytics/categories/monthly - User: {} from IP: {} - Limit: {}",
       user.getEmail(), RequestUtils.getClientIpAddress(request), limit);
 
-    List<CategoryMonthlyStatsDTO> categoryStats = analyticsService.getCategoryMonthlyStats(user, startDate, endDate, limit);
-    return ResponseEntity.ok(categoryStats);
+    return QueryCancellingInterceptor.task(analyticsTimeoutSeconds, () ->
+      ResponseEntity.ok(analyticsService.getCategoryMonthlyStats(user, startDate, endDate, limit)));
   }
 }
@@ -3,6 +3,7 @@ package com.example.financial_tracker.controller;
 import com.example.financial_tracker.dto.BudgetDTO;
 import com.example.financial_tracker.entity.User;
 import com.example.financial_tracker.service.BudgetService;
+import com.example.financial_tracker.service.DashboardWarmer;
 import com.example.financial_tracker.util.RequestUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -22,6 +23,7 @@ import java.util.List;
 public class BudgetController {
 
   private final BudgetService budgetService;
+  private final DashboardWarmer dashboardWarmer;
 
   @PostMapping
   public ResponseEntity<BudgetDTO> createBudget(
@@ -44,7 +46,7 @@ public class BudgetController {
     log.info("GET /api/budgets - User: {} from IP: {}",
       user.getEmail(), RequestUtils.getClientIpAddress(request));
 
-    List<BudgetDTO> budgets = budgetService.getUserBudgets(user);
+    List<BudgetDTO> budgets = dashboardWarmer.getUserBudgets(user);
     return ResponseEntity.ok(budgets);
   }
 
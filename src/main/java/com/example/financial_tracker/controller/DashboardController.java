@@ -2,7 +2,7 @@ package com.example.financial_tracker.controller;
 
 import com.example.financial_tracker.dto.DashboardDTO;
 import com.example.financial_tracker.entity.User;
-import com.example.financial_tracker.service.DashboardService;
+import com.example.financial_tracker.service.DashboardWarmer;
 import com.example.financial_tracker.util.RequestUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -19,7 +19,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class DashboardController {
 
-  private final DashboardService dashboardService;
+  private final DashboardWarmer dashboardWarmer;
 
   @GetMapping
   public ResponseEntity<DashboardDTO> getDashboard(
@@ -29,7 +29,7 @@ public class DashboardController {
     log.info("GET /api/dashboard - User: {} from IP: {}",
       user.getEmail(), RequestUtils.getClientIpAddress(request));
 
-    DashboardDTO dashboard = dashboardService.getDashboard(user);
+    DashboardDTO dashboard = dashboardWarmer.getDashboard(user);
 
     log.info("Generated dashboard for user: {} - Balance: {}, Monthly Income: {}, Monthly Expense: {}",
       user.getEmail(), dashboard.getCurrentBalance(),
@@ -1,7 +1,9 @@
 package com.example.financial_tracker.controller;
 
+import com.example.financial_tracker.dto.CashFlowForecastDTO;
 import com.example.financial_tracker.dto.RecurringTransactionDTO;
 import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.service.CashFlowForecastService;
 import com.example.financial_tracker.service.RecurringTransactionService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -21,6 +23,7 @@ import java.util.List;
 public class RecurringTransactionController {
 
   private final RecurringTransactionService recurringTransactionService;
+  private final CashFlowForecastService cashFlowForecastService;
 
   @PostMapping
   public ResponseEntity<RecurringTransactionDTO> createRecurringTransaction(
@@ -46,6 +49,17 @@ public class RecurringTransactionController {
     return ResponseEntity.ok(transactions);
   }
 
+  @GetMapping("/forecast")
+  public ResponseEntity<CashFlowForecastDTO> getCashFlowForecast(
+    @AuthenticationPrincipal User user,
+    @RequestParam(defaultValue = "30") int days,
+    HttpServletRequest request) {
+
+    log.info("GET /api/v1/recurring-transactions/forecast - User: {} horizon: {} days", user.getEmail(), days);
+
+    return ResponseEntity.ok(cashFlowForecastService.getForecast(user, days));
+  }
+
   @PutMapping("/{id}")
   public ResponseEntity<RecurringTransactionDTO> updateRecurringTransaction(
     @AuthenticationPrincipal User user,
@@ -1,9 +1,12 @@
 package com.example.financial_tracker.controller;
 
+import com.example.financial_tracker.datasource.DataOwnerContext;
 import com.example.financial_tracker.dto.*;
 import com.example.financial_tracker.enumerations.TransactionType;
 import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.filter.QueryCancellingInterceptor;
 import com.example.financial_tracker.service.TransactionService;
+import com.example.financial_tracker.service.TransactionStreamService;
 import com.example.financial_tracker.util.RequestUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -11,6 +14,9 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -23,6 +29,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import com.example.financial_tracker.service.SavedSearchService;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.example.financial_tracker.exception.BadRequestException;
 
 import java.math.BigDecimal;
@@ -31,6 +39,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 @Slf4j
 @RestController
@@ -41,6 +50,13 @@ public class TransactionController {
 
   private final TransactionService transactionService;
   private final SavedSearchService savedSearchService;
+  private final TransactionStreamService transactionStreamService;
+
+  @Qualifier("importExecutor")
+  private final AsyncTaskExecutor importExecutor;
+
+  @Value("${app.db.statement-timeouts.exports:120}")
+  private int exportTimeoutSeconds;
 
   @GetMapping
   public ResponseEntity<List<TransactionDTO>> getAllTransactions(
@@ -56,6 +72,17 @@ public class TransactionController {
     return ResponseEntity.ok(transactions);
   }
 
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamAllTransactions(
+    @AuthenticationPrincipal User user,
+    HttpServletRequest request) {
+
+    log.info("GET /api/transactions (stream) - User: {} from IP: {}",
+      user.getEmail(), RequestUtils.getClientIpAddress(request));
+
+    return ndjson(out -> transactionStreamService.writeNdjson(user, null, null, null, null, out));
+  }
+
   @GetMapping("/paginated")
   public ResponseEntity<Page<TransactionDTO>> getTransactionsPaginated(
     @AuthenticationPrincipal User user,
@@ -174,6 +201,21 @@ public class TransactionController {
     return ResponseEntity.ok(transactions);
   }
 
+  @GetMapping(value = "/filter", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamTransactionsWithFilters(
+    @AuthenticationPrincipal User user,
+    @RequestParam(required = false) TransactionType type,
+    @RequestParam(required = false) @Positive(message = "Category ID must be positive") Long categoryId,
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+    HttpServletRequest request) {
+
+    log.info("GET /api/transactions/filter (stream) - User: {} from IP: {} - Filters: type={}, categoryId={}, startDate={}, endDate={}",
+      user.getEmail(), RequestUtils.getClientIpAddress(request), type, categoryId, startDate, endDate);
+
+    return ndjson(out -> transactionStreamService.writeNdjson(user, type, categoryId, startDate, endDate, out));
+  }
+
   @GetMapping("/income")
   public ResponseEntity<List<TransactionDTO>> getIncomeTransactions(
     @AuthenticationPrincipal User user,
@@ -186,6 +228,17 @@ public class TransactionController {
     return ResponseEntity.ok(transactions);
   }
 
+  @GetMapping(value = "/income", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamIncomeTransactions(
+    @AuthenticationPrincipal User user,
+    HttpServletRequest request) {
+
+    log.info("GET /api/transactions/income (stream) - User: {} from IP: {}",
+      user.getEmail(), RequestUtils.getClientIpAddress(request));
+
+    return ndjson(out -> transactionStreamService.writeNdjson(user, TransactionType.INCOME, null, null, null, out));
+  }
+
   @GetMapping("/expense")
   public ResponseEntity<List<TransactionDTO> > getExpenseTransactions(
     @AuthenticationPrincipal User user,
@@ -198,6 +251,17 @@ public class TransactionController {
     return ResponseEntity.ok(transactions);
   }
 
+  @GetMapping(value = "/expense", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamExpenseTransactions(
+    @AuthenticationPrincipal User user,
+    HttpServletRequest request) {
+
+    log.info("GET /api/transactions/expense (stream) - User: {} from IP: {}",
+      user.getEmail(), RequestUtils.getClientIpAddress(request));
+
+    return ndjson(out -> transactionStreamService.writeNdjson(user, TransactionType.EXPENSE, null, null, null, out));
+  }
+
   @GetMapping("/search")
   public ResponseEntity<Page<TransactionDTO>> searchTransactions(
     @AuthenticationPrincipal User user,
@@ -281,7 +345,7 @@ public class TransactionController {
   }
 
   @GetMapping("/export/csv")
-  public ResponseEntity<byte[]> exportTransactionsToCsv(
+  public WebAsyncTask<ResponseEntity<byte[]>> exportTransactionsToCsv(
     @AuthenticationPrincipal User user,
     @RequestParam(required = false) String searchText,
     @RequestParam(required = false) BigDecimal minAmount,
@@ -310,42 +374,46 @@ public class TransactionController {
       .sortDirection(sortDirection)
       .build();
 
-    byte[] csvData = transactionService.exportTransactionsToCsv(user, searchDto);
+    return QueryCancellingInterceptor.task(exportTimeoutSeconds, () -> {
+      byte[] csvData = transactionService.exportTransactionsToCsv(user, searchDto);
 
-    String filename = String.format("transactions_%s.csv",
-      LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
+      String filename = String.format("transactions_%s.csv",
+        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
 
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.parseMediaType("text/csv"));
-    headers.setContentDispositionFormData("attachment", filename);
-    headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+      HttpHeaders headers = new HttpHeaders();
+      headers.setContentType(MediaType.parseMediaType("text/csv"));
+      headers.setContentDispositionFormData("attachment", filename);
+      headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
 
-    return new ResponseEntity<>(csvData, headers, HttpStatus.OK);
+      return new ResponseEntity<>(csvData, headers, HttpStatus.OK);
+    });
   }
 
   @PostMapping("/export/csv")
-  public ResponseEntity<byte[]> exportTransactionsToCsvPost(
+  public WebAsyncTask<ResponseEntity<byte[]>> exportTransactionsToCsvPost(
     @AuthenticationPrincipal User user,
     @Valid @RequestBody TransactionSearchDTO searchDto,
     HttpServletRequest request) {
 
     log.info("Export transactions to CSV POST request from IP: {}", RequestUtils.getClientIpAddress(request));
 
-    byte[] csvData = transactionService.exportTransactionsToCsv(user, searchDto);
+    return QueryCancellingInterceptor.task(exportTimeoutSeconds, () -> {
+      byte[] csvData = transactionService.exportTransactionsToCsv(user, searchDto);
 
-    String filename = String.format("transactions_%s.csv",
-      LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
+      String filename = String.format("transactions_%s.csv",
+        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
 
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.parseMediaType("text/csv"));
-    headers.setContentDispositionFormData("attachment", filename);
-    headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+      HttpHeaders headers = new HttpHeaders();
+      headers.setContentType(MediaType.parseMediaType("text/csv"));
+      headers.setContentDispositionFormData("attachment", filename);
+      headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
 
-    return new ResponseEntity<>(csvData, headers, HttpStatus.OK);
+      return new ResponseEntity<>(csvData, headers, HttpStatus.OK);
+    });
   }
 
   @GetMapping("/export/excel")
-  public ResponseEntity<byte[]> exportTransactionsToExcel(
+  public WebAsyncTask<ResponseEntity<byte[]>> exportTransactionsToExcel(
     @AuthenticationPrincipal User user,
     @RequestParam(required = false) String searchText,
     @RequestParam(required = false) BigDecimal minAmount,
@@ -374,38 +442,42 @@ public class TransactionController {
       .sortDirection(sortDirection)
       .build();
 
-    byte[] excelData = transactionService.exportTransactionsToExcel(user, searchDto);
+    return QueryCancellingInterceptor.task(exportTimeoutSeconds, () -> {
+      byte[] excelData = transactionService.exportTransactionsToExcel(user, searchDto);
 
-    String filename = String.format("transactions_%s.xlsx",
-      LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
+      String filename = String.format("transactions_%s.xlsx",
+        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
 
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-    headers.setContentDispositionFormData("attachment", filename);
-    headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+      HttpHeaders headers = new HttpHeaders();
+      headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+      headers.setContentDispositionFormData("attachment", filename);
+      headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
 
-    return new ResponseEntity<>(excelData, headers, HttpStatus.OK);
+      return new ResponseEntity<>(excelData, headers, HttpStatus.OK);
+    });
   }
 
   @PostMapping("/export/excel")
-  public ResponseEntity<byte[]> exportTransactionsToExcelPost(
+  public WebAsyncTask<ResponseEntity<byte[]>> exportTransactionsToExcelPost(
     @AuthenticationPrincipal User user,
     @Valid @RequestBody TransactionSearchDTO searchDto,
     HttpServletRequest request) {
 
     log.info("Export transactions to Excel POST request from IP: {}", RequestUtils.getClientIpAddress(request));
 
-    byte[] excelData = transactionService.exportTransactionsToExcel(user, searchDto);
+    return QueryCancellingInterceptor.task(exportTimeoutSeconds, () -> {
+      byte[] excelData = transactionService.exportTransactionsToExcel(user, searchDto);
 
-    String filename = String.format("transactions_%s.xlsx",
-      LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
+      String filename = String.format("transactions_%s.xlsx",
+        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
 
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-    headers.setContentDispositionFormData("attachment", filename);
-    headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+      HttpHeaders headers = new HttpHeaders();
+      headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+      headers.setContentDispositionFormData("attachment", filename);
+      headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
 
-    return new ResponseEntity<>(excelData, headers, HttpStatus.OK);
+      return new ResponseEntity<>(excelData, headers, HttpStatus.OK);
+    });
   }
 
 
@@ -490,7 +562,7 @@ public class TransactionController {
   }
 
   @PostMapping("/import/csv")
-  public ResponseEntity<ImportResultDTO> importFromCsv(
+  public WebAsyncTask<ResponseEntity<ImportResultDTO>> importFromCsv(
     @AuthenticationPrincipal User user,
     @RequestParam("file") MultipartFile file,
     HttpServletRequest request) {
@@ -507,12 +579,40 @@ public class TransactionController {
       throw new BadRequestException("Only CSV and Excel files (.csv, .xlsx, .xls) are supported");
     }
 
-    ImportResultDTO result = transactionService.importFromFile(user, file);
+    return runImport(() -> {
+      ImportResultDTO result = transactionService.importFromFile(user, file);
 
-    log.info("File import completed for user: {} - Success: {}, Failed: {}",
-      user.getEmail(), result.getSuccessfulImports(), result.getFailedImports());
+      log.info("File import completed for user: {} - Success: {}, Failed: {}",
+        user.getEmail(), result.getSuccessfulImports(), result.getFailedImports());
 
-    return ResponseEntity.ok(result);
+      return ResponseEntity.ok(result);
+    });
   }
 
+  /**
+   * Runs the import on the {@code importExecutor} as an async request, so the request
+   * thread is released while it runs. A saturated executor rejects the task, which is
+   * answered with 503 SERVICE_BUSY.
+   */
+  private WebAsyncTask<ResponseEntity<ImportResultDTO>> runImport(Callable<ResponseEntity<ImportResultDTO>> importTask) {
+    return new WebAsyncTask<>(null, importExecutor, DataOwnerContext.propagate(importTask));
+  }
+
+  /**
+   * The body is written on an async thread, so it carries the request's
+   * {@link DataOwnerContext} user along.
+   */
+  private static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+    Long owner = DataOwnerContext.current();
+    return ResponseEntity.ok()
+      .contentType(MediaType.APPLICATION_NDJSON)
+      .body(out -> {
+        Long previous = DataOwnerContext.enter(owner);
+        try {
+          body.writeTo(out);
+        } finally {
+          DataOwnerContext.restore(previous);
+        }
+      });
+  }
 }
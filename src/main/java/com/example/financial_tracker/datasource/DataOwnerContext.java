@@ -0,0 +1,63 @@
+package com.example.financial_tracker.datasource;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Id of the user whose data the current thread works on, which
+ * {@link ReadYourWritesGuard} checks when a read-only connection is picked. Bound for
+ * the request thread by {@code DataOwnerFilter} and carried to async, streaming,
+ * fan-out and warming threads explicitly, where the security context is not set.
+ */
+public final class DataOwnerContext {
+
+  private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+  private DataOwnerContext() {
+  }
+
+  /**
+   * @return the current user id, or {@code null} for work not done on behalf of a user
+   */
+  public static Long current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * @return {@code work} wrapped to run for the current thread's user on another thread
+   */
+  public static <V> Callable<V> propagate(Callable<V> work) {
+    Long userId = CURRENT.get();
+    return userId != null ? bind(userId, work) : work;
+  }
+
+  /**
+   * @return {@code work} wrapped to run on behalf of {@code userId}
+   */
+  public static <V> Callable<V> bind(Long userId, Callable<V> work) {
+    return () -> {
+      Long previous = enter(userId);
+      try {
+        return work.call();
+      } finally {
+        restore(previous);
+      }
+    };
+  }
+
+  /**
+   * @return the user id to hand back to {@link #restore} when the unit of work ends
+   */
+  public static Long enter(Long userId) {
+    Long previous = CURRENT.get();
+    if (userId == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(userId);
+    }
+    return previous;
+  }
+
+  public static void restore(Long previous) {
+    enter(previous);
+  }
+}
@@ -0,0 +1,122 @@
+package com.example.financial_tracker.datasource;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the persistence-context size of every transaction and changes nothing
+ * else. Read-only sessions come from Spring's dialect, which only marks sessions a
+ * read-only transaction opened itself; that covers every service transaction because
+ * {@code spring.jpa.open-in-view} is off. A pre-bound session is left writable, since
+ * it outlives the transaction and later writes in it must still be dirty-checked.
+ * <p>
+ * The entity count is read from the persistence context directly. Counting the
+ * entities that hold a snapshot walks every entry, so it is only done for one in
+ * {@code snapshotSampleEvery} transactions.
+ */
+public class PersistenceContextMetricsJpaDialect extends HibernateJpaDialect implements MeterBinder {
+
+  private final int snapshotSampleEvery;
+  private final AtomicLong transactions = new AtomicLong();
+
+  private volatile DistributionSummary readOnlyEntities;
+  private volatile DistributionSummary readWriteEntities;
+  private volatile DistributionSummary readOnlySnapshots;
+  private volatile DistributionSummary readWriteSnapshots;
+
+  /**
+   * @param snapshotSampleEvery count snapshots for one in this many transactions; 0 or less never counts them
+   */
+  public PersistenceContextMetricsJpaDialect(int snapshotSampleEvery) {
+    this.snapshotSampleEvery = snapshotSampleEvery;
+  }
+
+  @Override
+  public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+    throws PersistenceException, SQLException, TransactionException {
+    Object transactionData = super.beginTransaction(entityManager, definition);
+    return new MetricsTransactionData(transactionData, getSession(entityManager), definition.isReadOnly());
+  }
+
+  @Override
+  public void cleanupTransaction(Object transactionData) {
+    if (!(transactionData instanceof MetricsTransactionData data)) {
+      super.cleanupTransaction(transactionData);
+      return;
+    }
+    try {
+      if (data.session.isOpen()) {
+        record(data);
+      }
+    } finally {
+      super.cleanupTransaction(data.delegate);
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    readOnlyEntities = entities(registry, true);
+    readWriteEntities = entities(registry, false);
+    readOnlySnapshots = snapshots(registry, true);
+    readWriteSnapshots = snapshots(registry, false);
+  }
+
+  private void record(MetricsTransactionData data) {
+    DistributionSummary entities = data.readOnly ? readOnlyEntities : readWriteEntities;
+    DistributionSummary snapshots = data.readOnly ? readOnlySnapshots : readWriteSnapshots;
+    if (entities == null) {
+      return;
+    }
+    PersistenceContext context = data.session.getPersistenceContextInternal();
+    entities.record(context.getNumberOfManagedEntities());
+    if (snapshotSampleEvery <= 0 || transactions.getAndIncrement() % snapshotSampleEvery != 0) {
+      return;
+    }
+    int withSnapshot = 0;
+    for (Map.Entry<Object, EntityEntry> entry : context.reentrantSafeEntityEntries()) {
+      if (!entry.getValue().isReadOnly()) {
+        withSnapshot++;
+      }
+    }
+    snapshots.record(withSnapshot);
+  }
+
+  private static DistributionSummary entities(MeterRegistry registry, boolean readOnly) {
+    return DistributionSummary.builder("app.persistence.context.entities")
+      .description("Entities in the persistence context when a transaction completes")
+      .tag("read-only", String.valueOf(readOnly))
+      .register(registry);
+  }
+
+  private static DistributionSummary snapshots(MeterRegistry registry, boolean readOnly) {
+    return DistributionSummary.builder("app.persistence.context.snapshots")
+      .description("Managed entities holding a dirty-checking snapshot when a sampled transaction completes")
+      .tag("read-only", String.valueOf(readOnly))
+      .register(registry);
+  }
+
+  private static final class MetricsTransactionData {
+    private final Object delegate;
+    private final SessionImplementor session;
+    private final boolean readOnly;
+
+    MetricsTransactionData(Object delegate, SessionImplementor session, boolean readOnly) {
+      this.delegate = delegate;
+      this.session = session;
+      this.readOnly = readOnly;
+    }
+  }
+}
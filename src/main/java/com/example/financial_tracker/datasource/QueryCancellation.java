@@ -0,0 +1,145 @@
+package com.example.financial_tracker.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets another thread abort the queries of a unit of work. Work wrapped by
+ * {@link #task} runs with a scope bound to its thread; Hibernate sessions that take
+ * part in a transaction inside the scope are tracked, and cancelling the task cancels
+ * their in-flight JDBC statements and makes the next {@link #checkCurrent} throw.
+ */
+@Slf4j
+public final class QueryCancellation {
+
+  private static final ThreadLocal<QueryCancellation> CURRENT = new ThreadLocal<>();
+
+  private final Set<SharedSessionContractImplementor> sessions = ConcurrentHashMap.newKeySet();
+  private final Set<QueryCancellation> children = ConcurrentHashMap.newKeySet();
+  private volatile String reason;
+
+  private QueryCancellation() {
+  }
+
+  public static <V> Task<V> task(Callable<V> work) {
+    return new Task<>(work);
+  }
+
+  /**
+   * Scope for work the current thread hands to other threads. Cancelling the current
+   * scope cancels the returned one as well.
+   */
+  public static QueryCancellation fork() {
+    QueryCancellation child = new QueryCancellation();
+    QueryCancellation parent = CURRENT.get();
+    if (parent != null) {
+      parent.children.add(child);
+      if (parent.reason != null) {
+        child.cancel(parent.reason);
+      }
+    }
+    return child;
+  }
+
+  /**
+   * @return the scope of the current thread, or {@code null} outside any {@link Task}
+   */
+  public static QueryCancellation current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Cooperative check for loops that run between statements.
+   *
+   * @throws CancellationException if the current task was cancelled
+   */
+  public static void checkCurrent() {
+    QueryCancellation scope = CURRENT.get();
+    if (scope != null && scope.reason != null) {
+      throw new CancellationException("Query cancelled: " + scope.reason);
+    }
+  }
+
+  public void track(SharedSessionContractImplementor session) {
+    sessions.add(session);
+    if (reason != null) {
+      cancel(session);
+    }
+  }
+
+  public void untrack(SharedSessionContractImplementor session) {
+    sessions.remove(session);
+  }
+
+  /**
+   * Runs {@code work} with this scope bound to the calling thread.
+   */
+  public <V> V call(Callable<V> work) throws Exception {
+    QueryCancellation previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      return work.call();
+    } finally {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+  /**
+   * Safe to call from any thread.
+   */
+  public void cancel(String reason) {
+    if (this.reason != null) {
+      return;
+    }
+    this.reason = reason;
+    sessions.forEach(QueryCancellation::cancel);
+    children.forEach(child -> child.cancel(reason));
+  }
+
+  public boolean isCancelled() {
+    return reason != null;
+  }
+
+  private static void cancel(SharedSessionContractImplementor session) {
+    try {
+      session.getJdbcCoordinator().cancelLastQuery();
+    } catch (HibernateException e) {
+      log.debug("Could not cancel running statement: {}", e.getMessage());
+    }
+  }
+
+  public static final class Task<V> implements Callable<V> {
+    private final Callable<V> work;
+    private final QueryCancellation scope = new QueryCancellation();
+
+    private Task(Callable<V> work) {
+      this.work = work;
+    }
+
+    @Override
+    public V call() throws Exception {
+      return scope.call(work);
+    }
+
+    /**
+     * Safe to call from any thread.
+     */
+    public void cancel(String reason) {
+      scope.cancel(reason);
+    }
+
+    public boolean isCancelled() {
+      return scope.isCancelled();
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.financial_tracker.datasource;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Registers the session of every transaction begun inside a {@link QueryCancellation}
+ * scope, and releases it when the transaction completes.
+ */
+@RequiredArgsConstructor
+public class QueryCancellationListener implements TransactionExecutionListener {
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  @Override
+  public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+    QueryCancellation scope = QueryCancellation.current();
+    if (scope == null || beginFailure != null || !TransactionSynchronizationManager.isSynchronizationActive()
+      || !(TransactionSynchronizationManager.getResource(entityManagerFactory) instanceof EntityManagerHolder holder)) {
+      return;
+    }
+    SharedSessionContractImplementor session = holder.getEntityManager().unwrap(SharedSessionContractImplementor.class);
+    scope.track(session);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        scope.untrack(session);
+      }
+    });
+  }
+}
@@ -0,0 +1,177 @@
+package com.example.financial_tracker.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read replicas for read-only transactions. {@link #wrap} puts a
+ * {@link LazyConnectionDataSourceProxy} in front of the primary: the physical
+ * connection is only fetched at the first statement, by which time the transaction
+ * manager has marked it read-only, and read-only connections come from a healthy
+ * replica picked round-robin. Reads fall back to the primary while no replica is
+ * healthy or while {@link ReadYourWritesGuard} pins the user of
+ * {@link DataOwnerContext}.
+ */
+@Slf4j
+public class ReadReplicas implements MeterBinder, AutoCloseable {
+
+  private final List<Replica> replicas = new ArrayList<>();
+  private final ReadYourWritesGuard guard;
+  private final String lagQuery;
+  private final Duration maxLag;
+  private final AtomicInteger next = new AtomicInteger();
+
+  private volatile Counter pinnedFallbacks;
+  private volatile Counter unavailableFallbacks;
+
+  /**
+   * @param lagQuery query returning the replica's replay lag in seconds, or blank to skip the lag check
+   */
+  public ReadReplicas(Map<String, DataSource> replicas, ReadYourWritesGuard guard, String lagQuery, Duration maxLag) {
+    replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+    this.guard = guard;
+    this.lagQuery = lagQuery;
+    this.maxLag = maxLag;
+  }
+
+  public DataSource wrap(DataSource primary) {
+    LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+    proxy.setReadOnlyDataSource(new ReadOnlyRouting(primary));
+    return proxy;
+  }
+
+  @Scheduled(fixedDelayString = "${app.db.replicas.health-check-interval-ms:10000}")
+  public void checkHealth() {
+    for (Replica replica : replicas) {
+      boolean healthy;
+      try (Connection connection = replica.dataSource.getConnection()) {
+        healthy = connection.isValid(2) && lagWithinLimit(replica, connection);
+      } catch (SQLException e) {
+        log.debug("Health check of replica '{}' failed: {}", replica.name, e.getMessage());
+        healthy = false;
+      }
+      if (healthy != replica.healthy) {
+        log.warn("Replica '{}' is now {}", replica.name, healthy ? "healthy" : "unhealthy");
+      }
+      replica.healthy = healthy;
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (Replica replica : replicas) {
+      Gauge.builder("app.db.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+        .description("Whether the replica currently serves read-only transactions")
+        .tag("replica", replica.name)
+        .register(registry);
+    }
+    pinnedFallbacks = fallbacks(registry, "read-your-writes");
+    unavailableFallbacks = fallbacks(registry, "unavailable");
+  }
+
+  @Override
+  public void close() throws Exception {
+    for (Replica replica : replicas) {
+      if (replica.dataSource instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+
+  private Connection readOnlyConnection(DataSource primary) throws SQLException {
+    if (guard.requiresPrimary(DataOwnerContext.current())) {
+      increment(pinnedFallbacks);
+      return primary.getConnection();
+    }
+    int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+    for (int i = 0; i < replicas.size(); i++) {
+      Replica replica = replicas.get((start + i) % replicas.size());
+      if (!replica.healthy) {
+        continue;
+      }
+      try {
+        return replica.dataSource.getConnection();
+      } catch (SQLException e) {
+        log.warn("Replica '{}' refused a connection, marking it unhealthy: {}", replica.name, e.getMessage());
+        replica.healthy = false;
+      }
+    }
+    increment(unavailableFallbacks);
+    return primary.getConnection();
+  }
+
+  private boolean lagWithinLimit(Replica replica, Connection connection) throws SQLException {
+    if (!StringUtils.hasText(lagQuery)) {
+      return true;
+    }
+    try (Statement statement = connection.createStatement();
+         ResultSet rs = statement.executeQuery(lagQuery)) {
+      double lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+      if (lagSeconds * 1000 > maxLag.toMillis()) {
+        log.debug("Replica '{}' is {}s behind", replica.name, lagSeconds);
+        return false;
+      }
+      return true;
+    }
+  }
+
+  private static void increment(Counter counter) {
+    if (counter != null) {
+      counter.increment();
+    }
+  }
+
+  private static Counter fallbacks(MeterRegistry registry, String reason) {
+    return Counter.builder("app.db.replica.fallbacks")
+      .description("Read-only connections served by the primary instead of a replica")
+      .tag("reason", reason)
+      .register(registry);
+  }
+
+  private static final class Replica {
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy = true;
+
+    Replica(String name, DataSource dataSource) {
+      this.name = name;
+      this.dataSource = dataSource;
+    }
+  }
+
+  private final class ReadOnlyRouting extends AbstractDataSource {
+    private final DataSource primary;
+
+    ReadOnlyRouting(DataSource primary) {
+      this.primary = primary;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      return readOnlyConnection(primary);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      throw new SQLException("Replica connections do not take explicit credentials");
+    }
+  }
+}
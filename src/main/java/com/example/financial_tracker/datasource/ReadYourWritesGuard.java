@@ -0,0 +1,47 @@
+package com.example.financial_tracker.datasource;
+
+import com.example.financial_tracker.service.UserDataChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Keeps a user's reads on the primary for a short window after they wrote, so a
+ * replica that has not replayed the write yet cannot hide it from the writer.
+ * Other users keep reading from replicas.
+ */
+public class ReadYourWritesGuard {
+
+  private final Cache<Long, Boolean> recentWriters;
+
+  public ReadYourWritesGuard(Duration window) {
+    this(window, Ticker.systemTicker());
+  }
+
+  ReadYourWritesGuard(Duration window, Ticker ticker) {
+    this.recentWriters = Caffeine.newBuilder()
+      .expireAfterWrite(window)
+      .maximumSize(100_000)
+      .ticker(ticker)
+      .build();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onUserDataChanged(UserDataChangedEvent event) {
+    if (event.getUserId() != null) {
+      recentWriters.put(event.getUserId(), Boolean.TRUE);
+    }
+  }
+
+  /**
+   * @param userId the user the read is done for, or {@code null} for work not done on behalf of a user
+   * @return whether that user wrote within the window
+   */
+  public boolean requiresPrimary(Long userId) {
+    return userId != null && recentWriters.getIfPresent(userId) != null;
+  }
+}
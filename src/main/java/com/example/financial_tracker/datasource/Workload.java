@@ -0,0 +1,11 @@
+package com.example.financial_tracker.datasource;
+
+/**
+ * Connection pool a unit of work should draw from.
+ */
+public enum Workload {
+  /** Request/response traffic; the default when nothing is declared. */
+  INTERACTIVE,
+  /** Exports, long-window analytics, reports, imports and scheduled jobs. */
+  REPORTING
+}
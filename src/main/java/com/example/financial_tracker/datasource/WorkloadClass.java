@@ -0,0 +1,20 @@
+package com.example.financial_tracker.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Routes the transactions started inside the annotated method, or every public
+ * method of the annotated class, to the pool of the given workload. A transaction
+ * that is already open keeps its connection.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface WorkloadClass {
+
+  Workload value();
+}
@@ -0,0 +1,43 @@
+package com.example.financial_tracker.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Sets {@link WorkloadContext} for the duration of a {@link WorkloadClass} method.
+ * Runs ahead of the transaction interceptor so the connection acquired when the
+ * transaction begins already comes from the right pool.
+ */
+public class WorkloadClassInterceptor implements MethodInterceptor {
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    Workload workload = resolve(invocation);
+    if (workload == null) {
+      return invocation.proceed();
+    }
+    Workload previous = WorkloadContext.enter(workload);
+    try {
+      return invocation.proceed();
+    } finally {
+      WorkloadContext.restore(previous);
+    }
+  }
+
+  private static Workload resolve(MethodInvocation invocation) {
+    Class<?> targetClass = invocation.getThis() != null
+      ? AopUtils.getTargetClass(invocation.getThis())
+      : invocation.getMethod().getDeclaringClass();
+    Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+
+    WorkloadClass annotation = AnnotatedElementUtils.findMergedAnnotation(method, WorkloadClass.class);
+    if (annotation == null) {
+      annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, WorkloadClass.class);
+    }
+    return annotation != null ? annotation.value() : null;
+  }
+}
@@ -0,0 +1,61 @@
+package com.example.financial_tracker.datasource;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Workload of the current thread, set by {@link WorkloadClassInterceptor}.
+ */
+public final class WorkloadContext {
+
+  private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+  private WorkloadContext() {
+  }
+
+  /**
+   * @return the current workload, or {@code null} outside any {@link WorkloadClass} method
+   */
+  public static Workload current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * @return {@code work} wrapped to run under the current thread's workload on another thread
+   */
+  public static <V> Callable<V> propagate(Callable<V> work) {
+    Workload workload = CURRENT.get();
+    return workload != null ? bind(workload, work) : work;
+  }
+
+  /**
+   * @return {@code work} wrapped to run under {@code workload}, for units of work that
+   * are not started through a {@link WorkloadClass} method
+   */
+  public static <V> Callable<V> bind(Workload workload, Callable<V> work) {
+    return () -> {
+      Workload previous = enter(workload);
+      try {
+        return work.call();
+      } finally {
+        restore(previous);
+      }
+    };
+  }
+
+  /**
+   * @return the workload to hand back to {@link #restore} when the unit of work ends
+   */
+  static Workload enter(Workload workload) {
+    Workload previous = CURRENT.get();
+    CURRENT.set(workload);
+    return previous;
+  }
+
+  static void restore(Workload previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+}
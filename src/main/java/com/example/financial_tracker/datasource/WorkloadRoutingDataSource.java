@@ -0,0 +1,29 @@
+package com.example.financial_tracker.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool registered for the current {@link Workload},
+ * falling back to the interactive pool. Any {@link DataSource} can back a workload,
+ * including one pointed at a read replica.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+  public WorkloadRoutingDataSource(DataSource interactive, Map<Workload, DataSource> targets) {
+    Map<Object, Object> resolved = new HashMap<>();
+    resolved.put(Workload.INTERACTIVE, interactive);
+    resolved.putAll(targets);
+    setTargetDataSources(resolved);
+    setDefaultTargetDataSource(interactive);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return WorkloadContext.current();
+  }
+}
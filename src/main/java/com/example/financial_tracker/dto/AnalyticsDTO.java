@@ -1,5 +1,6 @@
 package com.example.financial_tracker.dto;
 
+import com.example.financial_tracker.enumerations.Currency;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,7 +11,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class AnalyticsDTO {
@@ -23,4 +24,9 @@ public class AnalyticsDTO {
   private List<CategoryStatsDTO> topIncomeCategories;
   private ComparisonStatsDTO comparison;
   private List<MonthlyStatsDTO> monthlyStatsList;
+
+  private BigDecimal currentBalanceSecondary;
+  private BigDecimal totalIncomeSecondary;
+  private BigDecimal totalExpenseSecondary;
+  private Currency secondaryCurrency;
 }
@@ -0,0 +1,39 @@
+package com.example.financial_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CashFlowForecastDTO {
+  private LocalDate startDate;
+  private LocalDate endDate;
+  private Integer horizonDays;
+  private Integer scheduleCount;
+  private BigDecimal startingBalance;
+  private BigDecimal endingBalance;
+  private BigDecimal projectedIncome;
+  private BigDecimal projectedExpense;
+  private BigDecimal lowestBalance;
+  private LocalDate lowestBalanceDate;
+  private List<ForecastPointDTO> dailyBalances;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class ForecastPointDTO {
+    private LocalDate date;
+    private BigDecimal income;
+    private BigDecimal expense;
+    private BigDecimal balance;
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.financial_tracker.dto;
+
+import com.example.financial_tracker.entity.EmailHistory;
+import com.example.financial_tracker.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutgoingEmail {
+  private String to;
+  private String subject;
+  private String htmlContent;
+  private EmailHistory.EmailType type;
+  private User user;
+}
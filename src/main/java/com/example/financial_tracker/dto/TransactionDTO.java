@@ -1,6 +1,7 @@
 package com.example.financial_tracker.dto;
 
 import com.example.financial_tracker.enumerations.Currency;
+import com.example.financial_tracker.enumerations.TransactionType;
 import com.example.financial_tracker.validation.ValidTransactionAmount;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -28,7 +29,7 @@ public class TransactionDTO {
   @Digits(integer = 9, fraction = 2, message = "Amount must have maximum 9 digits and 2 decimal places")
   private BigDecimal amount;
 
-  private Currency currency = Currency.USD;
+  private Currency currency;
   private BigDecimal originalAmount;
   private BigDecimal exchangeRate;
   private BigDecimal convertedAmount;
@@ -54,4 +55,24 @@ public class TransactionDTO {
   private Long userId;
 
   private Set<String> tags;
+
+  /**
+   * Target of the {@code TransactionRepository.SELECT_DTO} constructor expression.
+   */
+  public TransactionDTO(Long id, BigDecimal amount, Currency currency, BigDecimal originalAmount,
+                        BigDecimal exchangeRate, TransactionType type, Long categoryId, String categoryName,
+                        String categoryColor, LocalDate date, String description, Long userId) {
+    this.id = id;
+    this.amount = amount;
+    this.currency = currency;
+    this.originalAmount = originalAmount;
+    this.exchangeRate = exchangeRate;
+    this.type = type != null ? type.name() : null;
+    this.categoryId = categoryId;
+    this.categoryName = categoryName;
+    this.categoryColor = categoryColor;
+    this.date = date;
+    this.description = description;
+    this.userId = userId;
+  }
 }
@@ -16,4 +16,7 @@ public class TransactionSearchStatsDTO {
   private BigDecimal totalIncome;
   private BigDecimal totalExpense;
   private BigDecimal netAmount;
+  private BigDecimal minAmount;
+  private BigDecimal maxAmount;
+  private BigDecimal averageAmount;
 }
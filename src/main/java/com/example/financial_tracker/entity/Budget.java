@@ -17,8 +17,9 @@ import java.time.LocalDateTime;
 @Builder
 @EqualsAndHashCode(of = "id")
 @Entity
+@EntityListeners(UserDataChangeListener.class)
 @Table(name = "budgets")
-public class Budget {
+public class Budget implements UserOwned {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
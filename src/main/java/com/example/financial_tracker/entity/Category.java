@@ -10,8 +10,9 @@ import lombok.Setter;
 @Setter
 @EqualsAndHashCode(of = "id")
 @Entity
+@EntityListeners(UserDataChangeListener.class)
 @Table(name = "categories")
-public class Category {
+public class Category implements UserOwned {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
@@ -28,6 +28,12 @@ public class EmailQuota {
   @Column(name = "monthly_count", nullable = false)
   private Integer monthlyCount = 0;
 
+  @Column(name = "hour_start")
+  private LocalDateTime hourStart;
+
+  @Column(name = "hourly_count", nullable = false)
+  private Integer hourlyCount = 0;
+
   @Column(name = "created_at", nullable = false)
   private LocalDateTime createdAt = LocalDateTime.now();
 }
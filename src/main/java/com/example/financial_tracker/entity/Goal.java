@@ -15,8 +15,9 @@ import java.time.LocalDateTime;
 @Setter
 @EqualsAndHashCode(of = "id")
 @Entity
+@EntityListeners(UserDataChangeListener.class)
 @Table(name = "goals")
-public class Goal {
+public class Goal implements UserOwned {
 
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
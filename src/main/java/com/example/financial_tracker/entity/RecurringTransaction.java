@@ -15,8 +15,9 @@ import java.time.LocalDateTime;
 @Setter
 @EqualsAndHashCode(of = "id")
 @Entity
+@EntityListeners(UserDataChangeListener.class)
 @Table(name = "recurring_transactions")
-public class RecurringTransaction {
+public class RecurringTransaction implements UserOwned {
 
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,5 +1,6 @@
 package com.example.financial_tracker.entity;
 
+import com.example.financial_tracker.enumerations.Currency;
 import com.example.financial_tracker.enumerations.TransactionType;
 import jakarta.persistence.*;
 import lombok.*;
@@ -17,8 +18,9 @@ import java.time.LocalDate;
 @Builder
 @EqualsAndHashCode(of = "id")
 @Entity
+@EntityListeners(UserDataChangeListener.class)
 @Table(name = "transactions")
-public class Transaction {
+public class Transaction implements UserOwned {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
@@ -26,6 +28,16 @@ public class Transaction {
   @Column(nullable = false)
   private BigDecimal amount;
 
+  @Column(length = 3)
+  @Enumerated(EnumType.STRING)
+  private Currency currency;
+
+  @Column(name = "original_amount")
+  private BigDecimal originalAmount;
+
+  @Column(name = "exchange_rate", precision = 10, scale = 6)
+  private BigDecimal exchangeRate;
+
   @Column(name = "transaction_type", columnDefinition = "varchar(50)")
   @Enumerated(EnumType.STRING)
   private TransactionType type;
@@ -50,4 +62,25 @@ public class Transaction {
   @UpdateTimestamp
   @Column(name = "updated_at")
   private LocalDateTime updatedAt;
+
+  /** Date as loaded from the database, so an update can also invalidate the old date. */
+  @Transient
+  @Setter(AccessLevel.NONE)
+  private LocalDate loadedDate;
+
+  @PostLoad
+  protected void rememberLoadedDate() {
+    loadedDate = date;
+  }
+
+  /** Records the amount as first entered; later edits of {@code amount} leave it as is. */
+  @PrePersist
+  protected void applyCurrencyDefaults() {
+    if (currency == null) {
+      currency = user != null && user.getDefaultCurrency() != null ? user.getDefaultCurrency() : Currency.USD;
+    }
+    if (originalAmount == null) {
+      originalAmount = amount;
+    }
+  }
 }
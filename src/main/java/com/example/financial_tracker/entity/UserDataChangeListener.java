@@ -0,0 +1,40 @@
+package com.example.financial_tracker.entity;
+
+import com.example.financial_tracker.service.UserDataChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Publishes a {@link UserDataChangedEvent} for every insert, update or delete of a
+ * {@link UserOwned} entity. Listeners decide whether to act before or after commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDataChangeListener {
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void onChange(Object entity) {
+    if (!(entity instanceof UserOwned owned) || owned.getUser() == null) {
+      return;
+    }
+    LocalDate date = null;
+    LocalDate previousDate = null;
+    if (entity instanceof Transaction transaction) {
+      date = transaction.getDate();
+      if (transaction.getLoadedDate() != null && !transaction.getLoadedDate().equals(date)) {
+        previousDate = transaction.getLoadedDate();
+      }
+    }
+    eventPublisher.publishEvent(new UserDataChangedEvent(owned.getUser().getId(), entity.getClass(), date, previousDate));
+  }
+}
@@ -0,0 +1,10 @@
+package com.example.financial_tracker.entity;
+
+/**
+ * Entity that belongs to one user. Changes to these entities invalidate the user's
+ * cached read models through {@link UserDataChangeListener}.
+ */
+public interface UserOwned {
+
+  User getUser();
+}
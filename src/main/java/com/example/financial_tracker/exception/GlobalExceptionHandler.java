@@ -2,18 +2,23 @@ package com.example.financial_tracker.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 @Slf4j
 @RestControllerAdvice
@@ -99,6 +104,43 @@ public class GlobalExceptionHandler {
     return ResponseEntity.badRequest().body(errorResponse);
   }
 
+  @ExceptionHandler(TaskRejectedException.class)
+  public ResponseEntity<ErrorResponse> handleTaskRejected(
+    TaskRejectedException ex,
+    HttpServletRequest request) {
+
+    log.warn("Task rejected, executor saturated: {}", ex.getMessage());
+
+    ErrorResponse errorResponse = ErrorResponse.builder()
+      .message("The server is busy, please try again shortly")
+      .error("SERVICE_BUSY")
+      .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+      .timestamp(LocalDateTime.now())
+      .path(request.getRequestURI())
+      .build();
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+  }
+
+  @ExceptionHandler({QueryTimeoutException.class, jakarta.persistence.QueryTimeoutException.class,
+    TransactionTimedOutException.class, AsyncRequestTimeoutException.class, CancellationException.class})
+  public ResponseEntity<ErrorResponse> handleQueryTimeout(
+    Exception ex,
+    HttpServletRequest request) {
+
+    log.warn("Request {} ran out of time: {}", request.getRequestURI(), ex.getMessage());
+
+    ErrorResponse errorResponse = ErrorResponse.builder()
+      .message("The request took too long and was cancelled, please narrow it down or try again later")
+      .error("QUERY_TIMEOUT")
+      .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+      .timestamp(LocalDateTime.now())
+      .path(request.getRequestURI())
+      .build();
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+  }
+
   @ExceptionHandler(IllegalArgumentException.class)
   public ResponseEntity<ErrorResponse> handleIllegalArgument(
     IllegalArgumentException ex,
@@ -0,0 +1,87 @@
+package com.example.financial_tracker.filter;
+
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.service.CurrencyService;
+import com.example.financial_tracker.service.DataVersionStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Conditional GET for read endpoints whose body depends only on the user's data.
+ * The strong ETag combines the user's data version with everything else the
+ * response depends on: path, query parameters, currency preferences, the loaded
+ * exchange rates and today's date. A matching {@code If-None-Match} is answered
+ * with 304 before the controller runs.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+  private final DataVersionStore dataVersionStore;
+  private final CurrencyService currencyService;
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!"GET".equals(request.getMethod())) {
+      return true;
+    }
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+      return true;
+    }
+
+    String etag = etag(request, user);
+    response.setHeader(HttpHeaders.ETAG, etag);
+    response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+    if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return false;
+    }
+    return true;
+  }
+
+  String etag(HttpServletRequest request, User user) {
+    long version = dataVersionStore.currentVersion(user.getId());
+    int context = Objects.hash(
+      request.getRequestURI(),
+      sortedParameters(request.getParameterMap()),
+      user.getDefaultCurrency(),
+      user.isDisplaySecondaryCurrency(),
+      user.getSecondaryCurrency(),
+      currencyService.getRateMatrix().getBuiltAt(),
+      LocalDate.now());
+    return "\"" + Long.toHexString(version) + "-" + Integer.toHexString(context) + "\"";
+  }
+
+  private static String sortedParameters(Map<String, String[]> parameters) {
+    Map<String, String> sorted = new TreeMap<>();
+    parameters.forEach((name, values) -> sorted.put(name, Arrays.toString(values)));
+    return sorted.toString();
+  }
+
+  private static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals(etag) || tag.equals("*")) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
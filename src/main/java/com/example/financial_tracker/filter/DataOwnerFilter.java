@@ -0,0 +1,40 @@
+package com.example.financial_tracker.filter;
+
+import com.example.financial_tracker.datasource.DataOwnerContext;
+import com.example.financial_tracker.entity.User;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the authenticated user's id to {@link DataOwnerContext} for the request
+ * thread. Runs right after the security filter chain, which sets the principal.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class DataOwnerFilter extends OncePerRequestFilter {
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    Long userId = authentication != null && authentication.getPrincipal() instanceof User user ? user.getId() : null;
+
+    Long previous = DataOwnerContext.enter(userId);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      DataOwnerContext.restore(previous);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.example.financial_tracker.filter;
+
+import com.example.financial_tracker.datasource.DataOwnerContext;
+import com.example.financial_tracker.datasource.QueryCancellation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancels the statements of a {@link QueryCancellation.Task} once its response can no
+ * longer be delivered, either because the async request timed out or because the
+ * client went away, and counts those cancellations as well as database-side timeouts.
+ */
+@Slf4j
+@Component
+public class QueryCancellingInterceptor implements CallableProcessingInterceptor, MeterBinder {
+
+  /** Lets the database-side statement timeout fire before the request itself times out. */
+  private static final long ASYNC_GRACE_SECONDS = 5;
+
+  static final String ASYNC_TIMEOUT = "async-timeout";
+  static final String DISCONNECT = "disconnect";
+
+  private volatile Counter asyncTimeouts;
+  private volatile Counter disconnects;
+  private volatile Counter statementTimeouts;
+
+  /**
+   * Runs {@code work} as a cancellable async request whose deadline follows the given
+   * statement timeout, on behalf of the request thread's {@link DataOwnerContext} user.
+   */
+  public static <T> WebAsyncTask<T> task(int statementTimeoutSeconds, Callable<T> work) {
+    return new WebAsyncTask<>(TimeUnit.SECONDS.toMillis(statementTimeoutSeconds + ASYNC_GRACE_SECONDS),
+      QueryCancellation.task(DataOwnerContext.propagate(work)));
+  }
+
+  @Override
+  public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+    cancel(request, task, ASYNC_TIMEOUT, asyncTimeouts);
+    return RESULT_NONE;
+  }
+
+  @Override
+  public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+    cancel(request, task, DISCONNECT, disconnects);
+    return RESULT_NONE;
+  }
+
+  @Override
+  public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+    if (task instanceof QueryCancellation.Task<?> cancellable && !cancellable.isCancelled()
+      && isTimeout(concurrentResult) && statementTimeouts != null) {
+      statementTimeouts.increment();
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    asyncTimeouts = cancelled(registry, ASYNC_TIMEOUT);
+    disconnects = cancelled(registry, DISCONNECT);
+    statementTimeouts = Counter.builder("app.db.queries.timed-out")
+      .description("Requests whose queries ran past their statement timeout")
+      .register(registry);
+  }
+
+  private static void cancel(NativeWebRequest request, Callable<?> task, String reason, Counter counter) {
+    if (!(task instanceof QueryCancellation.Task<?> cancellable) || cancellable.isCancelled()) {
+      return;
+    }
+    log.info("Cancelling queries of {} ({})", request.getDescription(false), reason);
+    cancellable.cancel(reason);
+    if (counter != null) {
+      counter.increment();
+    }
+  }
+
+  private static boolean isTimeout(Object result) {
+    Throwable t = result instanceof Throwable throwable ? throwable : null;
+    while (t != null) {
+      if (t instanceof QueryTimeoutException || t instanceof TransactionTimedOutException
+        || t instanceof jakarta.persistence.QueryTimeoutException) {
+        return true;
+      }
+      t = t.getCause() != t ? t.getCause() : null;
+    }
+    return false;
+  }
+
+  private static Counter cancelled(MeterRegistry registry, String reason) {
+    return Counter.builder("app.db.queries.cancelled")
+      .description("Requests whose queries were cancelled because the response was abandoned")
+      .tag("reason", reason)
+      .register(registry);
+  }
+}
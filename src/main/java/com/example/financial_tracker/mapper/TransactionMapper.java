@@ -14,10 +14,14 @@ public interface TransactionMapper {
   @Mapping(source = "category.name", target = "categoryName")
   @Mapping(source = "category.color", target = "categoryColor")
   @Mapping(source = "user.id", target = "userId")
+  @Mapping(target = "convertedAmount", ignore = true)
   TransactionDTO toDto(Transaction entity);
 
   @Mapping(target = "user", ignore = true)
   @Mapping(target = "category", ignore = true)
+  @Mapping(target = "originalAmount", ignore = true)
+  @Mapping(target = "exchangeRate", ignore = true)
+  @Mapping(target = "loadedDate", ignore = true)
   Transaction toEntity(TransactionDTO dto);
 
   List<TransactionDTO> toDtoList(List<Transaction> entities);
@@ -38,4 +38,10 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
     "LEFT JOIN FETCH b.category " +
     "WHERE b.user = :user AND b.active = true")
   List<Budget> findActiveByUser(@Param("user") User user);
+
+  @Query("SELECT b FROM Budget b " +
+    "LEFT JOIN FETCH b.category " +
+    "JOIN b.user u JOIN u.notificationSettings ns " +
+    "WHERE b.active = true AND ns.monthlyReport = true AND ns.emailEnabled = true")
+  List<Budget> findActiveForMonthlyReportRecipients();
 }
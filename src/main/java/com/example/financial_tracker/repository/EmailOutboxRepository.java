@@ -0,0 +1,34 @@
+package com.example.financial_tracker.repository;
+
+import com.example.financial_tracker.entity.EmailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+  // lock timeout -2 renders as FOR UPDATE SKIP LOCKED, so concurrent dispatchers claim disjoint rows
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query("SELECT o FROM EmailOutbox o WHERE o.status = :status AND o.nextAttemptAt <= :now " +
+    "ORDER BY o.nextAttemptAt")
+  List<EmailOutbox> findDueForUpdate(@Param("status") EmailOutbox.Status status,
+                                     @Param("now") LocalDateTime now,
+                                     Pageable pageable);
+
+  @Modifying
+  @Query("UPDATE EmailOutbox o SET o.status = :pending, o.claimedAt = NULL " +
+    "WHERE o.status = :sending AND o.claimedAt < :claimedBefore")
+  int releaseStaleClaims(@Param("pending") EmailOutbox.Status pending,
+                         @Param("sending") EmailOutbox.Status sending,
+                         @Param("claimedBefore") LocalDateTime claimedBefore);
+}
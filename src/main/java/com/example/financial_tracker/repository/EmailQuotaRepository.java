@@ -2,14 +2,53 @@ package com.example.financial_tracker.repository;
 
 import com.example.financial_tracker.entity.EmailQuota;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface EmailQuotaRepository extends JpaRepository<EmailQuota, Long> {
   Optional<EmailQuota> findByDate(LocalDate date);
 
+  boolean existsByDate(LocalDate date);
+
   @Query("SELECT COALESCE(SUM(e.dailyCount), 0) FROM EmailQuota e WHERE e.date >= :startDate AND e.date <= :endDate")
   Integer getMonthlyCount(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+  @Modifying
+  @Transactional
+  @Query("UPDATE EmailQuota e SET e.dailyCount = e.dailyCount + :count, " +
+    "e.monthlyCount = e.monthlyCount + :count WHERE e.date = :date")
+  int addSent(@Param("date") LocalDate date, @Param("count") int count);
+
+  @Modifying
+  @Transactional
+  @Query("UPDATE EmailQuota e SET " +
+    "e.hourlyCount = CASE WHEN e.hourStart = :hour THEN e.hourlyCount + :count ELSE :count END, " +
+    "e.hourStart = :hour, " +
+    "e.dailyCount = e.dailyCount + :count, " +
+    "e.monthlyCount = e.monthlyCount + :count " +
+    "WHERE e.date = :date " +
+    "AND e.dailyCount + :count <= :dailyLimit " +
+    "AND e.monthlyCount + :count <= :monthlyLimit " +
+    "AND (e.hourStart IS NULL OR e.hourStart <> :hour OR e.hourlyCount + :count <= :hourlyLimit)")
+  int reserve(@Param("date") LocalDate date,
+              @Param("hour") LocalDateTime hour,
+              @Param("count") int count,
+              @Param("hourlyLimit") int hourlyLimit,
+              @Param("dailyLimit") int dailyLimit,
+              @Param("monthlyLimit") int monthlyLimit);
+
+  @Modifying
+  @Transactional
+  @Query("UPDATE EmailQuota e SET " +
+    "e.hourlyCount = CASE WHEN e.hourStart = :hour THEN e.hourlyCount - :count ELSE e.hourlyCount END, " +
+    "e.dailyCount = e.dailyCount - :count, " +
+    "e.monthlyCount = e.monthlyCount - :count " +
+    "WHERE e.date = :date AND e.dailyCount >= :count")
+  int release(@Param("date") LocalDate date, @Param("hour") LocalDateTime hour, @Param("count") int count);
 }
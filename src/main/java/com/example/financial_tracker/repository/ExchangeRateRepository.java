@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,10 +30,29 @@ public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Long
   List<ExchangeRate> findCurrentRatesForCurrency(@Param("currency") Currency currency,
                                                  @Param("date") LocalDateTime date);
 
+  @Query("SELECT er FROM ExchangeRate er WHERE " +
+    "er.validFrom <= :date AND (er.validTo IS NULL OR er.validTo > :date) " +
+    "ORDER BY er.validFrom")
+  List<ExchangeRate> findAllCurrentRates(@Param("date") LocalDateTime date);
+
+  @Query("SELECT er.fromCurrency, er.toCurrency, er.rate, er.validFrom FROM ExchangeRate er " +
+    "ORDER BY er.validFrom")
+  List<Object[]> findRateHistory();
+
+  @Query("SELECT MAX(er.id) FROM ExchangeRate er")
+  Long findMaxId();
+
   @Modifying
   @Query("UPDATE ExchangeRate er SET er.validTo = :date WHERE " +
     "er.fromCurrency = :from AND er.toCurrency = :to AND er.validTo IS NULL")
   void closeExistingRates(@Param("from") Currency from,
                           @Param("to") Currency to,
                           @Param("date") LocalDateTime date);
+
+  @Modifying
+  @Query("UPDATE ExchangeRate er SET er.validTo = :date WHERE " +
+    "er.fromCurrency = :from AND er.toCurrency IN :targets AND er.validTo IS NULL")
+  int closeOpenRates(@Param("from") Currency from,
+                     @Param("targets") Collection<Currency> targets,
+                     @Param("date") LocalDateTime date);
 }
@@ -29,6 +29,14 @@ public interface RecurringTransactionRepository extends JpaRepository<RecurringT
     "WHERE rt.user = :user AND rt.active = true")
   List<RecurringTransaction> findActiveByUser(@Param("user") User user);
 
+  @Query("SELECT rt.amount, rt.type, rt.frequency, rt.nextExecutionDate, rt.endDate, rt.dayOfMonth, rt.dayOfWeek " +
+    "FROM RecurringTransaction rt " +
+    "WHERE rt.user = :user AND rt.active = true AND rt.nextExecutionDate <= :horizonEnd " +
+    "AND (rt.endDate IS NULL OR rt.endDate >= :today)")
+  List<Object[]> findForecastSchedules(@Param("user") User user,
+                                       @Param("today") LocalDate today,
+                                       @Param("horizonEnd") LocalDate horizonEnd);
+
   @Query("SELECT COUNT(rt) FROM RecurringTransaction rt WHERE rt.user = :user AND rt.active = true")
   Long countActiveByUser(@Param("user") User user);
 
@@ -1,14 +1,19 @@
 package com.example.financial_tracker.repository;
 
+import com.example.financial_tracker.dto.TransactionDTO;
 import com.example.financial_tracker.entity.Category;
 import com.example.financial_tracker.entity.Transaction;
+import com.example.financial_tracker.enumerations.Currency;
 import com.example.financial_tracker.enumerations.TransactionType;
 import com.example.financial_tracker.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -16,29 +21,49 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction>,
+  TransactionSearchRepository {
 
-  List<Transaction> findByUserOrderByDateDesc(User user);
-  Page<Transaction> findByUserOrderByDateDesc(User user, Pageable pageable);
-  Optional<Transaction> findByIdAndUser(Long id, User user);
-  List<Transaction> findByUserAndCategoryNameOrderByDateDesc(User user, String categoryName);
-  List<Transaction> findByUserAndTypeOrderByDateDesc(User user, TransactionType type);
+  /**
+   * Read-model projection straight into {@link TransactionDTO}: no entities, proxies
+   * or dirty-checking snapshots. Queries using it alias the category join as {@code c}.
+   */
+  String SELECT_DTO = "SELECT new com.example.financial_tracker.dto.TransactionDTO(" +
+    "t.id, t.amount, t.currency, t.originalAmount, t.exchangeRate, t.type, " +
+    "c.id, c.name, c.color, t.date, t.description, t.user.id) " +
+    "FROM Transaction t JOIN t.category c ";
 
-  @Query("SELECT t FROM Transaction t " +
-    "JOIN FETCH t.category " +
-    "WHERE t.user = :user " +
+  String FILTERS = "WHERE t.user = :user " +
     "AND (:type IS NULL OR t.type = :type) " +
-    "AND (:categoryId IS NULL OR t.category.id = :categoryId) " +
+    "AND (:categoryId IS NULL OR c.id = :categoryId) " +
     "AND (:startDate IS NULL OR t.date >= :startDate) " +
-    "AND (:endDate IS NULL OR t.date <= :endDate) " +
-    "ORDER BY t.date DESC")
-  List<Transaction> findByUserWithFilters(@Param("user") User user,
-                                          @Param("type") TransactionType type,
-                                          @Param("categoryId") Long categoryId,
-                                          @Param("startDate") LocalDate startDate,
-                                          @Param("endDate") LocalDate endDate);
+    "AND (:endDate IS NULL OR t.date <= :endDate) ";
+
+  @Query(SELECT_DTO + "WHERE t.user = :user ORDER BY t.date DESC")
+  List<TransactionDTO> findDtosByUser(@Param("user") User user);
+
+  @Query(value = SELECT_DTO + "WHERE t.user = :user ORDER BY t.date DESC",
+    countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.user = :user")
+  Page<TransactionDTO> findDtosByUser(@Param("user") User user, Pageable pageable);
+
+  @Query(SELECT_DTO + "WHERE t.user = :user AND t.type = :type ORDER BY t.date DESC")
+  List<TransactionDTO> findDtosByUserAndType(@Param("user") User user, @Param("type") TransactionType type);
+
+  @Query(SELECT_DTO + FILTERS + "ORDER BY t.date DESC")
+  List<TransactionDTO> findDtosByUserWithFilters(@Param("user") User user,
+                                                 @Param("type") TransactionType type,
+                                                 @Param("categoryId") Long categoryId,
+                                                 @Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
+
+  @Query(SELECT_DTO + "WHERE t.user = :user ORDER BY t.date DESC, t.id DESC")
+  List<TransactionDTO> findRecentDtos(@Param("user") User user, Pageable pageable);
+
+  Optional<Transaction> findByIdAndUser(Long id, User user);
+  List<Transaction> findByUserAndCategoryNameOrderByDateDesc(User user, String categoryName);
 
   @Query("SELECT SUM(CASE WHEN t.type = 'INCOME' THEN t.amount ELSE -t.amount END) " +
     "FROM Transaction t WHERE t.user = :user")
@@ -131,12 +156,6 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>,
                                            @Param("year") int year,
                                            @Param("month") int month);
 
-  @Query("SELECT t FROM Transaction t " +
-    "JOIN FETCH t.category " +
-    "WHERE t.user = :user " +
-    "ORDER BY t.date DESC, t.id DESC")
-  List<Transaction> getRecentTransactions(@Param("user") User user, Pageable pageable);
-
   @Query("SELECT t FROM Transaction t " +
     "WHERE t.user = :user " +
     "AND LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
@@ -197,6 +216,32 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>,
                                                             @Param("startDate") LocalDate startDate,
                                                             @Param("endDate") LocalDate endDate);
 
+  @Query("SELECT c.id, c.name, t.type, SUM(t.amount), COUNT(t.id) " +
+    "FROM Transaction t JOIN t.category c " +
+    "WHERE t.user = :user AND t.date BETWEEN :startDate AND :endDate " +
+    "GROUP BY c.id, c.name, t.type")
+  List<Object[]> getReportAggregates(@Param("user") User user,
+                                     @Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT u.id, c.id, c.name, t.type, SUM(t.amount), COUNT(t.id) " +
+    "FROM Transaction t JOIN t.category c JOIN t.user u JOIN u.notificationSettings ns " +
+    "WHERE ns.weeklyReport = true AND ns.emailEnabled = true " +
+    "AND t.date BETWEEN :startDate AND :endDate " +
+    "GROUP BY u.id, c.id, c.name, t.type")
+  Stream<Object[]> streamWeeklyReportAggregates(@Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT u.id, c.id, c.name, t.type, SUM(t.amount), COUNT(t.id) " +
+    "FROM Transaction t JOIN t.category c JOIN t.user u JOIN u.notificationSettings ns " +
+    "WHERE ns.monthlyReport = true AND ns.emailEnabled = true " +
+    "AND t.date BETWEEN :startDate AND :endDate " +
+    "GROUP BY u.id, c.id, c.name, t.type")
+  Stream<Object[]> streamMonthlyReportAggregates(@Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
+
   @Query("SELECT " +
     "TO_CHAR(t.date, 'YYYY-MM') as month, " +
     "SUM(t.amount) as totalAmount, " +
@@ -212,4 +257,19 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>,
                                          @Param("categoryId") Long categoryId,
                                          @Param("startDate") LocalDate startDate,
                                          @Param("endDate") LocalDate endDate);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query(SELECT_DTO + FILTERS + "ORDER BY t.date DESC, t.id DESC")
+  Stream<TransactionDTO> streamDtosByUserWithFilters(@Param("user") User user,
+                                                     @Param("type") TransactionType type,
+                                                     @Param("categoryId") Long categoryId,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
+
+  @Query("SELECT t.currency, t.date, t.type, t.category.id, SUM(t.amount) " +
+    "FROM Transaction t " +
+    "WHERE t.user = :user AND t.currency <> :currency " +
+    "GROUP BY t.currency, t.date, t.type, t.category.id")
+  List<Object[]> getForeignCurrencyTotals(@Param("user") User user,
+                                          @Param("currency") Currency currency);
 }
@@ -0,0 +1,26 @@
+package com.example.financial_tracker.repository;
+
+import com.example.financial_tracker.dto.TransactionSearchStatsDTO;
+import com.example.financial_tracker.entity.Transaction;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.function.Consumer;
+
+public interface TransactionSearchRepository {
+
+  /**
+   * Count, income and expense sums, min, max and average amount of the transactions
+   * matching {@code spec}, computed in one aggregate query.
+   */
+  TransactionSearchStatsDTO aggregateSearchStats(Specification<Transaction> spec);
+
+  /**
+   * Scrolls the transactions matching {@code spec}, category fetched, through a
+   * {@code StatelessSession} on the current connection, so nothing is added to the
+   * persistence context.
+   *
+   * @return number of transactions passed to {@code action}
+   */
+  long forEachMatching(Specification<Transaction> spec, Sort sort, Consumer<Transaction> action);
+}
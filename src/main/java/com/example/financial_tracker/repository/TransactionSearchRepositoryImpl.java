@@ -0,0 +1,139 @@
+package com.example.financial_tracker.repository;
+
+import com.example.financial_tracker.datasource.QueryCancellation;
+import com.example.financial_tracker.dto.TransactionSearchStatsDTO;
+import com.example.financial_tracker.entity.Transaction;
+import com.example.financial_tracker.enumerations.TransactionType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.support.ResourceHolderSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.function.Consumer;
+
+public class TransactionSearchRepositoryImpl implements TransactionSearchRepository {
+
+  private static final int EXPORT_FETCH_SIZE = 500;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public TransactionSearchStatsDTO aggregateSearchStats(Specification<Transaction> spec) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<Transaction> root = query.from(Transaction.class);
+    Expression<BigDecimal> amount = root.get("amount");
+
+    Predicate predicate = spec.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    query.multiselect(
+      cb.count(root).alias("count"),
+      cb.sum(cb.<BigDecimal>selectCase()
+        .when(cb.equal(root.get("type"), TransactionType.INCOME), amount)
+        .otherwise(BigDecimal.ZERO)).alias("income"),
+      cb.sum(cb.<BigDecimal>selectCase()
+        .when(cb.equal(root.get("type"), TransactionType.EXPENSE), amount)
+        .otherwise(BigDecimal.ZERO)).alias("expense"),
+      cb.min(amount).alias("min"),
+      cb.max(amount).alias("max"),
+      cb.avg(amount).alias("avg"));
+
+    Tuple result = entityManager.createQuery(query).getSingleResult();
+    long count = result.get("count", Long.class);
+    BigDecimal income = orZero(result.get("income"));
+    BigDecimal expense = orZero(result.get("expense"));
+    Double average = result.get("avg", Double.class);
+
+    return TransactionSearchStatsDTO.builder()
+      .totalCount((int) count)
+      .totalIncome(income)
+      .totalExpense(expense)
+      .netAmount(income.subtract(expense))
+      .minAmount(count > 0 ? (BigDecimal) result.get("min") : null)
+      .maxAmount(count > 0 ? (BigDecimal) result.get("max") : null)
+      .averageAmount(average != null ? BigDecimal.valueOf(average).setScale(2, RoundingMode.HALF_UP) : null)
+      .build();
+  }
+
+  @Override
+  public long forEachMatching(Specification<Transaction> spec, Sort sort, Consumer<Transaction> action) {
+    Session session = entityManager.unwrap(Session.class);
+    return session.doReturningWork(connection -> {
+      try (StatelessSession stateless = session.getSessionFactory().withStatelessOptions()
+        .connection(connection)
+        .openStatelessSession()) {
+        CriteriaBuilder cb = stateless.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        root.fetch("category");
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+          query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        SelectionQuery<Transaction> selection = stateless.createSelectionQuery(query)
+          .setFetchSize(EXPORT_FETCH_SIZE);
+        int timeout = remainingTransactionSeconds();
+        if (timeout > 0) {
+          selection.setTimeout(timeout);
+        }
+
+        QueryCancellation scope = QueryCancellation.current();
+        SharedSessionContractImplementor tracked = (SharedSessionContractImplementor) stateless;
+        if (scope != null) {
+          scope.track(tracked);
+        }
+        long count = 0;
+        try (ScrollableResults<Transaction> results = selection.scroll(ScrollMode.FORWARD_ONLY)) {
+          while (results.next()) {
+            QueryCancellation.checkCurrent();
+            action.accept(results.get());
+            count++;
+          }
+        } finally {
+          if (scope != null) {
+            scope.untrack(tracked);
+          }
+        }
+        return count;
+      }
+    });
+  }
+
+  private static BigDecimal orZero(Object value) {
+    return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
+  }
+
+  /**
+   * The stateless session is not enlisted in Hibernate's transaction, so the Spring
+   * transaction timeout is carried over to its query by hand.
+   */
+  private int remainingTransactionSeconds() {
+    Object holder = TransactionSynchronizationManager.getResource(entityManager.getEntityManagerFactory());
+    return holder instanceof ResourceHolderSupport support && support.hasTimeout()
+      ? support.getTimeToLiveInSeconds()
+      : 0;
+  }
+}
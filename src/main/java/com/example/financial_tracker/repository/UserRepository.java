@@ -1,6 +1,7 @@
 package com.example.financial_tracker.repository;
 
 import com.example.financial_tracker.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -31,4 +32,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
   @Query("SELECT u FROM User u JOIN u.notificationSettings ns WHERE ns.monthlyReport = true AND ns.emailEnabled = true")
   List<User> findUsersWithMonthlyReports();
+
+  @Query("SELECT u FROM User u JOIN FETCH u.notificationSettings ns " +
+    "WHERE ns.weeklyReport = true AND ns.emailEnabled = true AND u.id > :afterId ORDER BY u.id")
+  List<User> findWeeklyReportRecipients(@Param("afterId") Long afterId, Pageable pageable);
+
+  @Query("SELECT u FROM User u JOIN FETCH u.notificationSettings ns " +
+    "WHERE ns.monthlyReport = true AND ns.emailEnabled = true AND u.id > :afterId ORDER BY u.id")
+  List<User> findMonthlyReportRecipients(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -1,7 +1,7 @@
 package com.example.financial_tracker.scheduler;
 
-import com.example.financial_tracker.dto.MonthlyReportDTO;
-import com.example.financial_tracker.dto.WeeklyReportDTO;
+import com.example.financial_tracker.datasource.Workload;
+import com.example.financial_tracker.datasource.WorkloadClass;
 import com.example.financial_tracker.entity.RecurringTransaction;
 import com.example.financial_tracker.entity.User;
 import com.example.financial_tracker.repository.RecurringTransactionRepository;
@@ -10,6 +10,7 @@ import com.example.financial_tracker.service.EmailService;
 import com.example.financial_tracker.service.ReportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -20,12 +21,14 @@ import java.util.List;
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@WorkloadClass(Workload.REPORTING)
 public class NotificationScheduler {
 
   private final RecurringTransactionRepository recurringTransactionRepository;
   private final UserRepository userRepository;
   private final EmailService emailService;
   private final ReportService reportService;
+  private final ReportMailPipeline reportMailPipeline;
 
   @Scheduled(cron = "0 0 10 * * *")
   public void sendPaymentReminders() {
@@ -65,40 +68,21 @@ public class NotificationScheduler {
   public void sendWeeklyReports() {
     log.info("Starting weekly reports job");
 
-    List<User> users = userRepository.findUsersWithWeeklyReports();
-
-    for (User user : users) {
-      try {
-        WeeklyReportDTO report = reportService.generateWeeklyReport(user);
-        emailService.sendWeeklyReport(user, report);
-      } catch (Exception e) {
-        log.error("Failed to send weekly report to user: {}", user.getEmail(), e);
-      }
-    }
-
-    log.info("Weekly reports job completed");
+    reportMailPipeline.run("Weekly reports job",
+      reportService::generateWeeklyReports,
+      (afterId, size) -> userRepository.findWeeklyReportRecipients(afterId, PageRequest.of(0, size)),
+      emailService::prepareWeeklyReport);
   }
 
   @Scheduled(cron = "0 0 8 1 * *")
   public void sendMonthlyReports() {
     log.info("Starting monthly reports job");
 
-    List<User> users = userRepository.findUsersWithMonthlyReports();
     LocalDate lastMonth = LocalDate.now().minusMonths(1);
 
-    for (User user : users) {
-      try {
-        MonthlyReportDTO report = reportService.generateMonthlyReport(
-          user,
-          lastMonth.getMonthValue(),
-          lastMonth.getYear()
-        );
-        emailService.sendMonthlyReport(user, report);
-      } catch (Exception e) {
-        log.error("Failed to send monthly report to user: {}", user.getEmail(), e);
-      }
-    }
-
-    log.info("Monthly reports job completed");
+    reportMailPipeline.run("Monthly reports job",
+      () -> reportService.generateMonthlyReports(lastMonth.getMonthValue(), lastMonth.getYear()),
+      (afterId, size) -> userRepository.findMonthlyReportRecipients(afterId, PageRequest.of(0, size)),
+      emailService::prepareMonthlyReport);
   }
 }
@@ -0,0 +1,108 @@
+package com.example.financial_tracker.scheduler;
+
+import com.example.financial_tracker.dto.OutgoingEmail;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.service.BulkMailSender;
+import com.example.financial_tracker.service.ReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportMailPipeline {
+
+  private final BulkMailSender bulkMailSender;
+
+  @Qualifier("reportExecutor")
+  private final Executor reportExecutor;
+
+  @Value("${app.notifications.page-size:200}")
+  private int pageSize;
+
+  public <R> void run(String jobName,
+                      Supplier<ReportService.ReportBatch<R>> generator,
+                      BiFunction<Long, Integer, List<User>> pageFetcher,
+                      BiFunction<User, R, OutgoingEmail> renderer) {
+
+    Stage generateStage = new Stage("generate");
+    Stage fetchStage = new Stage("fetch");
+    Stage renderStage = new Stage("render");
+    Stage sendStage = new Stage("send");
+    long jobStart = System.nanoTime();
+
+    long start = System.nanoTime();
+    ReportService.ReportBatch<R> reports = generator.get();
+    generateStage.record(reports.size(), start);
+
+    long afterId = 0L;
+    while (true) {
+      start = System.nanoTime();
+      List<User> users = pageFetcher.apply(afterId, pageSize);
+      fetchStage.record(users.size(), start);
+      if (users.isEmpty()) {
+        break;
+      }
+      afterId = users.get(users.size() - 1).getId();
+
+      start = System.nanoTime();
+      List<CompletableFuture<OutgoingEmail>> rendered = new ArrayList<>(users.size());
+      for (User user : users) {
+        rendered.add(CompletableFuture.supplyAsync(() -> renderer.apply(user, reports.forUser(user)), reportExecutor)
+          .exceptionally(e -> {
+            log.error("{}: failed to render report for user: {}", jobName, user.getEmail(), e);
+            return null;
+          }));
+      }
+      List<OutgoingEmail> emails = rendered.stream()
+        .map(CompletableFuture::join)
+        .filter(Objects::nonNull)
+        .toList();
+      renderStage.record(emails.size(), start);
+
+      start = System.nanoTime();
+      int sent = bulkMailSender.send(emails);
+      sendStage.record(sent, start);
+
+      if (users.size() < pageSize) {
+        break;
+      }
+    }
+
+    log.info("{} finished in {} ms: {}, {}, {}, {}", jobName,
+      (System.nanoTime() - jobStart) / 1_000_000, generateStage, fetchStage, renderStage, sendStage);
+  }
+
+  private static class Stage {
+    private final String name;
+    private long items;
+    private long nanos;
+
+    Stage(String name) {
+      this.name = name;
+    }
+
+    void record(int count, long startNanos) {
+      items += count;
+      nanos += System.nanoTime() - startNanos;
+    }
+
+    @Override
+    public String toString() {
+      double seconds = nanos / 1_000_000_000.0;
+      return String.format("%s=%d items in %d ms (%.1f/s)",
+        name, items, nanos / 1_000_000, seconds > 0 ? items / seconds : 0.0);
+    }
+  }
+}
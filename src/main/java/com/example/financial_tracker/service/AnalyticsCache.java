@@ -0,0 +1,192 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.cache.CacheInvalidation;
+import com.example.financial_tracker.cache.CacheInvalidationBus;
+import com.example.financial_tracker.dto.AnalyticsDTO;
+import com.example.financial_tracker.dto.CategoryMonthlyStatsDTO;
+import com.example.financial_tracker.entity.Category;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-user analytics results. Transaction writes evict only the entries whose range
+ * covers the written month; category writes evict the whole user. A per-user
+ * generation guards against a read that started before a commit caching stale data
+ * after the eviction ran. Evictions are broadcast on the {@link CacheInvalidationBus}
+ * so every node drops the same entries.
+ * <p>
+ * Each user's keys are indexed, so an eviction only visits that user's entries.
+ * Loading changed exchange rates drops the entries that still cover the current
+ * month. Closed months are converted at each transaction's historical rate, and a
+ * new rate only applies from its own date, so those entries keep their
+ * {@code past-ttl}.
+ */
+@Slf4j
+@Service
+public class AnalyticsCache {
+
+  static final String CACHE_NAME = "analytics";
+
+  /** Prune a user's key index of entries Caffeine already dropped each time it grows by this much. */
+  private static final int PRUNE_EVERY = 64;
+
+  private final Cache<AnalyticsCacheKey, Object> cache;
+  private final CacheInvalidationBus bus;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final AtomicLong ratesGeneration = new AtomicLong();
+  /**
+   * Touched on every load, so a user's state is only dropped once all of the user's
+   * entries have expired as well.
+   */
+  private final Cache<Long, UserEntries> users;
+
+  public AnalyticsCache(@Qualifier("analyticsResultCache") Cache<AnalyticsCacheKey, Object> cache,
+                        CacheInvalidationBus bus,
+                        @Value("${app.analytics.cache.past-ttl:7d}") Duration pastTtl) {
+    this.cache = cache;
+    this.bus = bus;
+    this.users = Caffeine.newBuilder()
+      .expireAfterAccess(pastTtl)
+      .build();
+    bus.subscribe(this::onInvalidation);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T get(AnalyticsCacheKey key, Supplier<T> loader) {
+    Object cached = cache.getIfPresent(key);
+    if (cached != null) {
+      return (T) cached;
+    }
+
+    UserEntries entries = entries(key.getUserId());
+    long generation = entries.generation.get();
+    long rates = ratesGeneration.get();
+    T value = loader.get();
+    cache.put(key, value);
+    entries.index(key);
+    if (entries.generation.get() != generation
+      || (ratesGeneration.get() != rates && !key.isClosedPast(LocalDate.now()))) {
+      cache.invalidate(key);
+    }
+    return value;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onUserDataChanged(UserDataChangedEvent event) {
+    if (event.getDate() != null) {
+      evictMonths(event.getUserId(), event.getDate(), event.getPreviousDate());
+    } else if (Category.class.isAssignableFrom(event.getEntityType())) {
+      evictUser(event.getUserId());
+    }
+  }
+
+  public void evictMonths(Long userId, LocalDate date, LocalDate previousDate) {
+    YearMonth month = YearMonth.from(date);
+    Eviction eviction = new Eviction(userId, month, previousDate != null ? YearMonth.from(previousDate) : month);
+    evictLocally(eviction);
+    bus.publish(new CacheInvalidation(nodeId, CACHE_NAME, eviction));
+  }
+
+  public void evictUser(Long userId) {
+    Eviction eviction = new Eviction(userId, null, null);
+    evictLocally(eviction);
+    bus.publish(new CacheInvalidation(nodeId, CACHE_NAME, eviction));
+  }
+
+  /**
+   * Not broadcast: every node publishes this event itself when it loads the new rates.
+   */
+  @EventListener
+  public void onExchangeRatesChanged(ExchangeRatesChangedEvent event) {
+    ratesGeneration.incrementAndGet();
+    LocalDate today = LocalDate.now();
+    cache.asMap().keySet().removeIf(key -> !key.isClosedPast(today));
+    log.info("Exchange rates changed, dropped cached analytics that cover the current month");
+  }
+
+  private void onInvalidation(CacheInvalidation invalidation) {
+    if (CACHE_NAME.equals(invalidation.getCacheName()) && !nodeId.equals(invalidation.getOriginNode())
+      && invalidation.getKey() instanceof Eviction eviction) {
+      evictLocally(eviction);
+    }
+  }
+
+  private void evictLocally(Eviction eviction) {
+    UserEntries entries = entries(eviction.userId);
+    entries.generation.incrementAndGet();
+    entries.keys.removeIf(key -> {
+      if (eviction.month == null || key.dependsOn(eviction.month) || key.dependsOn(eviction.previousMonth)) {
+        cache.invalidate(key);
+        return true;
+      }
+      return !cache.asMap().containsKey(key);
+    });
+  }
+
+  private UserEntries entries(Long userId) {
+    return users.get(userId, id -> new UserEntries());
+  }
+
+  /** User-wide when {@code month} is {@code null}. */
+  private static final class Eviction implements Serializable {
+    private final Long userId;
+    private final YearMonth month;
+    private final YearMonth previousMonth;
+
+    Eviction(Long userId, YearMonth month, YearMonth previousMonth) {
+      this.userId = userId;
+      this.month = month;
+      this.previousMonth = previousMonth;
+    }
+  }
+
+  private final class UserEntries {
+    private final AtomicLong generation = new AtomicLong();
+    private final Set<AnalyticsCacheKey> keys = ConcurrentHashMap.newKeySet();
+
+    void index(AnalyticsCacheKey key) {
+      if (keys.add(key) && keys.size() % PRUNE_EVERY == 0) {
+        keys.removeIf(indexed -> !cache.asMap().containsKey(indexed));
+      }
+    }
+  }
+
+  /**
+   * Rough size of a cached result in DTO rows, used as the Caffeine weight.
+   */
+  public static int weigh(Object value) {
+    if (value instanceof Collection<?> rows) {
+      int weight = 1;
+      for (Object row : rows) {
+        weight += weigh(row);
+      }
+      return weight;
+    }
+    if (value instanceof CategoryMonthlyStatsDTO stats) {
+      return 1 + (stats.getMonthlyData() != null ? stats.getMonthlyData().size() : 0);
+    }
+    if (value instanceof AnalyticsDTO analytics) {
+      return 4 + weigh(analytics.getMonthlyStats()) + weigh(analytics.getMonthlyStatsList())
+        + weigh(analytics.getTopExpenseCategories()) + weigh(analytics.getTopIncomeCategories());
+    }
+    return 1;
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.financial_tracker.service;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Identifies one analytics result: the user, the query and its effective date range,
+ * plus the currency settings the amounts were rendered in.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class AnalyticsCacheKey {
+
+  public enum Kind {
+    FULL(false),
+    MONTHLY(true),
+    TOP_EXPENSE_CATEGORIES(false),
+    TOP_INCOME_CATEGORIES(false),
+    COMPARISON(true),
+    CATEGORY_MONTHLY(true);
+
+    /** Whether the result depends only on transactions inside the key's range. */
+    private final boolean rangeBound;
+
+    Kind(boolean rangeBound) {
+      this.rangeBound = rangeBound;
+    }
+  }
+
+  private final Long userId;
+  private final Kind kind;
+  private final LocalDate startDate;
+  private final LocalDate endDate;
+  private final int limit;
+  private final String currencies;
+
+  public AnalyticsCacheKey(Long userId, Kind kind, LocalDate startDate, LocalDate endDate, int limit, String currencies) {
+    this.userId = userId;
+    this.kind = kind;
+    this.startDate = startDate;
+    this.endDate = endDate;
+    this.limit = limit;
+    this.currencies = currencies;
+  }
+
+  /**
+   * @return whether a write dated in {@code month} can change this result
+   */
+  public boolean dependsOn(YearMonth month) {
+    return !kind.rangeBound
+      || (!month.atEndOfMonth().isBefore(startDate) && !month.atDay(1).isAfter(endDate));
+  }
+
+  /**
+   * @return whether the result covers closed months only, so only a backdated write can change it
+   */
+  public boolean isClosedPast(LocalDate today) {
+    return kind.rangeBound && endDate.isBefore(today.withDayOfMonth(1));
+  }
+}
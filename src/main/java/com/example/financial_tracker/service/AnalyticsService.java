@@ -1,12 +1,17 @@
 package com.example.financial_tracker.service;
 
+import com.example.financial_tracker.cache.SingleFlight;
+import com.example.financial_tracker.datasource.Workload;
+import com.example.financial_tracker.datasource.WorkloadClass;
 import com.example.financial_tracker.dto.*;
+import com.example.financial_tracker.enumerations.Currency;
 import com.example.financial_tracker.enumerations.TransactionType;
 import com.example.financial_tracker.entity.User;
 import com.example.financial_tracker.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -15,40 +20,96 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
+@Transactional(readOnly = true, timeoutString = "${app.db.statement-timeouts.analytics:30}")
+@WorkloadClass(Workload.REPORTING)
 public class AnalyticsService {
 
   private final TransactionRepository transactionRepository;
-
+  private final CurrencyService currencyService;
+  private final SecondaryCurrencyService secondaryCurrencyService;
+  private final AnalyticsCache analyticsCache;
+  private final QueryFanOut queryFanOut;
+
+  /**
+   * Not transactional itself, so with open-in-view off the request holds no
+   * connection while the sub-queries run in their own transactions on the fan-out
+   * executor.
+   */
+  @SingleFlight
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public AnalyticsDTO getFullAnalytics(User user, LocalDate startDate, LocalDate endDate) {
-    log.info("Generating full analytics for user: {}", user.getEmail());
-
     LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.now().minusMonths(12);
     LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
 
-    BigDecimal totalIncome = getTotalIncomeOrZero(user);
-    BigDecimal totalExpense = getTotalExpenseOrZero(user);
-    BigDecimal currentBalance = getBalanceOrZero(user);
-
-    return AnalyticsDTO.builder()
-      .totalIncome(totalIncome)
-      .totalExpense(totalExpense)
-      .currentBalance(currentBalance)
-      .netChange(totalIncome.subtract(totalExpense))
-      .monthlyStats(getMonthlyStats(user, effectiveStartDate, effectiveEndDate))
-      .topExpenseCategories(getTopExpenseCategories(user, effectiveStartDate, effectiveEndDate, 10))
-      .topIncomeCategories(getTopIncomeCategories(user, effectiveStartDate, effectiveEndDate, 10))
-      .comparison(getComparisonStats(user))
-      .monthlyStatsList(getMonthlyStatsForLastYear(user))
-      .build();
+    AnalyticsDTO cached = analyticsCache.get(
+      cacheKey(user, AnalyticsCacheKey.Kind.FULL, effectiveStartDate, effectiveEndDate, 0),
+      () -> computeFullAnalytics(user, effectiveStartDate, effectiveEndDate));
+    // secondary amounts use current rates, so they are applied to a copy on every read
+    AnalyticsDTO analytics = cached.toBuilder().build();
+    secondaryCurrencyService.applyToAnalytics(user, analytics);
+    return analytics;
+  }
+
+  private AnalyticsDTO computeFullAnalytics(User user, LocalDate effectiveStartDate, LocalDate effectiveEndDate) {
+    log.info("Generating full analytics for user: {}", user.getEmail());
+
+    AnalyticsDTO analytics;
+    try (QueryFanOut.Scope scope = queryFanOut.open("analytics")) {
+      QueryFanOut.Fork<ForeignCurrencyAdjustment> adjustmentFork = scope.fork(() -> getCurrencyAdjustment(user));
+      scope.join();
+      ForeignCurrencyAdjustment adjustment = adjustmentFork.get();
+
+      QueryFanOut.Fork<BigDecimal> totalIncome = scope.fork(() -> getTotalIncomeOrZero(user, adjustment));
+      QueryFanOut.Fork<BigDecimal> totalExpense = scope.fork(() -> getTotalExpenseOrZero(user, adjustment));
+      QueryFanOut.Fork<BigDecimal> balance = scope.fork(() -> getBalanceOrZero(user));
+      QueryFanOut.Fork<List<MonthlyStatsDTO>> monthlyStats = scope.fork(() ->
+        getMonthlyStats(user, effectiveStartDate, effectiveEndDate, adjustment));
+      QueryFanOut.Fork<List<CategoryStatsDTO>> topExpenseCategories = scope.fork(() ->
+        getTopExpenseCategories(user, effectiveStartDate, effectiveEndDate, 10, adjustment));
+      QueryFanOut.Fork<List<CategoryStatsDTO>> topIncomeCategories = scope.fork(() ->
+        getTopIncomeCategories(user, effectiveStartDate, effectiveEndDate, 10, adjustment));
+      QueryFanOut.Fork<ComparisonStatsDTO> comparison = scope.fork(() -> getComparisonStats(user, adjustment));
+      QueryFanOut.Fork<List<MonthlyStatsDTO>> monthlyStatsList = scope.fork(() ->
+        getMonthlyStatsForLastYear(user, adjustment));
+      scope.join();
+
+      analytics = AnalyticsDTO.builder()
+        .totalIncome(totalIncome.get())
+        .totalExpense(totalExpense.get())
+        .currentBalance(balance.get().add(adjustment.balance()))
+        .netChange(totalIncome.get().subtract(totalExpense.get()))
+        .monthlyStats(monthlyStats.get())
+        .topExpenseCategories(topExpenseCategories.get())
+        .topIncomeCategories(topIncomeCategories.get())
+        .comparison(comparison.get())
+        .monthlyStatsList(monthlyStatsList.get())
+        .build();
+    }
+
+    return analytics;
+  }
+
+  /**
+   * Loads the corrections that turn raw aggregate sums into amounts in the user's
+   * default currency. Single-currency users get {@link ForeignCurrencyAdjustment#NONE}
+   * after one indexed query.
+   */
+  public ForeignCurrencyAdjustment getCurrencyAdjustment(User user) {
+    Currency target = user.getDefaultCurrency() != null ? user.getDefaultCurrency() : Currency.USD;
+    List<Object[]> rows = transactionRepository.getForeignCurrencyTotals(user, target);
+    if (rows.isEmpty()) {
+      return ForeignCurrencyAdjustment.NONE;
+    }
+    return ForeignCurrencyAdjustment.of(rows, target, currencyService.getRateHistory());
   }
 
-  private List<MonthlyStatsDTO> getMonthlyStatsForLastYear(User user) {
+  private List<MonthlyStatsDTO> getMonthlyStatsForLastYear(User user, ForeignCurrencyAdjustment adjustment) {
     List<MonthlyStatsDTO> monthlyStats = new ArrayList<>();
     LocalDate now = LocalDate.now();
 
@@ -61,8 +122,10 @@ public class AnalyticsService {
       BigDecimal monthExpense = transactionRepository.getTotalByUserAndTypeBetweenDates(
         user, TransactionType.EXPENSE, monthStart, monthEnd);
 
-      monthIncome = monthIncome != null ? monthIncome : BigDecimal.ZERO;
-      monthExpense = monthExpense != null ? monthExpense : BigDecimal.ZERO;
+      monthIncome = (monthIncome != null ? monthIncome : BigDecimal.ZERO)
+        .add(adjustment.total(TransactionType.INCOME, monthStart, monthEnd));
+      monthExpense = (monthExpense != null ? monthExpense : BigDecimal.ZERO)
+        .add(adjustment.total(TransactionType.EXPENSE, monthStart, monthEnd));
 
       MonthlyStatsDTO stats = MonthlyStatsDTO.builder()
         .monthName(monthStart.format(DateTimeFormatter.ofPattern("MMM yyyy")))
@@ -83,6 +146,16 @@ public class AnalyticsService {
     LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.now().minusMonths(12);
     LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
 
+    return analyticsCache.get(
+      cacheKey(user, AnalyticsCacheKey.Kind.MONTHLY, effectiveStartDate, effectiveEndDate, 0),
+      () -> getMonthlyStats(user, effectiveStartDate, effectiveEndDate, getCurrencyAdjustment(user)));
+  }
+
+  private List<MonthlyStatsDTO> getMonthlyStats(User user, LocalDate startDate, LocalDate endDate,
+                                                ForeignCurrencyAdjustment adjustment) {
+    LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.now().minusMonths(12);
+    LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
+
     log.info("Calculating monthly stats for user: {} from {} to {}",
       user.getEmail(), effectiveStartDate, effectiveEndDate);
 
@@ -91,11 +164,15 @@ public class AnalyticsService {
 
     for (Object[] result : results) {
       String month = (String) result[0];
-      BigDecimal income = convertToBigDecimal(result[1]);
-      BigDecimal expense = convertToBigDecimal(result[2]);
+      YearMonth yearMonth = YearMonth.parse(month);
+      LocalDate monthStart = max(yearMonth.atDay(1), effectiveStartDate);
+      LocalDate monthEnd = min(yearMonth.atEndOfMonth(), effectiveEndDate);
+      BigDecimal income = convertToBigDecimal(result[1])
+        .add(adjustment.total(TransactionType.INCOME, monthStart, monthEnd));
+      BigDecimal expense = convertToBigDecimal(result[2])
+        .add(adjustment.total(TransactionType.EXPENSE, monthStart, monthEnd));
       Long transactionCount = (Long) result[3];
 
-      YearMonth yearMonth = YearMonth.parse(month);
       String monthName = yearMonth.format(DateTimeFormatter.ofPattern("MMMM yyyy"));
 
       monthlyStats.add(MonthlyStatsDTO.builder()
@@ -113,6 +190,16 @@ public class AnalyticsService {
   }
 
   public List<CategoryStatsDTO> getTopExpenseCategories(User user, LocalDate startDate, LocalDate endDate, int limit) {
+    LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.now().minusYears(10);
+    LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
+
+    return analyticsCache.get(
+      cacheKey(user, AnalyticsCacheKey.Kind.TOP_EXPENSE_CATEGORIES, effectiveStartDate, effectiveEndDate, limit),
+      () -> getTopExpenseCategories(user, effectiveStartDate, effectiveEndDate, limit, getCurrencyAdjustment(user)));
+  }
+
+  List<CategoryStatsDTO> getTopExpenseCategories(User user, LocalDate startDate, LocalDate endDate, int limit,
+                                                 ForeignCurrencyAdjustment adjustment) {
     log.info("Getting top {} expense categories for user: {} from {} to {}",
       limit, user.getEmail(), startDate, endDate);
 
@@ -120,12 +207,23 @@ public class AnalyticsService {
     LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
 
     List<Object[]> results = transactionRepository.getExpenseCategoryStats(user, effectiveStartDate, effectiveEndDate);
-    BigDecimal totalExpenses = getTotalExpenseOrZero(user);
+    BigDecimal totalExpenses = getTotalExpenseOrZero(user, adjustment);
 
-    return buildCategoryStats(results, totalExpenses, limit);
+    return buildCategoryStats(results, totalExpenses, limit,
+      adjustment, TransactionType.EXPENSE, effectiveStartDate, effectiveEndDate);
   }
 
   public List<CategoryStatsDTO> getTopIncomeCategories(User user, LocalDate startDate, LocalDate endDate, int limit) {
+    LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.now().minusYears(10);
+    LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
+
+    return analyticsCache.get(
+      cacheKey(user, AnalyticsCacheKey.Kind.TOP_INCOME_CATEGORIES, effectiveStartDate, effectiveEndDate, limit),
+      () -> getTopIncomeCategories(user, effectiveStartDate, effectiveEndDate, limit, getCurrencyAdjustment(user)));
+  }
+
+  private List<CategoryStatsDTO> getTopIncomeCategories(User user, LocalDate startDate, LocalDate endDate, int limit,
+                                                        ForeignCurrencyAdjustment adjustment) {
     log.info("Getting top {} income categories for user: {} from {} to {}",
       limit, user.getEmail(), startDate, endDate);
 
@@ -133,15 +231,20 @@ public class AnalyticsService {
     LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
 
     List<Object[]> results = transactionRepository.getIncomeCategoryStats(user, effectiveStartDate, effectiveEndDate);
-    BigDecimal totalIncome = getTotalIncomeOrZero(user);
+    BigDecimal totalIncome = getTotalIncomeOrZero(user, adjustment);
 
-    return buildCategoryStats(results, totalIncome, limit);
+    return buildCategoryStats(results, totalIncome, limit,
+      adjustment, TransactionType.INCOME, effectiveStartDate, effectiveEndDate);
   }
 
-  private List<CategoryStatsDTO> buildCategoryStats(List<Object[]> results, BigDecimal total, int limit) {
+  private List<CategoryStatsDTO> buildCategoryStats(List<Object[]> results, BigDecimal total, int limit,
+                                                    ForeignCurrencyAdjustment adjustment, TransactionType type,
+                                                    LocalDate startDate, LocalDate endDate) {
     List<CategoryStatsDTO> categoryStats = new ArrayList<>();
 
-    for (int i = 0; i < Math.min(results.size(), limit); i++) {
+    // converted totals can reorder categories, so only the unadjusted list can be cut early
+    int candidates = adjustment.isEmpty() ? Math.min(results.size(), limit) : results.size();
+    for (int i = 0; i < candidates; i++) {
       Object[] result = results.get(i);
 
       Long categoryId = (Long) result[0];
@@ -151,6 +254,14 @@ public class AnalyticsService {
       Long transactionCount = (Long) result[4];
       BigDecimal averageAmount = convertToBigDecimal(result[5]);
 
+      BigDecimal delta = adjustment.forCategory(categoryId, type, startDate, endDate);
+      if (delta.signum() != 0) {
+        totalAmount = totalAmount.add(delta);
+        if (transactionCount != null && transactionCount > 0) {
+          averageAmount = totalAmount.divide(BigDecimal.valueOf(transactionCount), 2, RoundingMode.HALF_UP);
+        }
+      }
+
       BigDecimal percentage = BigDecimal.ZERO;
       if (total.compareTo(BigDecimal.ZERO) > 0) {
         percentage = totalAmount.divide(total, 4, RoundingMode.HALF_UP)
@@ -168,10 +279,23 @@ public class AnalyticsService {
         .build());
     }
 
+    if (candidates > limit) {
+      categoryStats.sort(Comparator.comparing(CategoryStatsDTO::getTotalAmount).reversed());
+      return new ArrayList<>(categoryStats.subList(0, limit));
+    }
     return categoryStats;
   }
 
   public ComparisonStatsDTO getComparisonStats(User user) {
+    LocalDate now = LocalDate.now();
+    LocalDate previousMonthStart = now.withDayOfMonth(1).minusMonths(1);
+
+    return analyticsCache.get(
+      cacheKey(user, AnalyticsCacheKey.Kind.COMPARISON, previousMonthStart, now.withDayOfMonth(now.lengthOfMonth()), 0),
+      () -> getComparisonStats(user, getCurrencyAdjustment(user)));
+  }
+
+  private ComparisonStatsDTO getComparisonStats(User user, ForeignCurrencyAdjustment adjustment) {
     log.info("Calculating comparison stats for user: {}", user.getEmail());
 
     LocalDate now = LocalDate.now();
@@ -181,8 +305,8 @@ public class AnalyticsService {
     LocalDate previousMonthStart = currentMonthStart.minusMonths(1);
     LocalDate previousMonthEnd = previousMonthStart.withDayOfMonth(previousMonthStart.lengthOfMonth());
 
-    PeriodStatsDTO currentPeriod = getPeriodStats(user, currentMonthStart, currentMonthEnd, "Current Month");
-    PeriodStatsDTO previousPeriod = getPeriodStats(user, previousMonthStart, previousMonthEnd, "Previous Month");
+    PeriodStatsDTO currentPeriod = getPeriodStats(user, currentMonthStart, currentMonthEnd, "Current Month", adjustment);
+    PeriodStatsDTO previousPeriod = getPeriodStats(user, previousMonthStart, previousMonthEnd, "Previous Month", adjustment);
 
     BigDecimal incomeChange = currentPeriod.getIncome().subtract(previousPeriod.getIncome());
     BigDecimal expenseChange = currentPeriod.getExpense().subtract(previousPeriod.getExpense());
@@ -200,7 +324,8 @@ public class AnalyticsService {
       .build();
   }
 
-  private PeriodStatsDTO getPeriodStats(User user, LocalDate startDate, LocalDate endDate, String periodName) {
+  private PeriodStatsDTO getPeriodStats(User user, LocalDate startDate, LocalDate endDate, String periodName,
+                                        ForeignCurrencyAdjustment adjustment) {
     List<Object[]> results = transactionRepository.getPeriodStats(user, startDate, endDate);
 
     if (results.isEmpty()) {
@@ -216,8 +341,10 @@ public class AnalyticsService {
     }
 
     Object[] result = results.get(0);
-    BigDecimal income = convertToBigDecimal(result[0]);
-    BigDecimal expense = convertToBigDecimal(result[1]);
+    BigDecimal income = convertToBigDecimal(result[0])
+      .add(adjustment.total(TransactionType.INCOME, startDate, endDate));
+    BigDecimal expense = convertToBigDecimal(result[1])
+      .add(adjustment.total(TransactionType.EXPENSE, startDate, endDate));
     Long transactionCount = (Long) result[2];
 
     return PeriodStatsDTO.builder()
@@ -241,14 +368,14 @@ public class AnalyticsService {
       .multiply(BigDecimal.valueOf(100));
   }
 
-  private BigDecimal getTotalIncomeOrZero(User user) {
+  private BigDecimal getTotalIncomeOrZero(User user, ForeignCurrencyAdjustment adjustment) {
     BigDecimal income = transactionRepository.getTotalIncomeByUser(user);
-    return income != null ? income : BigDecimal.ZERO;
+    return (income != null ? income : BigDecimal.ZERO).add(adjustment.total(TransactionType.INCOME));
   }
 
-  private BigDecimal getTotalExpenseOrZero(User user) {
+  private BigDecimal getTotalExpenseOrZero(User user, ForeignCurrencyAdjustment adjustment) {
     BigDecimal expense = transactionRepository.getTotalExpenseByUser(user);
-    return expense != null ? expense : BigDecimal.ZERO;
+    return (expense != null ? expense : BigDecimal.ZERO).add(adjustment.total(TransactionType.EXPENSE));
   }
 
   private BigDecimal getBalanceOrZero(User user) {
@@ -257,13 +384,21 @@ public class AnalyticsService {
   }
 
   public List<CategoryMonthlyStatsDTO> getCategoryMonthlyStats(User user, LocalDate startDate, LocalDate endDate, int limit) {
-    log.info("Getting category monthly statistics for user: {} from {} to {} with limit {}",
-      user.getEmail(), startDate, endDate, limit);
-
     LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.now().minusMonths(12);
     LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
 
+    return analyticsCache.get(
+      cacheKey(user, AnalyticsCacheKey.Kind.CATEGORY_MONTHLY, effectiveStartDate, effectiveEndDate, limit),
+      () -> computeCategoryMonthlyStats(user, effectiveStartDate, effectiveEndDate, limit));
+  }
+
+  private List<CategoryMonthlyStatsDTO> computeCategoryMonthlyStats(User user, LocalDate effectiveStartDate,
+                                                                    LocalDate effectiveEndDate, int limit) {
+    log.info("Getting category monthly statistics for user: {} from {} to {} with limit {}",
+      user.getEmail(), effectiveStartDate, effectiveEndDate, limit);
+
     List<Object[]> categoryResults = transactionRepository.getExpenseCategoryStats(user, effectiveStartDate, effectiveEndDate);
+    ForeignCurrencyAdjustment adjustment = getCurrencyAdjustment(user);
     List<CategoryMonthlyStatsDTO> categoryMonthlyStats = new ArrayList<>();
 
     for (int i = 0; i < Math.min(categoryResults.size(), limit); i++) {
@@ -277,10 +412,11 @@ public class AnalyticsService {
 
       for (Object[] monthlyResult : monthlyResults) {
         String month = (String) monthlyResult[0];
-        BigDecimal amount = convertToBigDecimal(monthlyResult[1]);
+        YearMonth yearMonth = YearMonth.parse(month);
+        BigDecimal amount = convertToBigDecimal(monthlyResult[1]).add(adjustment.forCategory(categoryId,
+          TransactionType.EXPENSE, max(yearMonth.atDay(1), effectiveStartDate), min(yearMonth.atEndOfMonth(), effectiveEndDate)));
         Long transactionCount = (Long) monthlyResult[2];
 
-        YearMonth yearMonth = YearMonth.parse(month);
         String monthName = yearMonth.format(DateTimeFormatter.ofPattern("MMM yyyy"));
 
         monthlyData.add(CategoryMonthlyStatsDTO.MonthlyAmountDTO.builder()
@@ -303,6 +439,21 @@ public class AnalyticsService {
     return categoryMonthlyStats;
   }
 
+  private AnalyticsCacheKey cacheKey(User user, AnalyticsCacheKey.Kind kind,
+                                     LocalDate startDate, LocalDate endDate, int limit) {
+    String currencies = user.getDefaultCurrency() + "/"
+      + (user.isDisplaySecondaryCurrency() ? user.getSecondaryCurrency() : "-");
+    return new AnalyticsCacheKey(user.getId(), kind, startDate, endDate, limit, currencies);
+  }
+
+  private static LocalDate max(LocalDate a, LocalDate b) {
+    return a.isAfter(b) ? a : b;
+  }
+
+  private static LocalDate min(LocalDate a, LocalDate b) {
+    return a.isBefore(b) ? a : b;
+  }
+
   private BigDecimal convertToBigDecimal(Object value) {
     if (value == null) {
       return BigDecimal.ZERO;
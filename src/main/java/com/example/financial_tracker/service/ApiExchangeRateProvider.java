@@ -0,0 +1,51 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.enumerations.Currency;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.currency.provider", havingValue = "api", matchIfMissing = true)
+public class ApiExchangeRateProvider implements ExchangeRateProvider {
+
+  private static final String EXCHANGE_API_URL = "https://api.exchangerate-api.com/v4/latest/";
+
+  private final RestTemplate restTemplate = new RestTemplate();
+
+  @Override
+  public String getName() {
+    return "ExchangeRate-API";
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Map<Currency, BigDecimal> fetchRates(Currency base) {
+    Map<String, Object> response = restTemplate.getForObject(EXCHANGE_API_URL + base.name(), Map.class);
+    if (response == null || !response.containsKey("rates")) {
+      return Map.of();
+    }
+    return toCurrencyMap(base, (Map<String, Number>) response.get("rates"));
+  }
+
+  static Map<Currency, BigDecimal> toCurrencyMap(Currency base, Map<String, ? extends Number> rates) {
+    Map<Currency, BigDecimal> result = new EnumMap<>(Currency.class);
+    rates.forEach((currencyCode, rate) -> {
+      try {
+        Currency currency = Currency.valueOf(currencyCode);
+        if (currency != base) {
+          result.put(currency, new BigDecimal(rate.toString()));
+        }
+      } catch (IllegalArgumentException e) {
+        log.trace("Skipping unsupported currency: {}", currencyCode);
+      }
+    });
+    return result;
+  }
+}
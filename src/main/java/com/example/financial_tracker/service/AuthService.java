@@ -37,6 +37,7 @@ public class AuthService {
   private final TokenService tokenService;
   private final EmailService emailService;
   private final TwoFactorAuthService twoFactorAuthService;
+  private final DashboardWarmer dashboardWarmer;
 
   @Value("${app.mail.base-url}")
   private String baseUrl;
@@ -254,6 +255,7 @@ public class AuthService {
       String token = jwtService.generateToken(user);
       log.debug("Generated JWT token for user: {}", email);
 
+      dashboardWarmer.warm(user);
       return new AuthResponse(token);
 
     } catch (BadCredentialsException e) {
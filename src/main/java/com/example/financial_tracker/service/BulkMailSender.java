@@ -0,0 +1,142 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.dto.OutgoingEmail;
+import com.example.financial_tracker.entity.EmailHistory;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends report mail in batches over one SMTP connection each, paced to
+ * {@code app.mail.bulk.rate-per-second}. Emails the quota cannot cover right now go
+ * to the outbox, deferred like the outbox's own quota misses, and are sent from
+ * there once the quota allows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkMailSender {
+
+  private final JavaMailSender mailSender;
+  private final EmailService emailService;
+  private final EmailQuotaService emailQuotaService;
+  private final EmailHistoryWriter emailHistoryWriter;
+  private final EmailOutboxService emailOutboxService;
+
+  @Value("${app.mail.bulk.batch-size:50}")
+  private int batchSize;
+
+  @Value("${app.mail.bulk.rate-per-second:10}")
+  private double ratePerSecond;
+
+  @Value("${app.mail.outbox.quota-retry-seconds:600}")
+  private long quotaRetrySeconds;
+
+  private long nextSlotNanos = System.nanoTime();
+
+  public int send(List<OutgoingEmail> emails) {
+    int sent = 0;
+    for (int from = 0; from < emails.size(); from += batchSize) {
+      sent += sendBatch(emails.subList(from, Math.min(from + batchSize, emails.size())));
+    }
+    return sent;
+  }
+
+  private int sendBatch(List<OutgoingEmail> batch) {
+    List<EmailHistory> histories = new ArrayList<>(batch.size());
+    Map<MimeMessage, EmailHistory> pending = new IdentityHashMap<>();
+    List<OutgoingEmail> deferred = new ArrayList<>();
+
+    for (OutgoingEmail email : batch) {
+      if (!emailQuotaService.tryAcquire()) {
+        deferred.add(email);
+        continue;
+      }
+
+      EmailHistory history = emailService.createEmailHistory(
+        email.getTo(), email.getSubject(), email.getType(), email.getUser());
+      histories.add(history);
+
+      try {
+        pending.put(emailService.createMessage(email.getTo(), email.getSubject(), email.getHtmlContent()), history);
+      } catch (Exception e) {
+        emailQuotaService.release();
+        history.setStatus(EmailHistory.EmailStatus.FAILED);
+        history.setErrorMessage("Messaging error: " + e.getMessage());
+      }
+    }
+
+    Map<Object, Exception> failures = Map.of();
+    if (!pending.isEmpty()) {
+      try {
+        awaitRate(pending.size());
+        // JavaMailSenderImpl sends the whole array over a single transport connection
+        mailSender.send(pending.keySet().toArray(new MimeMessage[0]));
+      } catch (MailSendException e) {
+        failures = e.getFailedMessages();
+        log.error("Bulk send failed for {} of {} messages", failures.size(), pending.size());
+      } catch (MailException e) {
+        failures = new IdentityHashMap<>();
+        for (MimeMessage message : pending.keySet()) {
+          failures.put(message, e);
+        }
+        log.error("Bulk send failed: {}", e.getMessage());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failures = new IdentityHashMap<>();
+        for (MimeMessage message : pending.keySet()) {
+          failures.put(message, e);
+        }
+      }
+    }
+
+    int sent = 0;
+    for (Map.Entry<MimeMessage, EmailHistory> entry : pending.entrySet()) {
+      EmailHistory history = entry.getValue();
+      Exception failure = failures.get(entry.getKey());
+      if (failure != null) {
+        emailQuotaService.release();
+        history.setStatus(EmailHistory.EmailStatus.FAILED);
+        history.setErrorMessage("Mail error: " + failure.getMessage());
+      } else {
+        history.setStatus(EmailHistory.EmailStatus.SENT);
+        history.setSentAt(LocalDateTime.now());
+        sent++;
+      }
+    }
+
+    if (!deferred.isEmpty()) {
+      log.warn("Email quota exceeded, deferring {} emails to the outbox for {}s", deferred.size(), quotaRetrySeconds);
+      emailOutboxService.enqueueAll(deferred, Duration.ofSeconds(quotaRetrySeconds));
+    }
+
+    emailHistoryWriter.writeAll(histories);
+    return sent;
+  }
+
+  private void awaitRate(int permits) throws InterruptedException {
+    long waitNanos;
+    synchronized (this) {
+      long now = System.nanoTime();
+      long slot = Math.max(now, nextSlotNanos);
+      nextSlotNanos = slot + (long) (permits * TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+      waitNanos = slot - now;
+    }
+    if (waitNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.dto.CashFlowForecastDTO;
+import com.example.financial_tracker.entity.RecurringTransaction;
+import com.example.financial_tracker.entity.Transaction;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.enumerations.RecurrenceFrequency;
+import com.example.financial_tracker.enumerations.TransactionType;
+import com.example.financial_tracker.exception.BadRequestException;
+import com.example.financial_tracker.repository.RecurringTransactionRepository;
+import com.example.financial_tracker.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CashFlowForecastService {
+
+  static final int MAX_HORIZON_DAYS = 365;
+
+  private final TransactionRepository transactionRepository;
+  private final RecurringTransactionRepository recurringTransactionRepository;
+  private final CacheManager cacheManager;
+  /**
+   * Bumped on every committed write, so a forecast built while a write landed is not
+   * kept. Only has to outlive a forecast build.
+   */
+  private final LoadingCache<Long, AtomicLong> generations = Caffeine.newBuilder()
+    .expireAfterAccess(Duration.ofHours(6))
+    .build(userId -> new AtomicLong());
+
+  /**
+   * Not transactional itself, so the cache put is not deferred past the generation
+   * check to the end of a transaction.
+   */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public CashFlowForecastDTO getForecast(User user, int days) {
+    if (days < 1 || days > MAX_HORIZON_DAYS) {
+      throw new BadRequestException("Forecast horizon must be between 1 and " + MAX_HORIZON_DAYS + " days");
+    }
+
+    LocalDate today = LocalDate.now();
+    Cache cache = cacheManager.getCache("cashFlowForecasts");
+    CashFlowForecastDTO forecast = cache != null ? cache.get(user.getId(), CashFlowForecastDTO.class) : null;
+
+    if (forecast == null || !today.equals(forecast.getStartDate())) {
+      AtomicLong generation = generations.get(user.getId());
+      long before = generation.get();
+      forecast = buildForecast(user, today);
+      if (cache != null) {
+        cache.put(user.getId(), forecast);
+        if (generation.get() != before) {
+          cache.evict(user.getId());
+        }
+      }
+    }
+
+    return days == MAX_HORIZON_DAYS ? forecast : truncate(forecast, days);
+  }
+
+  /**
+   * Drops the user's forecast once a transaction or recurring item write commits,
+   * including those made by the recurring-transaction scheduler.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public void onUserDataChanged(UserDataChangedEvent event) {
+    if (event.getEntityType() != Transaction.class && event.getEntityType() != RecurringTransaction.class) {
+      return;
+    }
+    generations.get(event.getUserId()).incrementAndGet();
+    Cache cache = cacheManager.getCache("cashFlowForecasts");
+    if (cache != null) {
+      cache.evict(event.getUserId());
+    }
+  }
+
+  private CashFlowForecastDTO buildForecast(User user, LocalDate today) {
+    long start = System.currentTimeMillis();
+    LocalDate horizonEnd = today.plusDays(MAX_HORIZON_DAYS);
+
+    BigDecimal balance = transactionRepository.calculateBalanceByUser(user);
+    List<Object[]> schedules = recurringTransactionRepository.findForecastSchedules(user, today, horizonEnd);
+
+    long[] income = new long[MAX_HORIZON_DAYS + 1];
+    long[] expense = new long[MAX_HORIZON_DAYS + 1];
+    long todayEpochDay = today.toEpochDay();
+
+    for (Object[] schedule : schedules) {
+      long cents = toCents((BigDecimal) schedule[0]);
+      long[] target = schedule[1] == TransactionType.INCOME ? income : expense;
+      RecurrenceFrequency frequency = (RecurrenceFrequency) schedule[2];
+      LocalDate nextDate = (LocalDate) schedule[3];
+      LocalDate endDate = (LocalDate) schedule[4];
+      Integer dayOfMonth = (Integer) schedule[5];
+      Integer dayOfWeek = (Integer) schedule[6];
+
+      LocalDate date = nextDate.isBefore(today) ? today : nextDate;
+      while (!date.isAfter(horizonEnd) && (endDate == null || !endDate.isBefore(date))) {
+        target[(int) (date.toEpochDay() - todayEpochDay)] += cents;
+        date = RecurringTransactionService.calculateNextExecutionDate(date, frequency, dayOfMonth, dayOfWeek);
+      }
+    }
+
+    long running = toCents(balance != null ? balance : BigDecimal.ZERO);
+    List<CashFlowForecastDTO.ForecastPointDTO> points = new ArrayList<>(MAX_HORIZON_DAYS + 1);
+    for (int day = 0; day <= MAX_HORIZON_DAYS; day++) {
+      running += income[day] - expense[day];
+      points.add(CashFlowForecastDTO.ForecastPointDTO.builder()
+        .date(today.plusDays(day))
+        .income(fromCents(income[day]))
+        .expense(fromCents(expense[day]))
+        .balance(fromCents(running))
+        .build());
+    }
+
+    log.debug("Built cash-flow forecast for user: {} from {} schedules in {} ms",
+      user.getEmail(), schedules.size(), System.currentTimeMillis() - start);
+
+    return summarize(points, balance != null ? balance : BigDecimal.ZERO, schedules.size());
+  }
+
+  private CashFlowForecastDTO truncate(CashFlowForecastDTO forecast, int days) {
+    return summarize(forecast.getDailyBalances().subList(0, days + 1),
+      forecast.getStartingBalance(), forecast.getScheduleCount());
+  }
+
+  private CashFlowForecastDTO summarize(List<CashFlowForecastDTO.ForecastPointDTO> points,
+                                        BigDecimal startingBalance, int scheduleCount) {
+    BigDecimal totalIncome = BigDecimal.ZERO;
+    BigDecimal totalExpense = BigDecimal.ZERO;
+    CashFlowForecastDTO.ForecastPointDTO lowest = points.get(0);
+
+    for (CashFlowForecastDTO.ForecastPointDTO point : points) {
+      totalIncome = totalIncome.add(point.getIncome());
+      totalExpense = totalExpense.add(point.getExpense());
+      if (point.getBalance().compareTo(lowest.getBalance()) < 0) {
+        lowest = point;
+      }
+    }
+
+    CashFlowForecastDTO.ForecastPointDTO last = points.get(points.size() - 1);
+    return CashFlowForecastDTO.builder()
+      .startDate(points.get(0).getDate())
+      .endDate(last.getDate())
+      .horizonDays(points.size() - 1)
+      .scheduleCount(scheduleCount)
+      .startingBalance(startingBalance)
+      .endingBalance(last.getBalance())
+      .projectedIncome(totalIncome)
+      .projectedExpense(totalExpense)
+      .lowestBalance(lowest.getBalance())
+      .lowestBalanceDate(lowest.getDate())
+      .dailyBalances(List.copyOf(points))
+      .build();
+  }
+
+  private long toCents(BigDecimal amount) {
+    return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+  }
+
+  private BigDecimal fromCents(long cents) {
+    return BigDecimal.valueOf(cents, 2);
+  }
+}
@@ -7,23 +7,29 @@ import com.example.financial_tracker.dto.UserCurrencyPreferenceDTO;
 import com.example.financial_tracker.enumerations.Currency;
 import com.example.financial_tracker.entity.User;
 import com.example.financial_tracker.entity.ExchangeRate;
-import com.example.financial_tracker.exception.BusinessLogicException;
 import com.example.financial_tracker.repository.ExchangeRateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -33,117 +39,142 @@ import java.util.stream.Collectors;
 public class CurrencyService {
 
   private final ExchangeRateRepository exchangeRateRepository;
-  private final RestTemplate restTemplate = new RestTemplate();
+  private final ExchangeRateProvider exchangeRateProvider;
+  private final ExchangeRateIngestionService exchangeRateIngestionService;
+  private final ApplicationEventPublisher eventPublisher;
 
-  private static final String EXCHANGE_API_URL = "https://api.exchangerate-api.com/v4/latest/";
+  @Qualifier("integrationExecutor")
+  private final Executor integrationExecutor;
 
+  private final AtomicReference<ExchangeRateMatrix> rateMatrix = new AtomicReference<>(ExchangeRateMatrix.EMPTY);
+  private final AtomicReference<ExchangeRateHistory> rateHistory = new AtomicReference<>(ExchangeRateHistory.EMPTY);
+  private volatile Long loadedMaxId;
+
+  @Value("${app.currency.base-currencies:USD,EUR,GBP}")
+  private List<Currency> baseCurrencies;
+
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public void initializeExchangeRatesIfNeeded() {
     log.info("Checking for existing exchange rates...");
     List<ExchangeRate> existingRates = exchangeRateRepository
       .findCurrentRatesForCurrency(Currency.USD, LocalDateTime.now());
 
     if (existingRates.isEmpty()) {
-      log.info("No exchange rates found, initializing from external API...");
+      log.info("No exchange rates found, initializing from {}...", exchangeRateProvider.getName());
       updateExchangeRates();
     } else {
       log.info("Exchange rates already exist ({} rates), skipping initialization", existingRates.size());
+      reloadRates();
     }
   }
 
   public BigDecimal convert(BigDecimal amount, Currency from, Currency to) {
-    if (from == to) {
-      return amount;
-    }
-
-    BigDecimal rate = getExchangeRate(from, to);
-    return amount.multiply(rate).setScale(to.getDecimalPlaces(), RoundingMode.HALF_UP);
+    return getRateMatrix().convert(amount, from, to);
   }
 
-  @Transactional(readOnly = true)
-  @Cacheable(value = "exchangeRates", key = "#from.name() + '-' + #to.name()")
   public BigDecimal getExchangeRate(Currency from, Currency to) {
-    log.debug("Getting exchange rate from {} to {}", from, to);
-
-    ExchangeRate rate = exchangeRateRepository
-      .findLatestRate(from, to, LocalDateTime.now())
-      .orElseGet(() -> {
-        return exchangeRateRepository
-          .findLatestRate(to, from, LocalDateTime.now())
-          .map(reverseRate -> {
-            BigDecimal reversed = BigDecimal.ONE.divide(
-              reverseRate.getRate(), 6, RoundingMode.HALF_UP
-            );
-            return createReverseRate(reverseRate, reversed);
-          })
-          .orElseThrow(() -> new BusinessLogicException(
-            "Exchange rate not found for " + from + " to " + to
-          ));
-      });
-
-    return rate.getRate();
-  }
-
-  private ExchangeRate createReverseRate(ExchangeRate original, BigDecimal reversedRate) {
-    ExchangeRate reversed = new ExchangeRate();
-    reversed.setFromCurrency(original.getToCurrency());
-    reversed.setToCurrency(original.getFromCurrency());
-    reversed.setRate(reversedRate);
-    reversed.setValidFrom(original.getValidFrom());
-    reversed.setValidTo(original.getValidTo());
-    reversed.setSource(original.getSource() + "_REVERSED");
-    return reversed;
-  }
-
-  @CacheEvict(value = "exchangeRates", allEntries = true)
-  @Scheduled(cron = "0 0 */6 * * *")
-  public void updateExchangeRates() {
-    log.info("Updating exchange rates from external API");
-
-    try {
-      updateRatesForCurrency(Currency.USD);
-      updateRatesForCurrency(Currency.EUR);
-      updateRatesForCurrency(Currency.GBP);
+    return getRateMatrix().rate(from, to);
+  }
 
-    } catch (Exception e) {
-      log.error("Failed to update exchange rates", e);
+  /**
+   * Returns the current rate snapshot. Callers that convert several amounts for one
+   * response should hold on to it so every figure uses the same rates.
+   */
+  public ExchangeRateMatrix getRateMatrix() {
+    ExchangeRateMatrix matrix = rateMatrix.get();
+    if (matrix == ExchangeRateMatrix.EMPTY) {
+      loadRates();
+      matrix = rateMatrix.get();
     }
+    return matrix;
   }
 
-  @SuppressWarnings("unchecked")
-  private void updateRatesForCurrency(Currency baseCurrency) {
-    try {
-      String url = EXCHANGE_API_URL + baseCurrency.name();
-      Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+  /**
+   * Returns every stored rate indexed by time, for converting amounts at the rate of
+   * their own date.
+   */
+  public ExchangeRateHistory getRateHistory() {
+    ExchangeRateHistory history = rateHistory.get();
+    if (history == ExchangeRateHistory.EMPTY) {
+      loadRates();
+      history = rateHistory.get();
+    }
+    return history;
+  }
 
-      if (response != null && response.containsKey("rates")) {
-        Map<String, Number> rates = (Map<String, Number>) response.get("rates");
-        LocalDateTime now = LocalDateTime.now();
+  private synchronized void loadRates() {
+    if (rateMatrix.get() == ExchangeRateMatrix.EMPTY || rateHistory.get() == ExchangeRateHistory.EMPTY) {
+      reloadRates();
+    }
+  }
 
-        rates.forEach((currencyCode, rate) -> {
-          try {
-            Currency toCurrency = Currency.valueOf(currencyCode);
+  @Transactional(readOnly = true)
+  public void reloadRates() {
+    Long maxId = exchangeRateRepository.findMaxId();
+    LocalDateTime now = LocalDateTime.now();
+    ExchangeRateHistory history = ExchangeRateHistory.build(exchangeRateRepository.findRateHistory());
+    ExchangeRateMatrix matrix = ExchangeRateMatrix.build(exchangeRateRepository.findAllCurrentRates(now), now);
+    rateHistory.set(history);
+    rateMatrix.set(matrix);
+    Long previousMaxId = loadedMaxId;
+    loadedMaxId = maxId;
+    log.debug("Exchange rates reloaded: {} current, {} historical", matrix.getSourceRates(), history.getSourceRates());
+    if (!Objects.equals(previousMaxId, maxId)) {
+      eventPublisher.publishEvent(new ExchangeRatesChangedEvent());
+    }
+  }
 
-            exchangeRateRepository.closeExistingRates(baseCurrency, toCurrency, now);
+  /**
+   * Picks up rates written by other nodes. Rates only change when rows are inserted,
+   * so the full reload is skipped while the highest id stays the same.
+   */
+  @Transactional(readOnly = true)
+  @Scheduled(fixedDelayString = "${app.currency.matrix-refresh-ms:600000}",
+    initialDelayString = "${app.currency.matrix-refresh-ms:600000}")
+  public void refreshRates() {
+    Long maxId = exchangeRateRepository.findMaxId();
+    if (maxId != null && !maxId.equals(loadedMaxId)) {
+      reloadRates();
+    }
+  }
 
-            ExchangeRate exchangeRate = new ExchangeRate();
-            exchangeRate.setFromCurrency(baseCurrency);
-            exchangeRate.setToCurrency(toCurrency);
-            exchangeRate.setRate(new BigDecimal(rate.toString()));
-            exchangeRate.setValidFrom(now);
-            exchangeRate.setSource("ExchangeRate-API");
+  private void reloadRatesAfterCommit() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      reloadRates();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        reloadRates();
+      }
+    });
+  }
 
-            exchangeRateRepository.save(exchangeRate);
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  @Scheduled(cron = "0 0 */6 * * *")
+  public void updateExchangeRates() {
+    log.info("Updating exchange rates from {}", exchangeRateProvider.getName());
+
+    Map<Currency, CompletableFuture<Map<Currency, BigDecimal>>> fetches = new EnumMap<>(Currency.class);
+    for (Currency base : baseCurrencies) {
+      fetches.put(base, CompletableFuture
+        .supplyAsync(() -> exchangeRateProvider.fetchRates(base), integrationExecutor)
+        .exceptionally(e -> {
+          log.error("Failed to update rates for currency {}", base, e);
+          return Map.of();
+        }));
+    }
 
-          } catch (IllegalArgumentException e) {
-            log.trace("Skipping unsupported currency: {}", currencyCode);
-          }
-        });
+    Map<Currency, Map<Currency, BigDecimal>> ratesByBase = new EnumMap<>(Currency.class);
+    fetches.forEach((base, fetch) -> ratesByBase.put(base, fetch.join()));
 
-        log.info("Updated {} exchange rates for base currency {}",
-          rates.size(), baseCurrency);
-      }
+    try {
+      int stored = exchangeRateIngestionService.store(ratesByBase, exchangeRateProvider.getName(), LocalDateTime.now());
+      log.info("Stored {} exchange rates for base currencies {}", stored, ratesByBase.keySet());
+      reloadRatesAfterCommit();
     } catch (Exception e) {
-      log.error("Failed to update rates for currency {}", baseCurrency, e);
+      log.error("Failed to update exchange rates", e);
     }
   }
 
@@ -159,13 +190,14 @@ public class CurrencyService {
 
   @Transactional(readOnly = true)
   public CurrencyConversionDTO convertAmount(CurrencyConversionDTO request) {
-    BigDecimal convertedAmount = convert(
+    ExchangeRateMatrix matrix = getRateMatrix();
+    BigDecimal convertedAmount = matrix.convert(
       request.getAmount(),
       request.getFromCurrency(),
       request.getToCurrency()
     );
 
-    BigDecimal rate = getExchangeRate(
+    BigDecimal rate = matrix.rate(
       request.getFromCurrency(),
       request.getToCurrency()
     );
@@ -189,7 +221,6 @@ public class CurrencyService {
       .build();
   }
 
-  @CacheEvict(value = "exchangeRates", key = "#dto.fromCurrency.name() + '-' + #dto.toCurrency.name()")
   public void createManualRate(ExchangeRateDTO dto) {
     log.info("Creating manual exchange rate from {} to {} with rate {}",
       dto.getFromCurrency(), dto.getToCurrency(), dto.getRate());
@@ -208,6 +239,7 @@ public class CurrencyService {
     rate.setSource("MANUAL");
 
     exchangeRateRepository.save(rate);
+    reloadRatesAfterCommit();
   }
 
   @Transactional(readOnly = true)
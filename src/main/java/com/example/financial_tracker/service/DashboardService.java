@@ -1,14 +1,15 @@
 package com.example.financial_tracker.service;
 
+import com.example.financial_tracker.cache.SingleFlight;
 import com.example.financial_tracker.dto.*;
-import com.example.financial_tracker.entity.Transaction;
 import com.example.financial_tracker.entity.User;
-import com.example.financial_tracker.mapper.TransactionMapper;
+import com.example.financial_tracker.enumerations.TransactionType;
 import com.example.financial_tracker.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -26,8 +27,16 @@ public class DashboardService {
   private final TransactionRepository transactionRepository;
   private final TransactionService transactionService;
   private final AnalyticsService analyticsService;
-  private final TransactionMapper transactionMapper;
-
+  private final SecondaryCurrencyService secondaryCurrencyService;
+  private final QueryFanOut queryFanOut;
+
+  /**
+   * Not transactional itself, so with open-in-view off the request holds no
+   * connection while the sub-queries run in their own transactions on the fan-out
+   * executor.
+   */
+  @SingleFlight
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public DashboardDTO getDashboard(User user) {
     log.info("Generating dashboard for user: {}", user.getEmail());
 
@@ -36,63 +45,80 @@ public class DashboardService {
     LocalDate monthEnd = now.withDayOfMonth(now.lengthOfMonth());
     LocalDate lastMonthStart = monthStart.minusMonths(1);
     LocalDate lastMonthEnd = lastMonthStart.withDayOfMonth(lastMonthStart.lengthOfMonth());
+    LocalDate thirtyDaysAgo = now.minusDays(29);
 
-    BigDecimal currentBalance = transactionService.getBalanceByUser(user);
-    BigDecimal totalIncome = transactionService.getTotalIncomeByUser(user);
-    BigDecimal totalExpense = transactionService.getTotalExpenseByUser(user);
-
-    List<Object[]> currentMonthStats = transactionRepository.getPeriodStats(user, monthStart, monthEnd);
-    BigDecimal monthlyIncome = BigDecimal.ZERO;
-    BigDecimal monthlyExpense = BigDecimal.ZERO;
-
-    if (!currentMonthStats.isEmpty()) {
-      Object[] stats = currentMonthStats.get(0);
-      monthlyIncome = convertToBigDecimal(stats[0]);
-      monthlyExpense = convertToBigDecimal(stats[1]);
-    }
+    DashboardDTO dashboard;
+    try (QueryFanOut.Scope scope = queryFanOut.open("dashboard")) {
+      QueryFanOut.Fork<ForeignCurrencyAdjustment> adjustmentFork = scope.fork(() ->
+        analyticsService.getCurrencyAdjustment(user));
+      scope.join();
+      ForeignCurrencyAdjustment adjustment = adjustmentFork.get();
+
+      QueryFanOut.Fork<BigDecimal> balance = scope.fork(() -> transactionService.getBalanceByUser(user));
+      QueryFanOut.Fork<BigDecimal> income = scope.fork(() -> transactionService.getTotalIncomeByUser(user));
+      QueryFanOut.Fork<BigDecimal> expense = scope.fork(() -> transactionService.getTotalExpenseByUser(user));
+      QueryFanOut.Fork<List<Object[]>> currentMonthStats = scope.fork(() ->
+        transactionRepository.getPeriodStats(user, monthStart, monthEnd));
+      QueryFanOut.Fork<List<Object[]>> lastMonthStats = scope.fork(() ->
+        transactionRepository.getPeriodStats(user, lastMonthStart, lastMonthEnd));
+      QueryFanOut.Fork<List<TransactionDTO>> recentTransactions = scope.fork(() ->
+        transactionRepository.findRecentDtos(user, PageRequest.of(0, 10)));
+      QueryFanOut.Fork<List<CategoryStatsDTO>> topExpenseCategories = scope.fork(() ->
+        analyticsService.getTopExpenseCategories(user, monthStart, monthEnd, 5, adjustment));
+      QueryFanOut.Fork<List<DailyStatsDTO>> dailyStats = scope.fork(() ->
+        getDailyStats(user, thirtyDaysAgo, now, adjustment));
+      scope.join();
+
+      BigDecimal currentBalance = balance.get().add(adjustment.balance());
+      BigDecimal totalIncome = income.get().add(adjustment.total(TransactionType.INCOME));
+      BigDecimal totalExpense = expense.get().add(adjustment.total(TransactionType.EXPENSE));
+
+      BigDecimal monthlyIncome = BigDecimal.ZERO;
+      BigDecimal monthlyExpense = BigDecimal.ZERO;
+
+      if (!currentMonthStats.get().isEmpty()) {
+        Object[] stats = currentMonthStats.get().get(0);
+        monthlyIncome = convertToBigDecimal(stats[0]);
+        monthlyExpense = convertToBigDecimal(stats[1]);
+      }
+      monthlyIncome = monthlyIncome.add(adjustment.total(TransactionType.INCOME, monthStart, monthEnd));
+      monthlyExpense = monthlyExpense.add(adjustment.total(TransactionType.EXPENSE, monthStart, monthEnd));
 
-    List<Object[]> lastMonthStats = transactionRepository.getPeriodStats(user, lastMonthStart, lastMonthEnd);
-    BigDecimal lastMonthIncome = BigDecimal.ZERO;
-    BigDecimal lastMonthExpense = BigDecimal.ZERO;
+      BigDecimal lastMonthIncome = BigDecimal.ZERO;
+      BigDecimal lastMonthExpense = BigDecimal.ZERO;
 
-    if (!lastMonthStats.isEmpty()) {
-      Object[] stats = lastMonthStats.get(0);
-      lastMonthIncome = convertToBigDecimal(stats[0]);
-      lastMonthExpense = convertToBigDecimal(stats[1]);
+      if (!lastMonthStats.get().isEmpty()) {
+        Object[] stats = lastMonthStats.get().get(0);
+        lastMonthIncome = convertToBigDecimal(stats[0]);
+        lastMonthExpense = convertToBigDecimal(stats[1]);
+      }
+      lastMonthIncome = lastMonthIncome.add(adjustment.total(TransactionType.INCOME, lastMonthStart, lastMonthEnd));
+      lastMonthExpense = lastMonthExpense.add(adjustment.total(TransactionType.EXPENSE, lastMonthStart, lastMonthEnd));
+
+      BigDecimal incomeChangePercent = calculatePercentageChange(lastMonthIncome, monthlyIncome);
+      BigDecimal expenseChangePercent = calculatePercentageChange(lastMonthExpense, monthlyExpense);
+
+      dashboard = DashboardDTO.builder()
+        .currentBalance(currentBalance)
+        .totalIncome(totalIncome)
+        .totalExpense(totalExpense)
+        .monthlyIncome(monthlyIncome)
+        .monthlyExpense(monthlyExpense)
+        .monthlyBalance(monthlyIncome.subtract(monthlyExpense))
+        .recentTransactions(recentTransactions.get())
+        .topExpenseCategories(topExpenseCategories.get())
+        .dailyStats(dailyStats.get())
+        .incomeChangePercent(incomeChangePercent)
+        .expenseChangePercent(expenseChangePercent)
+        .build();
     }
 
-    BigDecimal incomeChangePercent = calculatePercentageChange(lastMonthIncome, monthlyIncome);
-    BigDecimal expenseChangePercent = calculatePercentageChange(lastMonthExpense, monthlyExpense);
-
-    List<Transaction> recentTransactions = transactionRepository.getRecentTransactions(
-      user, PageRequest.of(0, 10)
-    );
-
-    List<TransactionDTO> recentTransactionDtos = transactionMapper.toDtoList(recentTransactions);
-
-    List<CategoryStatsDTO> topExpenseCategories = analyticsService.getTopExpenseCategories(
-      user, monthStart, monthEnd, 5
-    );
-
-    LocalDate thirtyDaysAgo = now.minusDays(29);
-    List<DailyStatsDTO> dailyStats = getDailyStats(user, thirtyDaysAgo, now);
-
-    return DashboardDTO.builder()
-      .currentBalance(currentBalance)
-      .totalIncome(totalIncome)
-      .totalExpense(totalExpense)
-      .monthlyIncome(monthlyIncome)
-      .monthlyExpense(monthlyExpense)
-      .monthlyBalance(monthlyIncome.subtract(monthlyExpense))
-      .recentTransactions(recentTransactionDtos)
-      .topExpenseCategories(topExpenseCategories)
-      .dailyStats(dailyStats)
-      .incomeChangePercent(incomeChangePercent)
-      .expenseChangePercent(expenseChangePercent)
-      .build();
+    secondaryCurrencyService.applyToDashboard(user, dashboard);
+    return dashboard;
   }
 
-  private List<DailyStatsDTO> getDailyStats(User user, LocalDate startDate, LocalDate endDate) {
+  private List<DailyStatsDTO> getDailyStats(User user, LocalDate startDate, LocalDate endDate,
+                                            ForeignCurrencyAdjustment adjustment) {
     List<Object[]> results = transactionRepository.getDailyStats(user, startDate, endDate);
     List<DailyStatsDTO> dailyStats = new ArrayList<>();
 
@@ -109,8 +135,8 @@ public class DashboardService {
       BigDecimal expense = BigDecimal.ZERO;
 
       if (dayData != null) {
-        income = convertToBigDecimal(dayData[1]);
-        expense = convertToBigDecimal(dayData[2]);
+        income = convertToBigDecimal(dayData[1]).add(adjustment.total(TransactionType.INCOME, date, date));
+        expense = convertToBigDecimal(dayData[2]).add(adjustment.total(TransactionType.EXPENSE, date, date));
       }
 
       dailyStats.add(DailyStatsDTO.builder()
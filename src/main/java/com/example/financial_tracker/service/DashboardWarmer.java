@@ -0,0 +1,308 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.cache.CacheInvalidation;
+import com.example.financial_tracker.cache.CacheInvalidationBus;
+import com.example.financial_tracker.datasource.DataOwnerContext;
+import com.example.financial_tracker.datasource.Workload;
+import com.example.financial_tracker.datasource.WorkloadContext;
+import com.example.financial_tracker.dto.BudgetDTO;
+import com.example.financial_tracker.dto.DashboardDTO;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the dashboard and budget list of recently active users precomputed, so the
+ * first load after login and later reloads are served from memory. Entries are
+ * warmed on login and by a periodic pass over active users, refreshed in the
+ * background once older than {@code refresh-after}, and dropped on any write to the
+ * user's data.
+ * <p>
+ * A write bumps the user's generation rather than searching the cache for the
+ * user's entries. Every entry carries the generation it was computed under, and
+ * entries from an earlier generation are not served. That includes background loads
+ * that were still running when the write landed.
+ * <p>
+ * All warming runs on the {@code warmingExecutor}, with the reporting workload and
+ * sub-queries run one after another: its thread count caps the CPU and connections
+ * warming can use, and work it cannot take is skipped rather than run on a request
+ * thread. Cache misses are computed on the request thread as before.
+ */
+@Service
+public class DashboardWarmer implements MeterBinder {
+
+  static final String CACHE_NAME = "dashboards";
+
+  private final DashboardService dashboardService;
+  private final BudgetService budgetService;
+  private final UserRepository userRepository;
+  private final Executor warmingExecutor;
+  private final CacheInvalidationBus bus;
+  private final boolean enabled;
+  private final Duration refreshAfter;
+  private final LoadingCache<Key, Stamped> cache;
+  private final Cache<Long, String> activeUsers;
+  private final String nodeId = UUID.randomUUID().toString();
+  /**
+   * Read whenever an entry is stored, so a generation is only dropped once every
+   * entry stamped with it has expired as well.
+   */
+  private final Cache<Long, AtomicLong> generations;
+
+  private volatile Counter hits;
+  private volatile Counter misses;
+  private volatile Counter skipped;
+
+  public DashboardWarmer(DashboardService dashboardService,
+                         BudgetService budgetService,
+                         UserRepository userRepository,
+                         @Qualifier("warmingExecutor") Executor warmingExecutor,
+                         CacheInvalidationBus bus,
+                         @Value("${app.dashboard.warming.enabled:true}") boolean enabled,
+                         @Value("${app.dashboard.warming.max-size:10000}") long maxSize,
+                         @Value("${app.dashboard.warming.refresh-after:5m}") Duration refreshAfter,
+                         @Value("${app.dashboard.warming.expire-after:15m}") Duration expireAfter,
+                         @Value("${app.dashboard.warming.active-window:2h}") Duration activeWindow) {
+    this.dashboardService = dashboardService;
+    this.budgetService = budgetService;
+    this.userRepository = userRepository;
+    this.warmingExecutor = warmingExecutor;
+    this.bus = bus;
+    this.enabled = enabled;
+    this.refreshAfter = refreshAfter;
+    this.cache = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .refreshAfterWrite(refreshAfter)
+      .expireAfterWrite(expireAfter)
+      .build(new Warmer());
+    this.activeUsers = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .expireAfterWrite(activeWindow)
+      .build();
+    this.generations = Caffeine.newBuilder()
+      .expireAfterAccess(expireAfter)
+      .build();
+    bus.subscribe(this::onInvalidation);
+  }
+
+  public DashboardDTO getDashboard(User user) {
+    return (DashboardDTO) get(user, Part.DASHBOARD, () -> dashboardService.getDashboard(user));
+  }
+
+  @SuppressWarnings("unchecked")
+  public List<BudgetDTO> getUserBudgets(User user) {
+    return (List<BudgetDTO>) get(user, Part.BUDGETS, () -> List.copyOf(budgetService.getUserBudgets(user)));
+  }
+
+  /**
+   * Starts warming the user's entries in the background, typically right after login.
+   */
+  public void warm(User user) {
+    if (!enabled) {
+      return;
+    }
+    String currencies = currencies(user);
+    activeUsers.put(user.getId(), currencies);
+    refreshIfStale(user.getId(), currencies);
+  }
+
+  @Scheduled(fixedDelayString = "${app.dashboard.warming.interval-ms:60000}")
+  public void warmActiveUsers() {
+    if (!enabled) {
+      return;
+    }
+    activeUsers.asMap().forEach(this::refreshIfStale);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onUserDataChanged(UserDataChangedEvent event) {
+    evictLocally(event.getUserId());
+    bus.publish(new CacheInvalidation(nodeId, CACHE_NAME, event.getUserId()));
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    hits = reads(registry, "warm");
+    misses = reads(registry, "cold");
+    skipped = Counter.builder("app.dashboard.warming.skipped")
+      .description("Warming work dropped because the warming executor was saturated")
+      .register(registry);
+  }
+
+  private Object get(User user, Part part, Supplier<Object> live) {
+    if (!enabled) {
+      return live.get();
+    }
+    String currencies = currencies(user);
+    activeUsers.put(user.getId(), currencies);
+    Key key = new Key(user.getId(), part, currencies);
+
+    Stamped warm = cache.getIfPresent(key);
+    if (warm != null && warm.generation == generation(user.getId())) {
+      increment(hits);
+      return warm.value;
+    }
+
+    increment(misses);
+    long generation = generation(user.getId());
+    Object value = live.get();
+    cache.put(key, new Stamped(generation, value));
+    return value;
+  }
+
+  private void refreshIfStale(Long userId, String currencies) {
+    long generation = generation(userId);
+    for (Part part : Part.values()) {
+      Key key = new Key(userId, part, currencies);
+      Stamped current = cache.getIfPresent(key);
+      Optional<Duration> age = cache.policy().refreshAfterWrite().flatMap(policy -> policy.ageOf(key));
+      if (current == null || current.generation != generation || age.isEmpty()
+        || age.get().compareTo(refreshAfter) >= 0) {
+        cache.refresh(key);
+      }
+    }
+  }
+
+  private Object load(Key key) throws Exception {
+    User user = userRepository.findById(key.userId).orElse(null);
+    if (user == null || !currencies(user).equals(key.currencies)) {
+      return null;
+    }
+    return QueryFanOut.inline(DataOwnerContext.bind(key.userId, WorkloadContext.bind(Workload.REPORTING,
+      () -> switch (key.part) {
+        case DASHBOARD -> dashboardService.getDashboard(user);
+        case BUDGETS -> List.copyOf(budgetService.getUserBudgets(user));
+      })));
+  }
+
+  private void onInvalidation(CacheInvalidation invalidation) {
+    if (CACHE_NAME.equals(invalidation.getCacheName()) && !nodeId.equals(invalidation.getOriginNode())
+      && invalidation.getKey() instanceof Long userId) {
+      evictLocally(userId);
+    }
+  }
+
+  private void evictLocally(Long userId) {
+    generations.get(userId, id -> new AtomicLong()).incrementAndGet();
+  }
+
+  private long generation(Long userId) {
+    return generations.get(userId, id -> new AtomicLong()).get();
+  }
+
+  /** Entries are only valid for the currencies they were computed in. */
+  private static String currencies(User user) {
+    return user.getDefaultCurrency() + "/"
+      + (user.isDisplaySecondaryCurrency() ? user.getSecondaryCurrency() : "-");
+  }
+
+  private static void increment(Counter counter) {
+    if (counter != null) {
+      counter.increment();
+    }
+  }
+
+  private static Counter reads(MeterRegistry registry, String result) {
+    return Counter.builder("app.dashboard.warming.reads")
+      .description("Dashboard and budget reads by whether a warm entry served them")
+      .tag("result", result)
+      .register(registry);
+  }
+
+  /**
+   * Loads and refreshes on the warming executor only. A saturated executor fails the
+   * refresh with a cancellation, which leaves the current entry in place. A result
+   * whose generation has already passed by the time it is ready is discarded.
+   */
+  private final class Warmer implements CacheLoader<Key, Stamped> {
+
+    @Override
+    public Stamped load(Key key) throws Exception {
+      long generation = generation(key.userId);
+      Object value = DashboardWarmer.this.load(key);
+      return value != null ? new Stamped(generation, value) : null;
+    }
+
+    @Override
+    public CompletableFuture<Stamped> asyncLoad(Key key, Executor executor) {
+      return submit(key);
+    }
+
+    @Override
+    public CompletableFuture<Stamped> asyncReload(Key key, Stamped oldValue, Executor executor) {
+      return submit(key);
+    }
+
+    private CompletableFuture<Stamped> submit(Key key) {
+      long generation = generation(key.userId);
+      CompletableFuture<Stamped> result = new CompletableFuture<>();
+      try {
+        warmingExecutor.execute(() -> {
+          try {
+            Object value = DashboardWarmer.this.load(key);
+            boolean current = value != null && generation(key.userId) == generation;
+            result.complete(current ? new Stamped(generation, value) : null);
+          } catch (Exception e) {
+            result.completeExceptionally(e);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        increment(skipped);
+        result.completeExceptionally(new CancellationException("warming executor is saturated"));
+      }
+      return result;
+    }
+  }
+
+  private enum Part {
+    DASHBOARD,
+    BUDGETS
+  }
+
+  private static final class Stamped {
+    private final long generation;
+    private final Object value;
+
+    Stamped(long generation, Object value) {
+      this.generation = generation;
+      this.value = value;
+    }
+  }
+
+  @EqualsAndHashCode
+  private static final class Key {
+    private final Long userId;
+    private final Part part;
+    private final String currencies;
+
+    Key(Long userId, Part part, String currencies) {
+      this.userId = userId;
+      this.part = part;
+      this.currencies = currencies;
+    }
+  }
+}
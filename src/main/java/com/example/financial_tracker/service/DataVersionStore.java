@@ -0,0 +1,12 @@
+package com.example.financial_tracker.service;
+
+/**
+ * Per-user counter that changes whenever any of the user's financial data is written.
+ * Read paths use it to tell whether a previously served response is still current.
+ */
+public interface DataVersionStore {
+
+  long currentVersion(Long userId);
+
+  long bump(Long userId);
+}
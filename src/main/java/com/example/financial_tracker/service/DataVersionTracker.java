@@ -0,0 +1,22 @@
+package com.example.financial_tracker.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Bumps the user's data version once the write is committed, so a reader can never
+ * tag a response built from uncommitted state with the new version.
+ */
+@Component
+@RequiredArgsConstructor
+public class DataVersionTracker {
+
+  private final DataVersionStore dataVersionStore;
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onUserDataChanged(UserDataChangedEvent event) {
+    dataVersionStore.bump(event.getUserId());
+  }
+}
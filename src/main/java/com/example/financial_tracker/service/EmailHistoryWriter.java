@@ -0,0 +1,212 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.entity.EmailHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers {@link EmailHistory} rows and inserts them in JDBC batches, either when
+ * a batch fills up or on a timer. If the buffer is full the caller flushes it
+ * itself, so mail sending slows down rather than dropping history.
+ * <p>
+ * A batch whose insert fails is retried first on the following flushes, and the
+ * buffer is not drained behind it. After {@code max-attempts} failed inserts its
+ * rows are dropped and counted in {@code app.mail.history.dropped}, so a database
+ * outage cannot block mail sending for good.
+ */
+@Slf4j
+@Service
+public class EmailHistoryWriter implements MeterBinder {
+
+  private static final String INSERT_SQL = "INSERT INTO email_history " +
+    "(user_id, recipient, subject, type, status, error_message, sent_at, created_at) " +
+    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String PURGE_SQL = "DELETE FROM email_history WHERE id IN " +
+    "(SELECT id FROM email_history WHERE created_at < ? LIMIT ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final BlockingQueue<EmailHistory> buffer;
+  private final int batchSize;
+  private final int retentionDays;
+  private final int maxAttempts;
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private volatile boolean closed;
+
+  /** Guarded by {@code flushLock}. */
+  private List<EmailHistory> failedBatch;
+  private int failedAttempts;
+
+  private volatile Counter failedInserts;
+  private volatile Counter droppedRows;
+
+  public EmailHistoryWriter(JdbcTemplate jdbcTemplate,
+                            @Value("${app.mail.history.buffer-capacity:5000}") int bufferCapacity,
+                            @Value("${app.mail.history.batch-size:200}") int batchSize,
+                            @Value("${app.mail.history.retention-days:180}") int retentionDays,
+                            @Value("${app.mail.history.max-attempts:5}") int maxAttempts) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+    this.batchSize = batchSize;
+    this.retentionDays = retentionDays;
+    this.maxAttempts = maxAttempts;
+  }
+
+  public void write(EmailHistory history) {
+    if (closed) {
+      if (!insert(List.of(history))) {
+        drop(1);
+      }
+      return;
+    }
+    while (!buffer.offer(history)) {
+      flush();
+    }
+    if (buffer.size() >= batchSize) {
+      flushIfIdle();
+    }
+  }
+
+  public void writeAll(Collection<EmailHistory> histories) {
+    histories.forEach(this::write);
+  }
+
+  @Scheduled(fixedDelayString = "${app.mail.history.flush-interval-ms:2000}")
+  public void flushIfIdle() {
+    if (flushLock.tryLock()) {
+      try {
+        drain();
+      } finally {
+        flushLock.unlock();
+      }
+    }
+  }
+
+  public void flush() {
+    flushLock.lock();
+    try {
+      drain();
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    closed = true;
+    flushLock.lock();
+    try {
+      drain();
+      int unwritten = (failedBatch != null ? failedBatch.size() : 0) + buffer.size();
+      if (unwritten > 0) {
+        log.error("Dropping {} email history rows that could not be written before shutdown", unwritten);
+        drop(unwritten);
+      }
+    } finally {
+      flushLock.unlock();
+    }
+    log.info("Email history buffer drained on shutdown");
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    failedInserts = Counter.builder("app.mail.history.failed-inserts")
+      .description("Email history batch inserts that failed and were kept for a retry")
+      .register(registry);
+    droppedRows = Counter.builder("app.mail.history.dropped")
+      .description("Email history rows given up on after repeated insert failures")
+      .register(registry);
+  }
+
+  @Scheduled(cron = "${app.mail.history.retention-cron:0 30 3 * * *}")
+  public int purgeExpired() {
+    Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+    int total = 0;
+    int deleted;
+    do {
+      deleted = jdbcTemplate.update(PURGE_SQL, cutoff, batchSize * 5);
+      total += deleted;
+    } while (deleted == batchSize * 5);
+
+    if (total > 0) {
+      log.info("Purged {} email history rows older than {} days", total, retentionDays);
+    }
+    return total;
+  }
+
+  private void drain() {
+    if (failedBatch != null && !retryFailedBatch()) {
+      return;
+    }
+    List<EmailHistory> batch = new ArrayList<>(batchSize);
+    while (buffer.drainTo(batch, batchSize) > 0) {
+      if (!insert(batch)) {
+        failedBatch = batch;
+        failedAttempts = 1;
+        return;
+      }
+      batch = new ArrayList<>(batchSize);
+    }
+  }
+
+  /**
+   * @return whether the failed batch is out of the way, either written or dropped
+   */
+  private boolean retryFailedBatch() {
+    if (!insert(failedBatch)) {
+      if (++failedAttempts < maxAttempts) {
+        return false;
+      }
+      log.error("Dropping {} email history rows after {} failed inserts", failedBatch.size(), failedAttempts);
+      drop(failedBatch.size());
+    }
+    failedBatch = null;
+    failedAttempts = 0;
+    return true;
+  }
+
+  private boolean insert(List<EmailHistory> batch) {
+    try {
+      jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, history) -> {
+        ps.setLong(1, history.getUser().getId());
+        ps.setString(2, history.getRecipient());
+        ps.setString(3, history.getSubject());
+        ps.setString(4, history.getType().name());
+        ps.setString(5, history.getStatus().name());
+        ps.setString(6, history.getErrorMessage());
+        ps.setTimestamp(7, history.getSentAt() != null ? Timestamp.valueOf(history.getSentAt()) : null);
+        ps.setTimestamp(8, Timestamp.valueOf(history.getCreatedAt()));
+      });
+      log.debug("Flushed {} email history rows", batch.size());
+      return true;
+    } catch (RuntimeException e) {
+      log.warn("Failed to write {} email history rows: {}", batch.size(), e.getMessage());
+      if (failedInserts != null) {
+        failedInserts.increment();
+      }
+      return false;
+    }
+  }
+
+  private void drop(int rows) {
+    if (droppedRows != null) {
+      droppedRows.increment(rows);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.entity.EmailHistory;
+import com.example.financial_tracker.entity.EmailOutbox;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Drains {@code email_outbox}: claims due rows, sends them on the mail executor with
+ * at most {@code app.mail.outbox.concurrency} in flight, and schedules retries.
+ */
+@Slf4j
+@Service
+public class EmailOutboxDispatcher {
+
+  private final EmailOutboxService emailOutboxService;
+  private final EmailService emailService;
+  private final EmailQuotaService emailQuotaService;
+  private final EmailHistoryWriter emailHistoryWriter;
+  private final JavaMailSender mailSender;
+  private final Executor mailExecutor;
+  private final Semaphore inFlight;
+
+  @Value("${app.mail.outbox.batch-size:20}")
+  private int batchSize;
+
+  @Value("${app.mail.outbox.quota-retry-seconds:600}")
+  private long quotaRetrySeconds;
+
+  @Value("${app.mail.outbox.stale-claim-minutes:10}")
+  private long staleClaimMinutes;
+
+  public EmailOutboxDispatcher(EmailOutboxService emailOutboxService,
+                               EmailService emailService,
+                               EmailQuotaService emailQuotaService,
+                               EmailHistoryWriter emailHistoryWriter,
+                               JavaMailSender mailSender,
+                               @Qualifier("mailExecutor") Executor mailExecutor,
+                               @Value("${app.mail.outbox.concurrency:4}") int concurrency) {
+    this.emailOutboxService = emailOutboxService;
+    this.emailService = emailService;
+    this.emailQuotaService = emailQuotaService;
+    this.emailHistoryWriter = emailHistoryWriter;
+    this.mailSender = mailSender;
+    this.mailExecutor = mailExecutor;
+    this.inFlight = new Semaphore(concurrency);
+  }
+
+  @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+  public void dispatch() {
+    int available = inFlight.availablePermits();
+    if (available == 0) {
+      return;
+    }
+
+    List<EmailOutbox> claimed = emailOutboxService.claimDue(Math.min(batchSize, available));
+    for (EmailOutbox email : claimed) {
+      inFlight.acquireUninterruptibly();
+      try {
+        mailExecutor.execute(() -> {
+          try {
+            deliver(email);
+          } finally {
+            inFlight.release();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        inFlight.release();
+        emailOutboxService.defer(email.getId(), Duration.ZERO);
+      }
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${app.mail.outbox.stale-check-interval-ms:60000}")
+  public void releaseStaleClaims() {
+    emailOutboxService.releaseStaleClaims(Duration.ofMinutes(staleClaimMinutes));
+  }
+
+  void deliver(EmailOutbox email) {
+    if (!emailQuotaService.tryAcquire()) {
+      log.warn("Email quota exceeded, deferring {} email to {}", email.getType(), email.getRecipient());
+      emailOutboxService.defer(email.getId(), Duration.ofSeconds(quotaRetrySeconds));
+      return;
+    }
+
+    EmailHistory history = emailService.createEmailHistory(
+      email.getRecipient(), email.getSubject(), email.getType(), email.getUser());
+
+    try {
+      mailSender.send(emailService.createMessage(email.getRecipient(), email.getSubject(), email.getBody()));
+    } catch (Exception e) {
+      emailQuotaService.release();
+      if (emailOutboxService.markFailed(email.getId(), e.getMessage())) {
+        history.setStatus(EmailHistory.EmailStatus.FAILED);
+        history.setErrorMessage("Mail error: " + e.getMessage());
+        emailHistoryWriter.write(history);
+      }
+      return;
+    }
+
+    emailOutboxService.markSent(email.getId());
+    history.setStatus(EmailHistory.EmailStatus.SENT);
+    history.setSentAt(LocalDateTime.now());
+    emailHistoryWriter.write(history);
+    log.info("{} email to {} sent", email.getType(), email.getRecipient());
+  }
+}
@@ -0,0 +1,126 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.dto.OutgoingEmail;
+import com.example.financial_tracker.entity.EmailOutbox;
+import com.example.financial_tracker.repository.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class EmailOutboxService {
+
+  private final EmailOutboxRepository emailOutboxRepository;
+
+  @Value("${app.mail.outbox.max-attempts:6}")
+  private int maxAttempts;
+
+  @Value("${app.mail.outbox.initial-backoff-seconds:30}")
+  private long initialBackoffSeconds;
+
+  @Value("${app.mail.outbox.max-backoff-seconds:3600}")
+  private long maxBackoffSeconds;
+
+  public EmailOutbox enqueue(OutgoingEmail email) {
+    return emailOutboxRepository.save(toOutbox(email, Duration.ZERO));
+  }
+
+  /**
+   * Queues emails that are not to be sent before {@code delay} has passed.
+   */
+  public List<EmailOutbox> enqueueAll(List<OutgoingEmail> emails, Duration delay) {
+    return emailOutboxRepository.saveAll(emails.stream().map(email -> toOutbox(email, delay)).toList());
+  }
+
+  public List<EmailOutbox> claimDue(int limit) {
+    if (limit <= 0) {
+      return List.of();
+    }
+    LocalDateTime now = LocalDateTime.now();
+    List<EmailOutbox> due = emailOutboxRepository.findDueForUpdate(
+      EmailOutbox.Status.PENDING, now, PageRequest.of(0, limit));
+    for (EmailOutbox outbox : due) {
+      outbox.setStatus(EmailOutbox.Status.SENDING);
+      outbox.setClaimedAt(now);
+    }
+    return due;
+  }
+
+  public void markSent(Long id) {
+    emailOutboxRepository.deleteById(id);
+  }
+
+  /**
+   * Records a failed attempt and schedules the next one with exponential backoff.
+   *
+   * @return true if the message ran out of attempts and will not be retried
+   */
+  public boolean markFailed(Long id, String error) {
+    EmailOutbox outbox = emailOutboxRepository.findById(id).orElse(null);
+    if (outbox == null) {
+      return false;
+    }
+
+    int attempts = outbox.getAttempts() + 1;
+    outbox.setAttempts(attempts);
+    outbox.setLastError(error);
+    outbox.setClaimedAt(null);
+
+    if (attempts >= maxAttempts) {
+      outbox.setStatus(EmailOutbox.Status.FAILED);
+      log.error("Giving up on {} email to {} after {} attempts: {}",
+        outbox.getType(), outbox.getRecipient(), attempts, error);
+      return true;
+    }
+
+    Duration delay = backoff(attempts);
+    outbox.setStatus(EmailOutbox.Status.PENDING);
+    outbox.setNextAttemptAt(LocalDateTime.now().plus(delay));
+    log.warn("{} email to {} failed (attempt {}), retrying in {}s: {}",
+      outbox.getType(), outbox.getRecipient(), attempts, delay.toSeconds(), error);
+    return false;
+  }
+
+  public void defer(Long id, Duration delay) {
+    emailOutboxRepository.findById(id).ifPresent(outbox -> {
+      outbox.setStatus(EmailOutbox.Status.PENDING);
+      outbox.setClaimedAt(null);
+      outbox.setNextAttemptAt(LocalDateTime.now().plus(delay));
+    });
+  }
+
+  public int releaseStaleClaims(Duration olderThan) {
+    int released = emailOutboxRepository.releaseStaleClaims(
+      EmailOutbox.Status.PENDING, EmailOutbox.Status.SENDING, LocalDateTime.now().minus(olderThan));
+    if (released > 0) {
+      log.warn("Released {} outbox emails left claimed for more than {} minutes", released, olderThan.toMinutes());
+    }
+    return released;
+  }
+
+  private static EmailOutbox toOutbox(OutgoingEmail email, Duration delay) {
+    EmailOutbox outbox = new EmailOutbox();
+    outbox.setUser(email.getUser());
+    outbox.setRecipient(email.getTo());
+    outbox.setSubject(email.getSubject());
+    outbox.setBody(email.getHtmlContent());
+    outbox.setType(email.getType());
+    outbox.setNextAttemptAt(LocalDateTime.now().plus(delay));
+    return outbox;
+  }
+
+  Duration backoff(int attempts) {
+    long seconds = initialBackoffSeconds << Math.min(attempts - 1, 20);
+    return Duration.ofSeconds(Math.min(seconds, maxBackoffSeconds));
+  }
+}
@@ -2,19 +2,40 @@ package com.example.financial_tracker.service;
 
 import com.example.financial_tracker.entity.EmailQuota;
 import com.example.financial_tracker.repository.EmailQuotaRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Hourly, daily and monthly email quota.
+ *
+ * <p>In local mode the counters live in memory, are advanced with CAS and are
+ * flushed to {@code email_quota} in the background. In shared mode every node
+ * leases a block of tokens from {@code email_quota} with one conditional UPDATE
+ * and hands them out locally, so the limits hold across the cluster.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class EmailQuotaService {
 
   private final EmailQuotaRepository emailQuotaRepository;
@@ -31,55 +52,188 @@ public class EmailQuotaService {
   @Value("${app.mail.quota.hourly-limit}")
   private int hourlyLimit;
 
-  public synchronized boolean canSendEmail() {
+  @Value("${app.mail.quota.shared:false}")
+  private boolean shared;
+
+  @Value("${app.mail.quota.reserve-size:10}")
+  private int reserveSize;
+
+  private Clock clock = Clock.systemDefaultZone();
+
+  private final AtomicReference<Usage> usage = new AtomicReference<>(Usage.EMPTY);
+  private final ConcurrentMap<LocalDate, LongAdder> unflushed = new ConcurrentHashMap<>();
+  private final AtomicReference<Lease> lease = new AtomicReference<>();
+  private final ReentrantLock leaseLock = new ReentrantLock();
+
+  public boolean tryAcquire() {
     if (!quotaEnabled) {
       return true;
     }
+    return shared ? tryAcquireShared() : tryAcquireLocal();
+  }
 
-    LocalDate today = LocalDate.now();
-    EmailQuota quota = getCurrentQuota(today);
+  public void release() {
+    if (!quotaEnabled) {
+      return;
+    }
+    if (shared) {
+      Lease current = lease.get();
+      if (current != null && current.hour.equals(currentHour())) {
+        current.remaining.incrementAndGet();
+      } else {
+        LocalDateTime hour = currentHour();
+        emailQuotaRepository.release(hour.toLocalDate(), hour, 1);
+      }
+      return;
+    }
+
+    Usage current;
+    do {
+      current = usage.get();
+    } while (!usage.compareAndSet(current, current.minusOne()));
+    unflushed.computeIfAbsent(current.hour.toLocalDate(), date -> new LongAdder()).decrement();
+  }
 
-    if (quota.getDailyCount() >= dailyLimit) {
-      log.warn("Daily email limit reached: {}/{}", quota.getDailyCount(), dailyLimit);
-      return false;
+  private boolean tryAcquireLocal() {
+    LocalDateTime hour = currentHour();
+    while (true) {
+      Usage current = usage.get();
+      Usage rolled = current.at(hour);
+      if (rolled.hourly >= hourlyLimit) {
+        log.warn("Hourly email limit reached: {}/{}", rolled.hourly, hourlyLimit);
+        return false;
+      }
+      if (rolled.daily >= dailyLimit) {
+        log.warn("Daily email limit reached: {}/{}", rolled.daily, dailyLimit);
+        return false;
+      }
+      if (rolled.monthly >= monthlyLimit) {
+        log.warn("Monthly email limit reached: {}/{}", rolled.monthly, monthlyLimit);
+        return false;
+      }
+      if (usage.compareAndSet(current, rolled.plusOne())) {
+        unflushed.computeIfAbsent(rolled.hour.toLocalDate(), date -> new LongAdder()).increment();
+        return true;
+      }
     }
+  }
 
-    YearMonth currentMonth = YearMonth.from(today);
-    LocalDate monthStart = currentMonth.atDay(1);
-    LocalDate monthEnd = currentMonth.atEndOfMonth();
+  private boolean tryAcquireShared() {
+    LocalDateTime hour = currentHour();
+    while (true) {
+      Lease current = lease.get();
+      if (current != null && current.hour.equals(hour) && current.tryTake()) {
+        return true;
+      }
+      if (!refillLease(current, hour)) {
+        return false;
+      }
+    }
+  }
+
+  private boolean refillLease(Lease stale, LocalDateTime hour) {
+    leaseLock.lock();
+    try {
+      if (lease.get() != stale) {
+        return true;
+      }
+      if (stale != null) {
+        returnUnused(stale);
+      }
 
-    Integer monthlyCount = emailQuotaRepository.getMonthlyCount(monthStart, monthEnd);
-    if (monthlyCount >= monthlyLimit) {
-      log.warn("Monthly email limit reached: {}/{}", monthlyCount, monthlyLimit);
-      return false;
+      int granted = reserve(hour, reserveSize);
+      if (granted == 0) {
+        lease.set(null);
+        log.warn("Email quota exhausted (hourly {}, daily {}, monthly {})", hourlyLimit, dailyLimit, monthlyLimit);
+        return false;
+      }
+      lease.set(new Lease(hour, granted));
+      log.debug("Reserved {} email tokens for {}", granted, hour);
+      return true;
+    } finally {
+      leaseLock.unlock();
     }
+  }
 
-    return true;
+  private int reserve(LocalDateTime hour, int count) {
+    if (reserveTokens(hour, count)) {
+      return count;
+    }
+    return count > 1 && reserveTokens(hour, 1) ? 1 : 0;
   }
 
-  public synchronized void incrementQuota() {
-    if (!quotaEnabled) {
-      return;
+  private boolean reserveTokens(LocalDateTime hour, int count) {
+    LocalDate date = hour.toLocalDate();
+    int updated = emailQuotaRepository.reserve(date, hour, count, hourlyLimit, dailyLimit, monthlyLimit);
+    if (updated == 0 && !emailQuotaRepository.existsByDate(date)) {
+      createQuotaRow(date);
+      updated = emailQuotaRepository.reserve(date, hour, count, hourlyLimit, dailyLimit, monthlyLimit);
     }
+    return updated > 0;
+  }
+
+  private void returnUnused(Lease stale) {
+    int unused = stale.remaining.getAndSet(0);
+    if (unused > 0) {
+      emailQuotaRepository.release(stale.hour.toLocalDate(), stale.hour, unused);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${app.mail.quota.flush-interval-ms:10000}")
+  public void flush() {
+    LocalDate cutoff = LocalDate.now(clock).minusDays(1);
+    for (Map.Entry<LocalDate, LongAdder> entry : unflushed.entrySet()) {
+      long delta = entry.getValue().sumThenReset();
+      if (delta != 0) {
+        try {
+          persist(entry.getKey(), (int) delta);
+        } catch (RuntimeException e) {
+          entry.getValue().add(delta);
+          log.error("Failed to flush {} email quota entries for {}", delta, entry.getKey(), e);
+          continue;
+        }
+      }
+      if (entry.getKey().isBefore(cutoff)) {
+        unflushed.remove(entry.getKey(), entry.getValue());
+      }
+    }
+  }
 
-    LocalDate today = LocalDate.now();
-    EmailQuota quota = getCurrentQuota(today);
+  private void persist(LocalDate date, int delta) {
+    if (emailQuotaRepository.addSent(date, delta) == 0) {
+      createQuotaRow(date);
+      emailQuotaRepository.addSent(date, delta);
+    }
+  }
 
-    quota.setDailyCount(quota.getDailyCount() + 1);
-    quota.setMonthlyCount(quota.getMonthlyCount() + 1);
-    emailQuotaRepository.save(quota);
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadUsage() {
+    if (!quotaEnabled || shared) {
+      return;
+    }
+    LocalDateTime hour = currentHour();
+    LocalDate today = hour.toLocalDate();
+    YearMonth currentMonth = YearMonth.from(today);
 
-    log.debug("Email quota updated - Daily: {}/{}, Monthly: {}/{}",
-      quota.getDailyCount(), dailyLimit,
-      quota.getMonthlyCount(), monthlyLimit);
+    long daily = emailQuotaRepository.findByDate(today).map(EmailQuota::getDailyCount).orElse(0);
+    long monthly = emailQuotaRepository.getMonthlyCount(currentMonth.atDay(1), currentMonth.atEndOfMonth());
+    usage.set(new Usage(hour, 0, daily, monthly));
+    log.info("Email quota loaded - Daily: {}/{}, Monthly: {}/{}", daily, dailyLimit, monthly, monthlyLimit);
   }
 
-  private EmailQuota getCurrentQuota(LocalDate date) {
-    return emailQuotaRepository.findByDate(date)
-      .orElseGet(() -> createNewQuota(date));
+  @PreDestroy
+  public void shutdown() {
+    if (shared) {
+      Lease current = lease.getAndSet(null);
+      if (current != null) {
+        returnUnused(current);
+      }
+    } else {
+      flush();
+    }
   }
 
-  private EmailQuota createNewQuota(LocalDate date) {
+  private void createQuotaRow(LocalDate date) {
     EmailQuota quota = new EmailQuota();
     quota.setDate(date);
 
@@ -90,31 +244,111 @@ public class EmailQuotaService {
       quota.setMonthlyCount(monthlyCount != null ? monthlyCount : 0);
     }
 
-    return emailQuotaRepository.save(quota);
+    try {
+      emailQuotaRepository.save(quota);
+    } catch (DataIntegrityViolationException e) {
+      log.debug("Email quota row for {} was created concurrently", date);
+    }
+  }
+
+  private LocalDateTime currentHour() {
+    return LocalDateTime.now(clock).truncatedTo(ChronoUnit.HOURS);
   }
 
   public EmailQuotaStatus getQuotaStatus() {
-    LocalDate today = LocalDate.now();
-    EmailQuota quota = getCurrentQuota(today);
+    LocalDateTime hour = currentHour();
+    LocalDate today = hour.toLocalDate();
 
-    YearMonth currentMonth = YearMonth.from(today);
-    LocalDate monthStart = currentMonth.atDay(1);
-    LocalDate monthEnd = currentMonth.atEndOfMonth();
-    Integer monthlyCount = emailQuotaRepository.getMonthlyCount(monthStart, monthEnd);
+    long hourly;
+    long daily;
+    long monthly;
+    if (shared) {
+      EmailQuota quota = emailQuotaRepository.findByDate(today).orElseGet(EmailQuota::new);
+      YearMonth currentMonth = YearMonth.from(today);
+      hourly = hour.equals(quota.getHourStart()) ? quota.getHourlyCount() : 0;
+      daily = quota.getDailyCount();
+      monthly = emailQuotaRepository.getMonthlyCount(currentMonth.atDay(1), currentMonth.atEndOfMonth());
+    } else {
+      Usage current = usage.get().at(hour);
+      hourly = current.hourly;
+      daily = current.daily;
+      monthly = current.monthly;
+    }
 
     return EmailQuotaStatus.builder()
-      .dailySent(quota.getDailyCount())
+      .hourlySent((int) hourly)
+      .hourlyLimit(hourlyLimit)
+      .hourlyRemaining((int) Math.max(0, hourlyLimit - hourly))
+      .dailySent((int) daily)
       .dailyLimit(dailyLimit)
-      .dailyRemaining(Math.max(0, dailyLimit - quota.getDailyCount()))
-      .monthlySent(monthlyCount)
+      .dailyRemaining((int) Math.max(0, dailyLimit - daily))
+      .monthlySent((int) monthly)
       .monthlyLimit(monthlyLimit)
-      .monthlyRemaining(Math.max(0, monthlyLimit - monthlyCount))
+      .monthlyRemaining((int) Math.max(0, monthlyLimit - monthly))
       .build();
   }
 
+  private static final class Usage {
+    private static final Usage EMPTY = new Usage(LocalDateTime.MIN, 0, 0, 0);
+
+    private final LocalDateTime hour;
+    private final long hourly;
+    private final long daily;
+    private final long monthly;
+
+    Usage(LocalDateTime hour, long hourly, long daily, long monthly) {
+      this.hour = hour;
+      this.hourly = hourly;
+      this.daily = daily;
+      this.monthly = monthly;
+    }
+
+    Usage at(LocalDateTime now) {
+      // a thread that read the clock just before a rollover must not undo it
+      if (!now.isAfter(hour)) {
+        return this;
+      }
+      boolean sameDay = now.toLocalDate().equals(hour.toLocalDate());
+      boolean sameMonth = sameDay || YearMonth.from(now).equals(YearMonth.from(hour));
+      return new Usage(now, 0, sameDay ? daily : 0, sameMonth ? monthly : 0);
+    }
+
+    Usage plusOne() {
+      return new Usage(hour, hourly + 1, daily + 1, monthly + 1);
+    }
+
+    Usage minusOne() {
+      return new Usage(hour, Math.max(0, hourly - 1), Math.max(0, daily - 1), Math.max(0, monthly - 1));
+    }
+  }
+
+  private static final class Lease {
+    private final LocalDateTime hour;
+    private final AtomicInteger remaining;
+
+    Lease(LocalDateTime hour, int tokens) {
+      this.hour = hour;
+      this.remaining = new AtomicInteger(tokens);
+    }
+
+    boolean tryTake() {
+      int left;
+      do {
+        left = remaining.get();
+        if (left <= 0) {
+          return false;
+        }
+      } while (!remaining.compareAndSet(left, left - 1));
+      return true;
+    }
+  }
+
   @lombok.Builder
   @lombok.Data
   public static class EmailQuotaStatus {
+    private Integer hourlySent;
+    private Integer hourlyLimit;
+    private Integer hourlyRemaining;
     private Integer dailySent;
     private Integer dailyLimit;
     private Integer dailyRemaining;
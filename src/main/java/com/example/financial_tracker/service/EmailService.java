@@ -1,21 +1,19 @@
 package com.example.financial_tracker.service;
 
 import com.example.financial_tracker.dto.MonthlyReportDTO;
+import com.example.financial_tracker.dto.OutgoingEmail;
 import com.example.financial_tracker.dto.WeeklyReportDTO;
 import com.example.financial_tracker.entity.EmailHistory;
 import com.example.financial_tracker.entity.RecurringTransaction;
 import com.example.financial_tracker.entity.User;
-import com.example.financial_tracker.repository.EmailHistoryRepository;
 import com.example.financial_tracker.repository.TransactionRepository;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
@@ -23,7 +21,6 @@ import org.thymeleaf.context.Context;
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
@@ -35,8 +32,7 @@ public class EmailService {
 
   private final JavaMailSender mailSender;
   private final TemplateEngine templateEngine;
-  private final EmailHistoryRepository emailHistoryRepository;
-  private final EmailQuotaService emailQuotaService;
+  private final EmailOutboxService emailOutboxService;
   private final TransactionRepository transactionRepository;
 
   @Value("${app.mail.from}")
@@ -48,86 +44,41 @@ public class EmailService {
   @Value("${app.mail.base-url}")
   private String baseUrl;
 
-  @Value("${spring.mail.host}")
-  private String mailHost;
-
-  @Value("${spring.mail.port}")
-  private int mailPort;
-
-  @Async
   public void sendEmail(String to, String subject, String template,
                         Map<String, Object> variables, EmailHistory.EmailType type, User user) {
 
-    log.info("=== STARTING EMAIL SEND ===");
-    log.info("Mail server: {}:{}", mailHost, mailPort);
-    log.info("To: {}", to);
-    log.info("Subject: {}", subject);
-    log.info("Type: {}", type);
-    log.info("From: {} <{}>", fromName, fromEmail);
+    emailOutboxService.enqueue(OutgoingEmail.builder()
+      .to(to)
+      .subject(subject)
+      .htmlContent(renderTemplate(template, variables))
+      .type(type)
+      .user(user)
+      .build());
 
-    EmailHistory history = createEmailHistory(to, subject, type, user);
+    log.debug("Queued {} email to: {}", type, to);
+  }
 
-    if (!emailQuotaService.canSendEmail()) {
-      log.error("Email quota exceeded");
-      history.setStatus(EmailHistory.EmailStatus.QUOTA_EXCEEDED);
-      emailHistoryRepository.save(history);
-      return;
-    }
+  public String renderTemplate(String template, Map<String, Object> variables) {
+    Context context = new Context();
+    context.setVariables(variables);
+    context.setVariable("baseUrl", baseUrl);
+    return templateEngine.process("emails/" + template, context);
+  }
 
-    try {
-      log.info("Creating MimeMessage...");
-      MimeMessage message = mailSender.createMimeMessage();
-      MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-      helper.setFrom(fromEmail, fromName);
-      helper.setTo(to);
-      helper.setSubject(subject);
-
-      log.info("Processing template: {}", template);
-      Context context = new Context();
-      context.setVariables(variables);
-      context.setVariable("baseUrl", baseUrl);
-
-      String htmlContent = templateEngine.process("emails/" + template, context);
-      log.info("Template processed, content length: {}", htmlContent.length());
-
-      helper.setText(htmlContent, true);
-
-      log.info("Attempting to send email via JavaMailSender...");
-      mailSender.send(message);
-
-      log.info("✅ EMAIL SENT SUCCESSFULLY!");
-
-      emailQuotaService.incrementQuota();
-
-      history.setStatus(EmailHistory.EmailStatus.SENT);
-      history.setSentAt(LocalDateTime.now());
-
-    } catch (MailException e) {
-      log.error("❌ MailException: {}", e.getMessage(), e);
-      history.setStatus(EmailHistory.EmailStatus.FAILED);
-      history.setErrorMessage("Mail error: " + e.getMessage());
-    } catch (MessagingException e) {
-      log.error("❌ MessagingException: {}", e.getMessage(), e);
-      history.setStatus(EmailHistory.EmailStatus.FAILED);
-      history.setErrorMessage("Messaging error: " + e.getMessage());
-    } catch (UnsupportedEncodingException e) {
-      log.error("❌ UnsupportedEncodingException: {}", e.getMessage(), e);
-      history.setStatus(EmailHistory.EmailStatus.FAILED);
-      history.setErrorMessage("Encoding error: " + e.getMessage());
-    } catch (Exception e) {
-      log.error("❌ Unexpected error: {}", e.getMessage(), e);
-      history.setStatus(EmailHistory.EmailStatus.FAILED);
-      history.setErrorMessage("Unexpected error: " + e.getMessage());
-    }
+  public MimeMessage createMessage(String to, String subject, String htmlContent)
+    throws MessagingException, UnsupportedEncodingException {
+    MimeMessage message = mailSender.createMimeMessage();
+    MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
-    emailHistoryRepository.save(history);
-    log.info("Email history saved with status: {}", history.getStatus());
-    log.info("=== EMAIL SEND COMPLETE ===");
+    helper.setFrom(fromEmail, fromName);
+    helper.setTo(to);
+    helper.setSubject(subject);
+    helper.setText(htmlContent, true);
+    return message;
   }
 
-  private EmailHistory createEmailHistory(String to, String subject,
-                                          EmailHistory.EmailType type, User user) {
+  EmailHistory createEmailHistory(String to, String subject,
+                                  EmailHistory.EmailType type, User user) {
     EmailHistory history = new EmailHistory();
     history.setUser(user);
     history.setRecipient(to);
@@ -183,11 +134,7 @@ public class EmailService {
     );
   }
 
-  public void sendWeeklyReport(User user, WeeklyReportDTO report) {
-    if (!user.getNotificationSettings().getWeeklyReport()) {
-      return;
-    }
-
+  public OutgoingEmail prepareWeeklyReport(User user, WeeklyReportDTO report) {
     Map<String, Object> variables = Map.of(
       "userName", user.getName(),
       "report", report,
@@ -195,21 +142,16 @@ public class EmailService {
       "endDate", report.getEndDate()
     );
 
-    sendEmail(
-      user.getEmail(),
-      "Your Weekly Financial Summary",
-      "weekly-report",
-      variables,
-      EmailHistory.EmailType.WEEKLY_REPORT,
-      user
-    );
+    return OutgoingEmail.builder()
+      .to(user.getEmail())
+      .subject("Your Weekly Financial Summary")
+      .htmlContent(renderTemplate("weekly-report", variables))
+      .type(EmailHistory.EmailType.WEEKLY_REPORT)
+      .user(user)
+      .build();
   }
 
-  public void sendMonthlyReport(User user, MonthlyReportDTO report) {
-    if (!user.getNotificationSettings().getMonthlyReport()) {
-      return;
-    }
-
+  public OutgoingEmail prepareMonthlyReport(User user, MonthlyReportDTO report) {
     Map<String, Object> variables = Map.of(
       "userName", user.getName(),
       "report", report,
@@ -217,14 +159,13 @@ public class EmailService {
       "year", report.getYear()
     );
 
-    sendEmail(
-      user.getEmail(),
-      "Your Monthly Financial Report - " + getMonthName(report.getMonth()) + " " + report.getYear(),
-      "monthly-report",
-      variables,
-      EmailHistory.EmailType.MONTHLY_REPORT,
-      user
-    );
+    return OutgoingEmail.builder()
+      .to(user.getEmail())
+      .subject("Your Monthly Financial Report - " + getMonthName(report.getMonth()) + " " + report.getYear())
+      .htmlContent(renderTemplate("monthly-report", variables))
+      .type(EmailHistory.EmailType.MONTHLY_REPORT)
+      .user(user)
+      .build();
   }
 
   private String getMonthName(int month) {
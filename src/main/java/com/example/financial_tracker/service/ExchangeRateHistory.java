@@ -0,0 +1,159 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.enumerations.Currency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, time-indexed view of every stored rate. Each direct pair keeps its
+ * rates as parallel arrays sorted by {@code validFrom}; a lookup binary-searches
+ * for the rate in effect at the end of the requested day. Ingestion closes the
+ * previous rate at the new one's {@code validFrom}, so the start times alone
+ * delimit the intervals.
+ *
+ * <p>Lookups use the direct pair, then its inverse, then a cross through USD.
+ * Dates before the first known rate fall back to the earliest rate.
+ */
+public final class ExchangeRateHistory {
+
+  static final ExchangeRateHistory EMPTY = new ExchangeRateHistory(new Series[0], 0);
+
+  private static final int SCALE = 6;
+  private static final Currency PIVOT = Currency.USD;
+  private static final int CURRENCIES = Currency.values().length;
+
+  private final Series[] series;
+  private final int sourceRates;
+
+  private ExchangeRateHistory(Series[] series, int sourceRates) {
+    this.series = series;
+    this.sourceRates = sourceRates;
+  }
+
+  /**
+   * @param rows {@code [fromCurrency, toCurrency, rate, validFrom]} ordered by validFrom
+   */
+  public static ExchangeRateHistory build(List<Object[]> rows) {
+    List<List<Object[]>> byPair = new ArrayList<>(CURRENCIES * CURRENCIES);
+    for (int i = 0; i < CURRENCIES * CURRENCIES; i++) {
+      byPair.add(null);
+    }
+    for (Object[] row : rows) {
+      int index = index((Currency) row[0], (Currency) row[1]);
+      if (byPair.get(index) == null) {
+        byPair.set(index, new ArrayList<>());
+      }
+      byPair.get(index).add(row);
+    }
+
+    Series[] series = new Series[CURRENCIES * CURRENCIES];
+    for (int i = 0; i < series.length; i++) {
+      List<Object[]> pairRows = byPair.get(i);
+      if (pairRows != null) {
+        series[i] = Series.of(pairRows);
+      }
+    }
+    return new ExchangeRateHistory(series, rows.size());
+  }
+
+  /**
+   * @return the rate in effect on {@code date}, or {@code null} if the pair has never been quoted
+   */
+  public BigDecimal rate(Currency from, Currency to, LocalDate date) {
+    if (from == to) {
+      return BigDecimal.ONE;
+    }
+    long endOfDay = epochSecond(date.plusDays(1).atStartOfDay());
+    BigDecimal rate = directOrInverse(from, to, endOfDay);
+    if (rate != null || from == PIVOT || to == PIVOT) {
+      return rate;
+    }
+
+    BigDecimal toPivot = directOrInverse(from, PIVOT, endOfDay);
+    BigDecimal fromPivot = directOrInverse(PIVOT, to, endOfDay);
+    if (toPivot == null || fromPivot == null) {
+      return null;
+    }
+    return toPivot.multiply(fromPivot).setScale(SCALE, RoundingMode.HALF_UP);
+  }
+
+  /**
+   * @return {@code amount} converted at the rate of {@code date}, or {@code null} if no rate is known
+   */
+  public BigDecimal convert(BigDecimal amount, Currency from, Currency to, LocalDate date) {
+    if (from == to) {
+      return amount;
+    }
+    BigDecimal rate = rate(from, to, date);
+    return rate == null ? null : amount.multiply(rate).setScale(to.getDecimalPlaces(), RoundingMode.HALF_UP);
+  }
+
+  public int getSourceRates() {
+    return sourceRates;
+  }
+
+  public boolean isEmpty() {
+    return sourceRates == 0;
+  }
+
+  private BigDecimal directOrInverse(Currency from, Currency to, long before) {
+    BigDecimal direct = lookup(from, to, before);
+    if (direct != null) {
+      return direct;
+    }
+    BigDecimal inverse = lookup(to, from, before);
+    return inverse == null || inverse.signum() == 0
+      ? null
+      : BigDecimal.ONE.divide(inverse, SCALE, RoundingMode.HALF_UP);
+  }
+
+  private BigDecimal lookup(Currency from, Currency to, long before) {
+    if (series.length == 0) {
+      return null;
+    }
+    Series pair = series[index(from, to)];
+    return pair == null ? null : pair.rateBefore(before);
+  }
+
+  private static int index(Currency from, Currency to) {
+    return from.ordinal() * CURRENCIES + to.ordinal();
+  }
+
+  private static long epochSecond(LocalDateTime dateTime) {
+    return dateTime.toEpochSecond(ZoneOffset.UTC);
+  }
+
+  private static final class Series {
+    private final long[] validFrom;
+    private final BigDecimal[] rates;
+
+    private Series(long[] validFrom, BigDecimal[] rates) {
+      this.validFrom = validFrom;
+      this.rates = rates;
+    }
+
+    static Series of(List<Object[]> rows) {
+      long[] validFrom = new long[rows.size()];
+      BigDecimal[] rates = new BigDecimal[rows.size()];
+      for (int i = 0; i < rows.size(); i++) {
+        rates[i] = (BigDecimal) rows.get(i)[2];
+        validFrom[i] = epochSecond((LocalDateTime) rows.get(i)[3]);
+      }
+      return new Series(validFrom, rates);
+    }
+
+    /** Latest rate that started strictly before {@code instant}, else the earliest one. */
+    BigDecimal rateBefore(long instant) {
+      int found = Arrays.binarySearch(validFrom, instant);
+      int last = (found >= 0 ? found : -found - 1) - 1;
+      return rates[Math.max(last, 0)];
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.enumerations.Currency;
+import com.example.financial_tracker.repository.ExchangeRateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ExchangeRateIngestionService {
+
+  private static final String INSERT_SQL = "INSERT INTO exchange_rates " +
+    "(from_currency, to_currency, rate, valid_from, source, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+  private final ExchangeRateRepository exchangeRateRepository;
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Closes the open rates being replaced with one UPDATE per base currency and
+   * inserts all new rates in a single JDBC batch.
+   *
+   * @return number of rates inserted
+   */
+  public int store(Map<Currency, Map<Currency, BigDecimal>> ratesByBase, String source, LocalDateTime validFrom) {
+    Timestamp timestamp = Timestamp.valueOf(validFrom);
+    List<Object[]> rows = new ArrayList<>();
+
+    ratesByBase.forEach((base, rates) -> {
+      if (rates.isEmpty()) {
+        return;
+      }
+      int closed = exchangeRateRepository.closeOpenRates(base, rates.keySet(), validFrom);
+      log.debug("Closed {} open {} rates", closed, base);
+      rates.forEach((to, rate) -> rows.add(new Object[]{base.name(), to.name(), rate, timestamp, source, timestamp}));
+    });
+
+    if (!rows.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+    return rows.size();
+  }
+}
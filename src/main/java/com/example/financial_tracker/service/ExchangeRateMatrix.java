@@ -0,0 +1,104 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.entity.ExchangeRate;
+import com.example.financial_tracker.enumerations.Currency;
+import com.example.financial_tracker.exception.BusinessLogicException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable snapshot of every currency pair, indexed by {@link Currency#ordinal()}.
+ * Pairs are filled from direct rates first, then inverses of direct rates, then
+ * crosses through USD.
+ */
+public final class ExchangeRateMatrix {
+
+  static final ExchangeRateMatrix EMPTY = new ExchangeRateMatrix(new BigDecimal[0][0], LocalDateTime.MIN, 0);
+
+  private static final int SCALE = 6;
+  private static final Currency PIVOT = Currency.USD;
+
+  private final BigDecimal[][] rates;
+  private final LocalDateTime builtAt;
+  private final int sourceRates;
+
+  private ExchangeRateMatrix(BigDecimal[][] rates, LocalDateTime builtAt, int sourceRates) {
+    this.rates = rates;
+    this.builtAt = builtAt;
+    this.sourceRates = sourceRates;
+  }
+
+  /**
+   * @param currentRates rates valid now, ordered by validFrom so the latest one wins
+   */
+  public static ExchangeRateMatrix build(List<ExchangeRate> currentRates, LocalDateTime builtAt) {
+    int n = Currency.values().length;
+    BigDecimal[][] rates = new BigDecimal[n][n];
+
+    for (ExchangeRate rate : currentRates) {
+      rates[rate.getFromCurrency().ordinal()][rate.getToCurrency().ordinal()] = rate.getRate();
+    }
+
+    BigDecimal[][] direct = new BigDecimal[n][];
+    for (int i = 0; i < n; i++) {
+      direct[i] = rates[i].clone();
+    }
+    for (int from = 0; from < n; from++) {
+      for (int to = 0; to < n; to++) {
+        if (rates[from][to] == null && direct[to][from] != null && direct[to][from].signum() != 0) {
+          rates[from][to] = BigDecimal.ONE.divide(direct[to][from], SCALE, RoundingMode.HALF_UP);
+        }
+      }
+    }
+
+    int pivot = PIVOT.ordinal();
+    for (int from = 0; from < n; from++) {
+      for (int to = 0; to < n; to++) {
+        if (from == to) {
+          rates[from][to] = BigDecimal.ONE;
+        } else if (rates[from][to] == null && rates[from][pivot] != null && rates[pivot][to] != null) {
+          rates[from][to] = rates[from][pivot].multiply(rates[pivot][to]).setScale(SCALE, RoundingMode.HALF_UP);
+        }
+      }
+    }
+
+    return new ExchangeRateMatrix(rates, builtAt, currentRates.size());
+  }
+
+  public BigDecimal rate(Currency from, Currency to) {
+    if (from == to) {
+      return BigDecimal.ONE;
+    }
+    BigDecimal rate = rates.length == 0 ? null : rates[from.ordinal()][to.ordinal()];
+    if (rate == null) {
+      throw new BusinessLogicException("Exchange rate not found for " + from + " to " + to);
+    }
+    return rate;
+  }
+
+  public boolean hasRate(Currency from, Currency to) {
+    return from == to || (rates.length > 0 && rates[from.ordinal()][to.ordinal()] != null);
+  }
+
+  public BigDecimal convert(BigDecimal amount, Currency from, Currency to) {
+    if (from == to) {
+      return amount;
+    }
+    return amount.multiply(rate(from, to)).setScale(to.getDecimalPlaces(), RoundingMode.HALF_UP);
+  }
+
+  public LocalDateTime getBuiltAt() {
+    return builtAt;
+  }
+
+  public int getSourceRates() {
+    return sourceRates;
+  }
+
+  public boolean isEmpty() {
+    return sourceRates == 0;
+  }
+}
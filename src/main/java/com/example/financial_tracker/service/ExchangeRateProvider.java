@@ -0,0 +1,19 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.enumerations.Currency;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Source of current exchange rates. Selected with {@code app.currency.provider}.
+ */
+public interface ExchangeRateProvider {
+
+  String getName();
+
+  /**
+   * @return rates from {@code base} to every supported currency the source knows, excluding {@code base} itself
+   */
+  Map<Currency, BigDecimal> fetchRates(Currency base);
+}
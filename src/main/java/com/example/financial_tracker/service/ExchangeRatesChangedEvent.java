@@ -0,0 +1,8 @@
+package com.example.financial_tracker.service;
+
+/**
+ * This node loaded a different set of exchange rates. Converted amounts for any
+ * date may have changed, including closed months.
+ */
+public class ExchangeRatesChangedEvent {
+}
@@ -0,0 +1,46 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.enumerations.Currency;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Reads rates from a JSON file shaped like {@code {"USD": {"EUR": 0.92, ...}, ...}},
+ * for offline runs and tests.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.currency.provider", havingValue = "file")
+public class FileExchangeRateProvider implements ExchangeRateProvider {
+
+  private final ObjectMapper objectMapper;
+
+  @Value("${app.currency.rates-file}")
+  private Resource ratesFile;
+
+  @Override
+  public String getName() {
+    return "FILE";
+  }
+
+  @Override
+  public Map<Currency, BigDecimal> fetchRates(Currency base) {
+    try (InputStream in = ratesFile.getInputStream()) {
+      Map<String, Map<String, BigDecimal>> rates = objectMapper.readValue(in, new TypeReference<>() {});
+      return ApiExchangeRateProvider.toCurrencyMap(base, rates.getOrDefault(base.name(), Map.of()));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read exchange rates from " + ratesFile, e);
+    }
+  }
+}
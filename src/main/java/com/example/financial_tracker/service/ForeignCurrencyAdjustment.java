@@ -0,0 +1,91 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.enumerations.Currency;
+import com.example.financial_tracker.enumerations.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Corrections for transactions recorded in a currency other than the user's default.
+ * Aggregate queries sum raw amounts; adding the matching delta here turns those sums
+ * into amounts in the default currency, each converted at the rate of its own date.
+ */
+public final class ForeignCurrencyAdjustment {
+
+  static final ForeignCurrencyAdjustment NONE = new ForeignCurrencyAdjustment(List.of());
+
+  private final List<Delta> deltas;
+
+  private ForeignCurrencyAdjustment(List<Delta> deltas) {
+    this.deltas = deltas;
+  }
+
+  /**
+   * @param rows {@code [currency, date, type, categoryId, SUM(amount)]} for foreign-currency transactions
+   * @return adjustment in {@code target}; rows whose pair has no known rate are left unconverted
+   */
+  public static ForeignCurrencyAdjustment of(List<Object[]> rows, Currency target, ExchangeRateHistory history) {
+    if (rows.isEmpty()) {
+      return NONE;
+    }
+    List<Delta> deltas = new ArrayList<>(rows.size());
+    for (Object[] row : rows) {
+      BigDecimal raw = (BigDecimal) row[4];
+      BigDecimal converted = history.convert(raw, (Currency) row[0], target, (LocalDate) row[1]);
+      if (converted != null) {
+        deltas.add(new Delta((LocalDate) row[1], (TransactionType) row[2], (Long) row[3], converted.subtract(raw)));
+      }
+    }
+    return new ForeignCurrencyAdjustment(deltas);
+  }
+
+  public BigDecimal total(TransactionType type) {
+    return total(type, null, null, null);
+  }
+
+  public BigDecimal total(TransactionType type, LocalDate startDate, LocalDate endDate) {
+    return total(type, null, startDate, endDate);
+  }
+
+  public BigDecimal forCategory(Long categoryId, TransactionType type, LocalDate startDate, LocalDate endDate) {
+    return total(type, categoryId, startDate, endDate);
+  }
+
+  public BigDecimal balance() {
+    return total(TransactionType.INCOME).subtract(total(TransactionType.EXPENSE));
+  }
+
+  public boolean isEmpty() {
+    return deltas.isEmpty();
+  }
+
+  private BigDecimal total(TransactionType type, Long categoryId, LocalDate startDate, LocalDate endDate) {
+    BigDecimal sum = BigDecimal.ZERO;
+    for (Delta delta : deltas) {
+      if (delta.type == type
+        && (categoryId == null || categoryId.equals(delta.categoryId))
+        && (startDate == null || !delta.date.isBefore(startDate))
+        && (endDate == null || !delta.date.isAfter(endDate))) {
+        sum = sum.add(delta.amount);
+      }
+    }
+    return sum;
+  }
+
+  private static final class Delta {
+    private final LocalDate date;
+    private final TransactionType type;
+    private final Long categoryId;
+    private final BigDecimal amount;
+
+    Delta(LocalDate date, TransactionType type, Long categoryId, BigDecimal amount) {
+      this.date = date;
+      this.type = type;
+      this.categoryId = categoryId;
+      this.amount = amount;
+    }
+  }
+}
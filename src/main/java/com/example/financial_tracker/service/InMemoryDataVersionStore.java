@@ -0,0 +1,29 @@
+package com.example.financial_tracker.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-node {@link DataVersionStore}. Counters start at the boot time in
+ * milliseconds, so versions handed out before a restart are never reused.
+ */
+@Service
+public class InMemoryDataVersionStore implements DataVersionStore {
+
+  private final long epoch = System.currentTimeMillis();
+  private final ConcurrentMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+  @Override
+  public long currentVersion(Long userId) {
+    AtomicLong version = versions.get(userId);
+    return version != null ? version.get() : epoch;
+  }
+
+  @Override
+  public long bump(Long userId) {
+    return versions.computeIfAbsent(userId, id -> new AtomicLong(epoch)).incrementAndGet();
+  }
+}
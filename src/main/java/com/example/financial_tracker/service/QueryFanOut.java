@@ -0,0 +1,214 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.datasource.DataOwnerContext;
+import com.example.financial_tracker.datasource.QueryCancellation;
+import com.example.financial_tracker.datasource.Workload;
+import com.example.financial_tracker.datasource.WorkloadContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent sub-queries of a composite response concurrently. Each fork
+ * gets its own read-only transaction on a bounded executor and inherits the caller's
+ * workload, data owner, security context and query cancellation. Forks of the
+ * reporting workload run on the {@code reportingFanOutExecutor}, which has one thread
+ * per reporting connection, so they cannot hold the threads interactive forks need
+ * while they wait for a connection. All forks of a scope share one deadline:
+ * transaction timeouts count down to it, and forks still running when it passes, or
+ * when a sibling fails, are cancelled.
+ * <p>
+ * Callers should not hold a transaction of their own while forks run, or every
+ * request pins one idle connection on top of the forks' connections. With
+ * open-in-view off, a caller outside a transaction holds no connection, and a fork
+ * the executor hands back to it opens its own.
+ */
+@Slf4j
+@Component
+public class QueryFanOut {
+
+  private static final ThreadLocal<Boolean> INLINE = new ThreadLocal<>();
+
+  private final PlatformTransactionManager transactionManager;
+  private final Executor fanOutExecutor;
+  private final Executor reportingFanOutExecutor;
+  private final MeterRegistry meterRegistry;
+  private final boolean parallel;
+  private final Duration deadline;
+
+  public QueryFanOut(PlatformTransactionManager transactionManager,
+                     @Qualifier("fanOutExecutor") Executor fanOutExecutor,
+                     @Qualifier("reportingFanOutExecutor") Executor reportingFanOutExecutor,
+                     MeterRegistry meterRegistry,
+                     @Value("${app.db.fan-out.parallel:true}") boolean parallel,
+                     @Value("${app.db.fan-out.deadline:20s}") Duration deadline) {
+    this.transactionManager = transactionManager;
+    this.fanOutExecutor = fanOutExecutor;
+    this.reportingFanOutExecutor = reportingFanOutExecutor;
+    this.meterRegistry = meterRegistry;
+    this.parallel = parallel;
+    this.deadline = deadline;
+  }
+
+  /**
+   * Runs {@code work} with every scope it opens forking inline, for background work
+   * that must not take fan-out threads from live requests.
+   */
+  public static <V> V inline(Callable<V> work) throws Exception {
+    if (INLINE.get() != null) {
+      return work.call();
+    }
+    INLINE.set(Boolean.TRUE);
+    try {
+      return work.call();
+    } finally {
+      INLINE.remove();
+    }
+  }
+
+  /**
+   * @param operation name of the composite response, used as the timer tag
+   */
+  public Scope open(String operation) {
+    return new Scope(operation);
+  }
+
+  public final class Scope implements AutoCloseable {
+    private final String operation;
+    private final long startNanos = System.nanoTime();
+    private final long deadlineNanos = startNanos + deadline.toNanos();
+    private final boolean concurrent = parallel && INLINE.get() == null;
+    private final Executor executor =
+      WorkloadContext.current() == Workload.REPORTING ? reportingFanOutExecutor : fanOutExecutor;
+    private final QueryCancellation cancellation = QueryCancellation.fork();
+    private final List<CompletableFuture<?>> futures = new ArrayList<>();
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+    private boolean joined;
+
+    private Scope(String operation) {
+      this.operation = operation;
+    }
+
+    /**
+     * Starts {@code query} in its own read-only transaction. In sequential mode, or
+     * inside {@link #inline}, it runs right away on the calling thread.
+     */
+    public <T> Fork<T> fork(Supplier<T> query) {
+      if (!concurrent) {
+        return new Fork<>(CompletableFuture.completedFuture(inTransaction(query)));
+      }
+
+      Callable<T> task = DelegatingSecurityContextCallable.create(
+        DataOwnerContext.propagate(WorkloadContext.propagate(() -> cancellation.call(() -> inTransaction(query)))),
+        SecurityContextHolder.getContext());
+      CompletableFuture<T> future = new CompletableFuture<>();
+      futures.add(future);
+      executor.execute(() -> {
+        try {
+          future.complete(task.call());
+        } catch (Throwable t) {
+          if (firstFailure.compareAndSet(null, t)) {
+            cancellation.cancel("sibling failed");
+          }
+          future.completeExceptionally(t);
+        }
+      });
+      return new Fork<>(future);
+    }
+
+    /**
+     * Waits for every fork, up to the scope's deadline.
+     *
+     * @throws QueryTimeoutException if the deadline passes first
+     */
+    public void join() {
+      joined = true;
+      if (futures.isEmpty()) {
+        return;
+      }
+      try {
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+          .get(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        cancellation.cancel("deadline");
+        throw new QueryTimeoutException(operation + " did not complete within " + deadline);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        cancellation.cancel("interrupted");
+        throw new QueryTimeoutException(operation + " was interrupted");
+      } catch (ExecutionException e) {
+        throw rethrow(firstFailure.get() != null ? firstFailure.get() : e.getCause());
+      }
+    }
+
+    @Override
+    public void close() {
+      if (!joined || firstFailure.get() != null) {
+        cancellation.cancel("abandoned");
+      }
+      Timer.builder("app.fan-out.duration")
+        .description("Wall time of composite responses assembled from sub-queries")
+        .tag("operation", operation)
+        .tag("mode", concurrent ? "parallel" : "sequential")
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private <T> T inTransaction(Supplier<T> query) {
+      long remainingNanos = deadlineNanos - System.nanoTime();
+      if (remainingNanos <= 0) {
+        throw new QueryTimeoutException(operation + " did not complete within " + deadline);
+      }
+      TransactionTemplate template = new TransactionTemplate(transactionManager);
+      template.setReadOnly(true);
+      template.setTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos)));
+      return template.execute(status -> query.get());
+    }
+  }
+
+  public static final class Fork<T> {
+    private final CompletableFuture<T> future;
+
+    private Fork(CompletableFuture<T> future) {
+      this.future = future;
+    }
+
+    /**
+     * @return the fork's result; only valid after {@link Scope#join()}
+     */
+    public T get() {
+      return future.join();
+    }
+  }
+
+  private static RuntimeException rethrow(Throwable failure) {
+    if (failure instanceof RuntimeException runtime) {
+      return runtime;
+    }
+    if (failure instanceof Error error) {
+      throw error;
+    }
+    return new IllegalStateException(failure);
+  }
+}
@@ -1,5 +1,7 @@
 package com.example.financial_tracker.service;
 
+import com.example.financial_tracker.datasource.Workload;
+import com.example.financial_tracker.datasource.WorkloadClass;
 import com.example.financial_tracker.dto.RecurringTransactionDTO;
 import com.example.financial_tracker.dto.TransactionDTO;
 import com.example.financial_tracker.entity.*;
@@ -105,6 +107,7 @@ public class RecurringTransactionService {
 
   @Scheduled(cron = "0 0 1 * * *")
   @Transactional
+  @WorkloadClass(Workload.REPORTING)
   public void processRecurringTransactions() {
     log.info("Starting processing of recurring transactions");
 
@@ -151,8 +154,8 @@ public class RecurringTransactionService {
     log.info("Completed processing of {} recurring transactions", dueTransactions.size());
   }
 
-  private LocalDate calculateNextExecutionDate(LocalDate fromDate, RecurrenceFrequency frequency,
-                                               Integer dayOfMonth, Integer dayOfWeek) {
+  static LocalDate calculateNextExecutionDate(LocalDate fromDate, RecurrenceFrequency frequency,
+                                              Integer dayOfMonth, Integer dayOfWeek) {
     LocalDate nextDate = fromDate;
 
     switch (frequency) {
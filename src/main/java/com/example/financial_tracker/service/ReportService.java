@@ -1,5 +1,7 @@
 package com.example.financial_tracker.service;
 
+import com.example.financial_tracker.datasource.Workload;
+import com.example.financial_tracker.datasource.WorkloadClass;
 import com.example.financial_tracker.dto.MonthlyReportDTO;
 import com.example.financial_tracker.dto.WeeklyReportDTO;
 import com.example.financial_tracker.entity.*;
@@ -15,11 +17,13 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@WorkloadClass(Workload.REPORTING)
 public class ReportService {
 
   private final TransactionRepository transactionRepository;
@@ -31,51 +35,27 @@ public class ReportService {
     LocalDate endDate = LocalDate.now();
     LocalDate startDate = endDate.minusDays(7);
 
-    List<Transaction> weekTransactions = transactionRepository
-      .findByUserAndDateBetweenOrderByDateDesc(user, startDate, endDate);
+    ReportTotals totals = new ReportTotals();
+    transactionRepository.getReportAggregates(user, startDate, endDate)
+      .forEach(row -> totals.add(row, 0));
 
-    BigDecimal totalIncome = BigDecimal.ZERO;
-    BigDecimal totalExpenses = BigDecimal.ZERO;
-    Map<String, BigDecimal> categoryExpenses = new HashMap<>();
+    return buildWeeklyReport(totals, startDate, endDate);
+  }
 
-    for (Transaction t : weekTransactions) {
-      if (t.getType() == TransactionType.INCOME) {
-        totalIncome = totalIncome.add(t.getAmount());
-      } else {
-        totalExpenses = totalExpenses.add(t.getAmount());
+  public ReportBatch<WeeklyReportDTO> generateWeeklyReports() {
+    LocalDate endDate = LocalDate.now();
+    LocalDate startDate = endDate.minusDays(7);
 
-        if (t.getCategory() != null) {
-          String categoryName = t.getCategory().getName();
-          categoryExpenses.merge(categoryName, t.getAmount(), BigDecimal::add);
-        }
-      }
+    Map<Long, ReportTotals> totalsByUser = new HashMap<>();
+    try (Stream<Object[]> rows = transactionRepository.streamWeeklyReportAggregates(startDate, endDate)) {
+      rows.forEach(row -> totalsByUser.computeIfAbsent((Long) row[0], id -> new ReportTotals()).add(row, 1));
     }
 
-    BigDecimal netAmount = totalIncome.subtract(totalExpenses);
-
-    final BigDecimal finalTotalExpenses = totalExpenses;
-    List<WeeklyReportDTO.CategoryExpenseDTO> topCategories = categoryExpenses.entrySet().stream()
-      .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed())
-      .limit(5)
-      .map(entry -> WeeklyReportDTO.CategoryExpenseDTO.builder()
-        .categoryName(entry.getKey())
-        .amount(entry.getValue())
-        .percentOfTotal(finalTotalExpenses.compareTo(BigDecimal.ZERO) > 0
-          ? entry.getValue().multiply(new BigDecimal("100"))
-          .divide(finalTotalExpenses, 2, RoundingMode.HALF_UP)
-          : BigDecimal.ZERO)
-        .build())
-      .collect(Collectors.toList());
+    Map<Long, WeeklyReportDTO> reports = new HashMap<>(totalsByUser.size() * 2);
+    totalsByUser.forEach((userId, totals) -> reports.put(userId, buildWeeklyReport(totals, startDate, endDate)));
 
-    return WeeklyReportDTO.builder()
-      .startDate(startDate)
-      .endDate(endDate)
-      .totalIncome(totalIncome)
-      .totalExpenses(totalExpenses)
-      .netAmount(netAmount)
-      .totalTransactions(weekTransactions.size())
-      .topExpenseCategories(topCategories)
-      .build();
+    log.info("Generated {} weekly reports from one grouped query", reports.size());
+    return new ReportBatch<>(reports, buildWeeklyReport(new ReportTotals(), startDate, endDate));
   }
 
   public MonthlyReportDTO generateMonthlyReport(User user, int month, int year) {
@@ -86,111 +66,110 @@ public class ReportService {
 
     if (startDate.isAfter(LocalDate.now())) {
       log.warn("Cannot generate report for future month: {}/{}", month, year);
-      return MonthlyReportDTO.builder()
-        .month(month)
-        .year(year)
-        .startDate(startDate)
-        .endDate(endDate)
-        .totalIncome(BigDecimal.ZERO)
-        .totalExpenses(BigDecimal.ZERO)
-        .netAmount(BigDecimal.ZERO)
-        .savingsRate(BigDecimal.ZERO)
-        .expensesByCategory(new ArrayList<>())
-        .totalTransactions(0)
-        .incomeTransactions(0)
-        .expenseTransactions(0)
-        .budgetSummary(new ArrayList<>())
-        .budgetsExceeded(0)
-        .build();
+      return buildMonthlyReport(new ReportTotals(), List.of(), month, year, startDate, endDate);
+    }
+
+    ReportTotals totals = new ReportTotals();
+    transactionRepository.getReportAggregates(user, startDate, endDate)
+      .forEach(row -> totals.add(row, 0));
+
+    List<Budget> budgets = List.of();
+    try {
+      budgets = budgetRepository.findActiveByUser(user);
+    } catch (Exception e) {
+      log.error("Error calculating budget summary", e);
     }
 
-    List<Transaction> monthTransactions = transactionRepository
-      .findByUserAndDateBetweenOrderByDateDesc(user, startDate, endDate);
+    return buildMonthlyReport(totals, budgets, month, year, startDate, endDate);
+  }
 
-    BigDecimal totalIncome = BigDecimal.ZERO;
-    BigDecimal totalExpenses = BigDecimal.ZERO;
-    Map<String, List<Transaction>> expensesByCategory = new HashMap<>();
-    int incomeCount = 0;
-    int expenseCount = 0;
+  public ReportBatch<MonthlyReportDTO> generateMonthlyReports(int month, int year) {
+    LocalDate startDate = LocalDate.of(year, month, 1);
+    LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
 
-    for (Transaction t : monthTransactions) {
-      if (t.getType() == TransactionType.INCOME) {
-        totalIncome = totalIncome.add(t.getAmount());
-        incomeCount++;
-      } else {
-        totalExpenses = totalExpenses.add(t.getAmount());
-        expenseCount++;
+    Map<Long, ReportTotals> totalsByUser = new HashMap<>();
+    try (Stream<Object[]> rows = transactionRepository.streamMonthlyReportAggregates(startDate, endDate)) {
+      rows.forEach(row -> totalsByUser.computeIfAbsent((Long) row[0], id -> new ReportTotals()).add(row, 1));
+    }
 
-        if (t.getCategory() != null) {
-          String categoryName = t.getCategory().getName();
-          expensesByCategory.computeIfAbsent(categoryName, k -> new ArrayList<>()).add(t);
-        }
-      }
+    Map<Long, List<Budget>> budgetsByUser = budgetRepository.findActiveForMonthlyReportRecipients().stream()
+      .collect(Collectors.groupingBy(budget -> budget.getUser().getId()));
+
+    Set<Long> userIds = new HashSet<>(totalsByUser.keySet());
+    userIds.addAll(budgetsByUser.keySet());
+
+    Map<Long, MonthlyReportDTO> reports = new HashMap<>(userIds.size() * 2);
+    for (Long userId : userIds) {
+      reports.put(userId, buildMonthlyReport(
+        totalsByUser.getOrDefault(userId, new ReportTotals()),
+        budgetsByUser.getOrDefault(userId, List.of()),
+        month, year, startDate, endDate));
     }
 
-    BigDecimal netAmount = totalIncome.subtract(totalExpenses);
-    BigDecimal savingsRate = totalIncome.compareTo(BigDecimal.ZERO) > 0
-      ? netAmount.divide(totalIncome, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"))
+    log.info("Generated {} monthly reports for {}/{} from one grouped query", reports.size(), month, year);
+    return new ReportBatch<>(reports,
+      buildMonthlyReport(new ReportTotals(), List.of(), month, year, startDate, endDate));
+  }
+
+  private WeeklyReportDTO buildWeeklyReport(ReportTotals totals, LocalDate startDate, LocalDate endDate) {
+    List<WeeklyReportDTO.CategoryExpenseDTO> topCategories = totals.expensesByCategory.values().stream()
+      .sorted((a, b) -> b.amount.compareTo(a.amount))
+      .limit(5)
+      .map(category -> WeeklyReportDTO.CategoryExpenseDTO.builder()
+        .categoryName(category.name)
+        .amount(category.amount)
+        .percentOfTotal(percentOf(category.amount, totals.totalExpenses))
+        .build())
+      .collect(Collectors.toList());
+
+    return WeeklyReportDTO.builder()
+      .startDate(startDate)
+      .endDate(endDate)
+      .totalIncome(totals.totalIncome)
+      .totalExpenses(totals.totalExpenses)
+      .netAmount(totals.totalIncome.subtract(totals.totalExpenses))
+      .totalTransactions(totals.incomeCount + totals.expenseCount)
+      .topExpenseCategories(topCategories)
+      .build();
+  }
+
+  private MonthlyReportDTO buildMonthlyReport(ReportTotals totals, List<Budget> budgets, int month, int year,
+                                              LocalDate startDate, LocalDate endDate) {
+    BigDecimal netAmount = totals.totalIncome.subtract(totals.totalExpenses);
+    BigDecimal savingsRate = totals.totalIncome.compareTo(BigDecimal.ZERO) > 0
+      ? netAmount.divide(totals.totalIncome, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"))
       : BigDecimal.ZERO;
 
-    final BigDecimal finalTotalExpenses = totalExpenses;
-    List<MonthlyReportDTO.CategorySummaryDTO> categorySummaries = expensesByCategory.entrySet().stream()
-      .map(entry -> {
-        String categoryName = entry.getKey();
-        List<Transaction> transactions = entry.getValue();
-        BigDecimal categoryTotal = transactions.stream()
-          .map(Transaction::getAmount)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return MonthlyReportDTO.CategorySummaryDTO.builder()
-          .categoryName(categoryName)
-          .amount(categoryTotal)
-          .transactionCount(transactions.size())
-          .percentOfTotal(finalTotalExpenses.compareTo(BigDecimal.ZERO) > 0
-            ? categoryTotal.multiply(new BigDecimal("100"))
-            .divide(finalTotalExpenses, 2, RoundingMode.HALF_UP)
-            : BigDecimal.ZERO)
-          .averageAmount(categoryTotal.divide(
-            BigDecimal.valueOf(transactions.size()), 2, RoundingMode.HALF_UP))
-          .build();
-      })
+    List<MonthlyReportDTO.CategorySummaryDTO> categorySummaries = totals.expensesByCategory.values().stream()
+      .map(category -> MonthlyReportDTO.CategorySummaryDTO.builder()
+        .categoryName(category.name)
+        .amount(category.amount)
+        .transactionCount(category.count)
+        .percentOfTotal(percentOf(category.amount, totals.totalExpenses))
+        .averageAmount(category.amount.divide(BigDecimal.valueOf(category.count), 2, RoundingMode.HALF_UP))
+        .build())
       .sorted((a, b) -> b.getAmount().compareTo(a.getAmount()))
       .collect(Collectors.toList());
 
-    List<MonthlyReportDTO.BudgetSummaryDTO> budgetSummary = new ArrayList<>();
-    try {
-      List<Budget> budgets = budgetRepository.findActiveByUser(user);
-      for (Budget budget : budgets) {
-        BigDecimal spent = BigDecimal.ZERO;
-
-        if (budget.getCategory() != null) {
-          spent = monthTransactions.stream()
-            .filter(t -> t.getType() == TransactionType.EXPENSE)
-            .filter(t -> t.getCategory() != null &&
-              t.getCategory().getId().equals(budget.getCategory().getId()))
-            .map(Transaction::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        } else {
-          spent = totalExpenses;
-        }
-
-        BigDecimal percentUsed = budget.getAmount().compareTo(BigDecimal.ZERO) > 0
-          ? spent.multiply(new BigDecimal("100"))
-          .divide(budget.getAmount(), 2, RoundingMode.HALF_UP)
-          : BigDecimal.ZERO;
-
-        budgetSummary.add(MonthlyReportDTO.BudgetSummaryDTO.builder()
-          .budgetName(budget.getName())
-          .categoryName(budget.getCategory() != null ?
-            budget.getCategory().getName() : "All Categories")
-          .limit(budget.getAmount())
-          .spent(spent)
-          .percentUsed(percentUsed)
-          .isExceeded(spent.compareTo(budget.getAmount()) > 0)
-          .build());
+    List<MonthlyReportDTO.BudgetSummaryDTO> budgetSummary = new ArrayList<>(budgets.size());
+    for (Budget budget : budgets) {
+      BigDecimal spent;
+      if (budget.getCategory() != null) {
+        CategoryTotal category = totals.expensesByCategory.get(budget.getCategory().getId());
+        spent = category != null ? category.amount : BigDecimal.ZERO;
+      } else {
+        spent = totals.totalExpenses;
       }
-    } catch (Exception e) {
-      log.error("Error calculating budget summary", e);
+
+      budgetSummary.add(MonthlyReportDTO.BudgetSummaryDTO.builder()
+        .budgetName(budget.getName())
+        .categoryName(budget.getCategory() != null ?
+          budget.getCategory().getName() : "All Categories")
+        .limit(budget.getAmount())
+        .spent(spent)
+        .percentUsed(percentOf(spent, budget.getAmount()))
+        .isExceeded(spent.compareTo(budget.getAmount()) > 0)
+        .build());
     }
 
     return MonthlyReportDTO.builder()
@@ -198,17 +177,80 @@ public class ReportService {
       .year(year)
       .startDate(startDate)
       .endDate(endDate)
-      .totalIncome(totalIncome)
-      .totalExpenses(totalExpenses)
+      .totalIncome(totals.totalIncome)
+      .totalExpenses(totals.totalExpenses)
       .netAmount(netAmount)
       .savingsRate(savingsRate)
       .expensesByCategory(categorySummaries)
-      .totalTransactions(monthTransactions.size())
-      .incomeTransactions(incomeCount)
-      .expenseTransactions(expenseCount)
+      .totalTransactions(totals.incomeCount + totals.expenseCount)
+      .incomeTransactions(totals.incomeCount)
+      .expenseTransactions(totals.expenseCount)
       .budgetSummary(budgetSummary)
       .budgetsExceeded((int) budgetSummary.stream()
         .filter(MonthlyReportDTO.BudgetSummaryDTO::getIsExceeded).count())
       .build();
   }
+
+  private BigDecimal percentOf(BigDecimal amount, BigDecimal total) {
+    return total.compareTo(BigDecimal.ZERO) > 0
+      ? amount.multiply(new BigDecimal("100")).divide(total, 2, RoundingMode.HALF_UP)
+      : BigDecimal.ZERO;
+  }
+
+  public static class ReportBatch<R> {
+    private final Map<Long, R> reports;
+    private final R emptyReport;
+
+    ReportBatch(Map<Long, R> reports, R emptyReport) {
+      this.reports = reports;
+      this.emptyReport = emptyReport;
+    }
+
+    public R forUser(User user) {
+      return reports.getOrDefault(user.getId(), emptyReport);
+    }
+
+    public int size() {
+      return reports.size();
+    }
+  }
+
+  private static class ReportTotals {
+    private BigDecimal totalIncome = BigDecimal.ZERO;
+    private BigDecimal totalExpenses = BigDecimal.ZERO;
+    private int incomeCount;
+    private int expenseCount;
+    private final Map<Long, CategoryTotal> expensesByCategory = new HashMap<>();
+
+    // row layout from offset: categoryId, categoryName, type, sum(amount), count
+    void add(Object[] row, int offset) {
+      BigDecimal amount = (BigDecimal) row[offset + 3];
+      int count = ((Number) row[offset + 4]).intValue();
+
+      if (row[offset + 2] == TransactionType.INCOME) {
+        totalIncome = totalIncome.add(amount);
+        incomeCount += count;
+      } else {
+        totalExpenses = totalExpenses.add(amount);
+        expenseCount += count;
+        expensesByCategory.computeIfAbsent((Long) row[offset], id -> new CategoryTotal((String) row[offset + 1]))
+          .add(amount, count);
+      }
+    }
+  }
+
+  private static class CategoryTotal {
+    private final String name;
+    private BigDecimal amount = BigDecimal.ZERO;
+    private int count;
+
+    CategoryTotal(String name) {
+      this.name = name;
+    }
+
+    void add(BigDecimal value, int transactions) {
+      amount = amount.add(value);
+      count += transactions;
+    }
+  }
 }
@@ -0,0 +1,115 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.dto.AnalyticsDTO;
+import com.example.financial_tracker.dto.DashboardDTO;
+import com.example.financial_tracker.dto.TransactionDTO;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.enumerations.Currency;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+
+/**
+ * Fills the secondary-currency fields of read responses for users who enabled them.
+ * Each call takes one rate snapshot and resolves at most one rate per source
+ * currency, so a page costs a multiplication per row.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SecondaryCurrencyService {
+
+  private final CurrencyService currencyService;
+
+  public void applyToTransactions(User user, Collection<TransactionDTO> transactions) {
+    Rates rates = ratesFor(user);
+    if (rates != null) {
+      rates.apply(transactions);
+    }
+  }
+
+  public void applyToDashboard(User user, DashboardDTO dashboard) {
+    dashboard.setPrimaryCurrency(defaultCurrency(user));
+    Rates rates = ratesFor(user);
+    if (rates == null) {
+      return;
+    }
+    dashboard.setSecondaryCurrency(rates.target);
+    dashboard.setCurrentBalanceSecondary(rates.fromDefault(dashboard.getCurrentBalance()));
+    dashboard.setTotalIncomeSecondary(rates.fromDefault(dashboard.getTotalIncome()));
+    dashboard.setTotalExpenseSecondary(rates.fromDefault(dashboard.getTotalExpense()));
+    if (dashboard.getRecentTransactions() != null) {
+      rates.apply(dashboard.getRecentTransactions());
+    }
+  }
+
+  public void applyToAnalytics(User user, AnalyticsDTO analytics) {
+    Rates rates = ratesFor(user);
+    if (rates == null) {
+      return;
+    }
+    analytics.setSecondaryCurrency(rates.target);
+    analytics.setCurrentBalanceSecondary(rates.fromDefault(analytics.getCurrentBalance()));
+    analytics.setTotalIncomeSecondary(rates.fromDefault(analytics.getTotalIncome()));
+    analytics.setTotalExpenseSecondary(rates.fromDefault(analytics.getTotalExpense()));
+  }
+
+  private Rates ratesFor(User user) {
+    Currency target = user.getSecondaryCurrency();
+    if (!user.isDisplaySecondaryCurrency() || target == null) {
+      return null;
+    }
+    return new Rates(currencyService.getRateMatrix(), defaultCurrency(user), target);
+  }
+
+  private static Currency defaultCurrency(User user) {
+    return user.getDefaultCurrency() != null ? user.getDefaultCurrency() : Currency.USD;
+  }
+
+  private static final class Rates {
+    private final ExchangeRateMatrix matrix;
+    private final Currency defaultCurrency;
+    private final Currency target;
+    private final BigDecimal[] bySource = new BigDecimal[Currency.values().length];
+
+    Rates(ExchangeRateMatrix matrix, Currency defaultCurrency, Currency target) {
+      this.matrix = matrix;
+      this.defaultCurrency = defaultCurrency;
+      this.target = target;
+    }
+
+    void apply(Collection<TransactionDTO> transactions) {
+      for (TransactionDTO dto : transactions) {
+        Currency source = dto.getCurrency() != null ? dto.getCurrency() : defaultCurrency;
+        dto.setConvertedAmount(convert(dto.getAmount(), source));
+      }
+    }
+
+    BigDecimal fromDefault(BigDecimal amount) {
+      return convert(amount, defaultCurrency);
+    }
+
+    private BigDecimal convert(BigDecimal amount, Currency source) {
+      if (amount == null) {
+        return null;
+      }
+      if (source == target) {
+        return amount;
+      }
+      BigDecimal rate = bySource[source.ordinal()];
+      if (rate == null) {
+        if (!matrix.hasRate(source, target)) {
+          log.debug("No {} to {} rate, leaving secondary amount empty", source, target);
+          return null;
+        }
+        rate = matrix.rate(source, target);
+        bySource[source.ordinal()] = rate;
+      }
+      return amount.multiply(rate).setScale(target.getDecimalPlaces(), RoundingMode.HALF_UP);
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package com.example.financial_tracker.service;
 
+import com.example.financial_tracker.datasource.Workload;
+import com.example.financial_tracker.datasource.WorkloadClass;
 import com.example.financial_tracker.dto.*;
 import com.example.financial_tracker.entity.*;
 import com.example.financial_tracker.enumerations.TransactionType;
@@ -11,11 +13,14 @@ import com.example.financial_tracker.repository.CategoryRepository;
 import com.example.financial_tracker.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
 import com.opencsv.CSVWriter;
+import jakarta.persistence.PersistenceException;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -34,6 +39,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.math.BigDecimal;
 
 @Slf4j
@@ -49,15 +55,16 @@ public class TransactionService {
   private final BudgetService budgetService;
   private final BudgetRepository budgetRepository;
   private final EmailService emailService;
+  private final SecondaryCurrencyService secondaryCurrencyService;
 
   @Transactional(readOnly = true)
   public List<TransactionDTO> getTransactionsByUser(User user) {
     log.debug("Fetching all transactions for user: {} (ID: {})", user.getEmail(), user.getId());
 
-    List<Transaction> transactions = transactionRepository.findByUserOrderByDateDesc(user);
+    List<TransactionDTO> transactions = transactionRepository.findDtosByUser(user);
 
     log.debug("Found {} transactions for user: {}", transactions.size(), user.getEmail());
-    return transactionMapper.toDtoList(transactions);
+    return withSecondaryCurrency(user, transactions);
   }
 
   @Transactional(readOnly = true)
@@ -65,13 +72,13 @@ public class TransactionService {
     log.debug("Fetching paginated transactions for user: {} (page: {}, size: {})",
       user.getEmail(), pageable.getPageNumber(), pageable.getPageSize());
 
-    Page<Transaction> transactions = transactionRepository.findByUserOrderByDateDesc(user, pageable);
+    Page<TransactionDTO> transactions = transactionRepository.findDtosByUser(user, pageable);
 
     log.debug("Retrieved page {} of {} with {} transactions for user: {}",
       transactions.getNumber(), transactions.getTotalPages(),
       transactions.getNumberOfElements(), user.getEmail());
 
-    return transactions.map(transactionMapper::toDto);
+    return withSecondaryCurrency(user, transactions);
   }
 
   @Transactional(readOnly = true)
@@ -85,7 +92,9 @@ public class TransactionService {
       });
 
     log.debug("Successfully retrieved transaction ID: {} for user: {}", id, user.getEmail());
-    return transactionMapper.toDto(transaction);
+    TransactionDTO dto = transactionMapper.toDto(transaction);
+    secondaryCurrencyService.applyToTransactions(user, List.of(dto));
+    return dto;
   }
 
   public TransactionDTO createTransaction(TransactionDTO dto, User user) {
@@ -227,6 +236,9 @@ public class TransactionService {
     }
 
     existing.setAmount(dto.getAmount());
+    if (dto.getCurrency() != null) {
+      existing.setCurrency(dto.getCurrency());
+    }
     existing.setType(TransactionType.valueOf(dto.getType()));
     existing.setDescription(dto.getDescription());
     existing.setDate(dto.getDate());
@@ -297,25 +309,35 @@ public class TransactionService {
     log.debug("Fetching filtered transactions for user: {} - Type: {}, CategoryID: {}, Date range: {} to {}",
       user.getEmail(), type, categoryId, startDate, endDate);
 
-    List<Transaction> transactions = transactionRepository.findByUserWithFilters(
+    List<TransactionDTO> transactions = transactionRepository.findDtosByUserWithFilters(
       user, type, categoryId, startDate, endDate);
 
     log.debug("Found {} transactions matching filters for user: {}",
       transactions.size(), user.getEmail());
 
-    return transactionMapper.toDtoList(transactions);
+    return withSecondaryCurrency(user, transactions);
   }
 
   @Transactional(readOnly = true)
   public List<TransactionDTO> getTransactionsByType(User user, TransactionType type) {
     log.debug("Fetching {} transactions for user: {}", type, user.getEmail());
 
-    List<Transaction> transactions = transactionRepository.findByUserAndTypeOrderByDateDesc(user, type);
+    List<TransactionDTO> transactions = transactionRepository.findDtosByUserAndType(user, type);
 
     log.debug("Found {} {} transactions for user: {}",
       transactions.size(), type, user.getEmail());
 
-    return transactionMapper.toDtoList(transactions);
+    return withSecondaryCurrency(user, transactions);
+  }
+
+  private List<TransactionDTO> withSecondaryCurrency(User user, List<TransactionDTO> transactions) {
+    secondaryCurrencyService.applyToTransactions(user, transactions);
+    return transactions;
+  }
+
+  private Page<TransactionDTO> withSecondaryCurrency(User user, Page<TransactionDTO> transactions) {
+    secondaryCurrencyService.applyToTransactions(user, transactions.getContent());
+    return transactions;
   }
 
   private String maskSensitiveData(TransactionDTO dto) {
@@ -343,7 +365,7 @@ public class TransactionService {
     Page<Transaction> transactions = transactionRepository.findAll(spec, pageable);
 
     log.debug("Found {} transactions matching criteria", transactions.getTotalElements());
-    return transactions.map(transactionMapper::toDto);
+    return withSecondaryCurrency(user, transactions.map(transactionMapper::toDto));
   }
 
   private void applyQuickDateFilter(TransactionSearchDTO searchDto) {
@@ -447,7 +469,8 @@ public class TransactionService {
     );
   }
 
-  @Transactional(readOnly = true)
+  @Transactional(readOnly = true, timeoutString = "${app.db.statement-timeouts.exports:120}")
+  @WorkloadClass(Workload.REPORTING)
   public byte[] exportTransactionsToCsv(User user, TransactionSearchDTO searchDto) {
     log.info("Exporting transactions to CSV for user: {}", user.getEmail());
 
@@ -460,8 +483,6 @@ public class TransactionService {
       searchDto.getSortBy()
     );
 
-    List<Transaction> transactions = transactionRepository.findAll(spec, sort);
-
     try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
          OutputStreamWriter osw = new OutputStreamWriter(baos, "UTF-8");
          CSVWriter csvWriter = new CSVWriter(osw)) {
@@ -469,7 +490,7 @@ public class TransactionService {
       String[] headers = {"Date", "Type", "Category", "Amount", "Description", "Created At"};
       csvWriter.writeNext(headers);
 
-      for (Transaction transaction : transactions) {
+      long exported = transactionRepository.forEachMatching(spec, sort, transaction -> {
         String[] data = {
           transaction.getDate().toString(),
           transaction.getType().toString(),
@@ -479,15 +500,17 @@ public class TransactionService {
           transaction.getCreatedAt() != null ? transaction.getCreatedAt().toString() : ""
         };
         csvWriter.writeNext(data);
-      }
+      });
 
       csvWriter.flush();
-      log.info("Successfully exported {} transactions to CSV", transactions.size());
+      log.info("Successfully exported {} transactions to CSV", exported);
       return baos.toByteArray();
 
+    } catch (DataAccessException | TransactionException | PersistenceException | CancellationException e) {
+      throw e;
     } catch (Exception e) {
       log.error("Error exporting transactions to CSV", e);
-      throw new BusinessLogicException("Failed to export transactions to CSV");
+      throw new BusinessLogicException("Failed to export transactions to CSV", e);
     }
   }
 
@@ -498,27 +521,11 @@ public class TransactionService {
     applyQuickDateFilter(searchDto);
     Specification<Transaction> spec = createSearchSpecification(user, searchDto);
 
-    List<Transaction> transactions = transactionRepository.findAll(spec);
-
-    BigDecimal totalIncome = transactions.stream()
-      .filter(t -> t.getType() == TransactionType.INCOME)
-      .map(Transaction::getAmount)
-      .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-    BigDecimal totalExpense = transactions.stream()
-      .filter(t -> t.getType() == TransactionType.EXPENSE)
-      .map(Transaction::getAmount)
-      .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-    return TransactionSearchStatsDTO.builder()
-      .totalCount(transactions.size())
-      .totalIncome(totalIncome)
-      .totalExpense(totalExpense)
-      .netAmount(totalIncome.subtract(totalExpense))
-      .build();
+    return transactionRepository.aggregateSearchStats(spec);
   }
 
-  @Transactional(readOnly = true)
+  @Transactional(readOnly = true, timeoutString = "${app.db.statement-timeouts.exports:120}")
+  @WorkloadClass(Workload.REPORTING)
   public byte[] exportTransactionsToExcel(User user, TransactionSearchDTO searchDto) {
     log.info("Exporting transactions to Excel for user: {}", user.getEmail());
 
@@ -531,8 +538,6 @@ public class TransactionService {
       searchDto.getSortBy()
     );
 
-    List<Transaction> transactions = transactionRepository.findAll(spec, sort);
-
     try (Workbook workbook = new XSSFWorkbook();
          ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
 
@@ -559,9 +564,9 @@ public class TransactionService {
         cell.setCellStyle(headerStyle);
       }
 
-      int rowNum = 1;
-      for (Transaction transaction : transactions) {
-        Row row = sheet.createRow(rowNum++);
+      int[] rowNum = {1};
+      long exported = transactionRepository.forEachMatching(spec, sort, transaction -> {
+        Row row = sheet.createRow(rowNum[0]++);
 
         Cell dateCell = row.createCell(0);
         dateCell.setCellValue(transaction.getDate());
@@ -575,19 +580,21 @@ public class TransactionService {
         amountCell.setCellStyle(currencyStyle);
 
         row.createCell(4).setCellValue(transaction.getDescription() != null ? transaction.getDescription() : "");
-      }
+      });
 
       for (int i = 0; i < headers.length; i++) {
         sheet.autoSizeColumn(i);
       }
 
       workbook.write(baos);
-      log.info("Successfully exported {} transactions to Excel", transactions.size());
+      log.info("Successfully exported {} transactions to Excel", exported);
       return baos.toByteArray();
 
+    } catch (DataAccessException | TransactionException | PersistenceException | CancellationException e) {
+      throw e;
     } catch (Exception e) {
       log.error("Error exporting transactions to Excel", e);
-      throw new BusinessLogicException("Failed to export transactions to Excel");
+      throw new BusinessLogicException("Failed to export transactions to Excel", e);
     }
   }
 
@@ -609,6 +616,7 @@ public class TransactionService {
     return searchTransactions(user, searchDto);
   }
 
+  @WorkloadClass(Workload.REPORTING)
   public ImportResultDTO importFromFile(User user, MultipartFile file) {
     String filename = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
 
@@ -621,6 +629,7 @@ public class TransactionService {
     }
   }
 
+  @WorkloadClass(Workload.REPORTING)
   public ImportResultDTO importFromCsv(User user, MultipartFile file) {
     ImportResultDTO result = ImportResultDTO.builder()
       .errors(new ArrayList<>())
@@ -664,6 +673,7 @@ public class TransactionService {
     return result;
   }
 
+  @WorkloadClass(Workload.REPORTING)
   public ImportResultDTO importFromExcel(User user, MultipartFile file) {
     ImportResultDTO result = ImportResultDTO.builder()
       .errors(new ArrayList<>())
@@ -0,0 +1,84 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.datasource.Workload;
+import com.example.financial_tracker.datasource.WorkloadClass;
+import com.example.financial_tracker.dto.TransactionDTO;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.enumerations.TransactionType;
+import com.example.financial_tracker.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's transactions as newline-delimited JSON straight from a scrolled
+ * DTO projection. Rows never become entities, and at most one chunk of DTOs is held
+ * at a time; each chunk is flushed so the client sees data while the query runs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionStreamService {
+
+  static final int CHUNK_SIZE = 500;
+
+  private final TransactionRepository transactionRepository;
+  private final SecondaryCurrencyService secondaryCurrencyService;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * @return number of transactions written
+   */
+  @Transactional(readOnly = true)
+  @WorkloadClass(Workload.REPORTING)
+  public long writeNdjson(User user, TransactionType type, Long categoryId,
+                          LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException {
+    ObjectWriter writer = objectMapper.writerFor(TransactionDTO.class)
+      .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    long written = 0;
+    List<TransactionDTO> chunk = new ArrayList<>(CHUNK_SIZE);
+
+    try (Stream<TransactionDTO> rows = transactionRepository.streamDtosByUserWithFilters(
+           user, type, categoryId, startDate, endDate);
+         JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.setRootValueSeparator(null);
+
+      Iterator<TransactionDTO> iterator = rows.iterator();
+      while (iterator.hasNext()) {
+        chunk.add(iterator.next());
+        if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+          written += writeChunk(user, chunk, writer, generator);
+          chunk.clear();
+        }
+      }
+    }
+
+    log.debug("Streamed {} transactions for user: {}", written, user.getEmail());
+    return written;
+  }
+
+  private int writeChunk(User user, List<TransactionDTO> chunk, ObjectWriter writer,
+                         JsonGenerator generator) throws IOException {
+    secondaryCurrencyService.applyToTransactions(user, chunk);
+    for (TransactionDTO dto : chunk) {
+      writer.writeValue(generator, dto);
+      generator.writeRaw('\n');
+    }
+    generator.flush();
+    return chunk.size();
+  }
+}
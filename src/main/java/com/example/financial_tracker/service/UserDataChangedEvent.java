@@ -0,0 +1,25 @@
+package com.example.financial_tracker.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * A transaction, category, budget, goal or recurring item of one user was written.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class UserDataChangedEvent {
+
+  private final Long userId;
+  private final Class<?> entityType;
+
+  /** Transaction date for transaction changes, otherwise {@code null}. */
+  private final LocalDate date;
+
+  /** Date before an update that moved the transaction, otherwise {@code null}. */
+  private final LocalDate previousDate;
+}
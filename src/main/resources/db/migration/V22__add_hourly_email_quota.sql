@@ -0,0 +1,2 @@
+ALTER TABLE email_quota ADD COLUMN hour_start TIMESTAMP;
+ALTER TABLE email_quota ADD COLUMN hourly_count INTEGER NOT NULL DEFAULT 0;
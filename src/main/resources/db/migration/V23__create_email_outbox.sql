@@ -0,0 +1,19 @@
+CREATE TABLE email_outbox (
+                            id BIGSERIAL PRIMARY KEY,
+                            user_id BIGINT NOT NULL,
+                            recipient VARCHAR(255) NOT NULL,
+                            subject VARCHAR(255) NOT NULL,
+                            body TEXT NOT NULL,
+                            type VARCHAR(50) NOT NULL,
+                            status VARCHAR(20) NOT NULL,
+                            attempts INTEGER NOT NULL DEFAULT 0,
+                            next_attempt_at TIMESTAMP NOT NULL,
+                            claimed_at TIMESTAMP,
+                            last_error TEXT,
+                            created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+                            CONSTRAINT fk_email_outbox_user
+                              FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_email_outbox_due ON email_outbox(status, next_attempt_at);
@@ -0,0 +1,13 @@
+-- V17 defaulted every existing transaction to USD although amounts were entered in
+-- the owner's default currency; align them so converted totals stay unchanged.
+UPDATE transactions t
+SET currency = u.default_currency
+FROM users u
+WHERE u.id = t.user_id
+  AND u.default_currency IS NOT NULL
+  AND t.currency <> u.default_currency
+  AND t.exchange_rate IS NULL;
+
+UPDATE transactions SET original_amount = amount WHERE original_amount IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_currency ON transactions(user_id, currency);
@@ -0,0 +1,154 @@
+package com.example.financial_tracker.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightInterceptorTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final SlowReports target = new SlowReports();
+
+  private SingleFlightInterceptor interceptor;
+  private SlowReports reports;
+
+  @BeforeEach
+  void setUp() {
+    interceptor = interceptor(Duration.ofSeconds(5));
+    reports = proxy(interceptor);
+  }
+
+  @AfterEach
+  void tearDown() {
+    target.release.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  void concurrentIdenticalCalls_ShareOneComputation() throws Exception {
+    Future<String> first = executor.submit(() -> reports.report("march"));
+    assertTrue(target.started.await(5, TimeUnit.SECONDS));
+    Future<String> second = executor.submit(() -> reports.report("march"));
+    Future<String> third = executor.submit(() -> reports.report("march"));
+    awaitCoalesced(2);
+
+    target.release.countDown();
+
+    assertEquals("march#1", first.get(5, TimeUnit.SECONDS));
+    assertEquals("march#1", second.get(5, TimeUnit.SECONDS));
+    assertEquals("march#1", third.get(5, TimeUnit.SECONDS));
+    assertEquals(1, target.calls.get());
+    assertEquals(1, count(SingleFlightInterceptor.EXECUTED));
+    assertEquals(2, count(SingleFlightInterceptor.COALESCED));
+    assertEquals(0, interceptor.inFlightCount());
+  }
+
+  @Test
+  void differentArguments_AreNotCoalesced() throws Exception {
+    target.release.countDown();
+
+    assertEquals("march#1", reports.report("march"));
+    assertEquals("april#2", reports.report("april"));
+    assertEquals("march#3", reports.report("march"));
+    assertEquals(3, count(SingleFlightInterceptor.EXECUTED));
+  }
+
+  @Test
+  void waiter_ComputesOnItsOwnWhenTheWaitRunsOut() throws Exception {
+    SlowReports impatientReports = proxy(interceptor(Duration.ofMillis(100)));
+    executor.submit(() -> impatientReports.report("march"));
+    assertTrue(target.started.await(5, TimeUnit.SECONDS));
+
+    Future<String> impatient = executor.submit(() -> impatientReports.report("march"));
+
+    assertEquals("march#2", impatient.get(5, TimeUnit.SECONDS));
+    assertEquals(1, count(SingleFlightInterceptor.WAIT_TIMEOUT));
+  }
+
+  @Test
+  void failure_IsSharedWithWaiters() throws Exception {
+    target.failWith = new IllegalStateException("boom");
+    Future<String> first = executor.submit(() -> reports.report("march"));
+    assertTrue(target.started.await(5, TimeUnit.SECONDS));
+    Future<String> second = executor.submit(() -> reports.report("march"));
+    awaitCoalesced(1);
+
+    target.release.countDown();
+
+    assertInstanceOf(IllegalStateException.class, assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS)).getCause());
+    assertInstanceOf(IllegalStateException.class, assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS)).getCause());
+    assertEquals(1, target.calls.get());
+  }
+
+  /** Waiters register nothing before their result arrives, so poll the JVM for parked threads instead. */
+  private void awaitCoalesced(int waiters) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (System.nanoTime() < deadline) {
+      long waiting = Thread.getAllStackTraces().entrySet().stream()
+        .filter(e -> e.getKey().getState() == Thread.State.TIMED_WAITING)
+        .filter(e -> Arrays.stream(e.getValue())
+          .anyMatch(frame -> frame.getMethodName().equals("follow")))
+        .count();
+      if (waiting >= waiters) {
+        return;
+      }
+      Thread.sleep(10);
+    }
+    fail("callers did not join the call in progress");
+  }
+
+  private SingleFlightInterceptor interceptor(Duration maxWait) {
+    SingleFlightInterceptor interceptor = new SingleFlightInterceptor(maxWait);
+    interceptor.bindTo(meterRegistry);
+    return interceptor;
+  }
+
+  private SlowReports proxy(SingleFlightInterceptor interceptor) {
+    ProxyFactory proxyFactory = new ProxyFactory(target);
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.addAdvisor(new DefaultPointcutAdvisor(
+      AnnotationMatchingPointcut.forMethodAnnotation(SingleFlight.class), interceptor));
+    return (SlowReports) proxyFactory.getProxy();
+  }
+
+  private double count(String outcome) {
+    return meterRegistry.find("app.single-flight.calls").tag("outcome", outcome).counters().stream()
+      .mapToDouble(c -> c.count()).sum();
+  }
+
+  static class SlowReports {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger calls = new AtomicInteger();
+    volatile RuntimeException failWith;
+
+    @SingleFlight
+    public String report(String month) throws InterruptedException {
+      int call = calls.incrementAndGet();
+      started.countDown();
+      if (call == 1) {
+        release.await(10, TimeUnit.SECONDS);
+      }
+      if (failWith != null) {
+        throw failWith;
+      }
+      return month + "#" + call;
+    }
+  }
+}
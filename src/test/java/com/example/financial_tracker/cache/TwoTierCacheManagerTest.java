@@ -0,0 +1,67 @@
+package com.example.financial_tracker.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoTierCacheManagerTest {
+
+  private final L2CacheStore shared = new InMemoryL2CacheStore(1000);
+  private final CacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+  private final Cache nodeA = node().getCache("exchangeRates");
+  private final Cache nodeB = node().getCache("exchangeRates");
+
+  @Test
+  void get_FallsThroughToSharedTierAndLoadsOnce() {
+    AtomicInteger loads = new AtomicInteger();
+
+    assertEquals("0.92", nodeA.get("USD-EUR", () -> "0.9" + (loads.incrementAndGet() + 1)));
+    assertEquals("0.92", nodeB.get("USD-EUR", () -> "0.9" + (loads.incrementAndGet() + 1)));
+
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void putAndEvict_InvalidateOtherNodesLocalCopies() {
+    nodeA.put("USD-EUR", "0.90");
+    assertEquals("0.90", nodeB.get("USD-EUR", String.class));
+
+    nodeA.put("USD-EUR", "0.95");
+    assertEquals("0.95", nodeB.get("USD-EUR", String.class));
+
+    nodeB.evict("USD-EUR");
+    assertNull(nodeA.get("USD-EUR"));
+  }
+
+  @Test
+  void clear_DropsEveryTier() {
+    nodeA.put("USD-EUR", "0.90");
+    nodeB.get("USD-EUR");
+
+    nodeA.clear();
+
+    assertNull(nodeB.get("USD-EUR"));
+    assertNull(shared.get("exchangeRates", "USD-EUR"));
+  }
+
+  @Test
+  void get_ReloadsOnceTheSharedEntryHasExpired() {
+    TwoTierCacheManager shortLived = new TwoTierCacheManager(new CaffeineCacheManager("exchangeRates"), shared, bus,
+      Duration.ZERO);
+    AtomicInteger loads = new AtomicInteger();
+
+    shortLived.getCache("exchangeRates").get("USD-EUR", () -> "0.9" + loads.incrementAndGet());
+
+    assertNull(shared.get("exchangeRates", "USD-EUR"));
+    assertEquals("0.92", nodeB.get("USD-EUR", () -> "0.9" + loads.incrementAndGet()));
+  }
+
+  private TwoTierCacheManager node() {
+    return new TwoTierCacheManager(new CaffeineCacheManager("exchangeRates"), shared, bus, Duration.ofMinutes(5));
+  }
+}
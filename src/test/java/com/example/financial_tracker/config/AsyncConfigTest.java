@@ -0,0 +1,88 @@
+package com.example.financial_tracker.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncConfigTest {
+
+  private final ExecutorProperties properties = new ExecutorProperties();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final AsyncConfig config = new AsyncConfig(properties, meterRegistry);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final List<ThreadPoolTaskExecutor> executors = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    executors.forEach(ThreadPoolTaskExecutor::shutdown);
+    MDC.clear();
+  }
+
+  @Test
+  void abortPool_RejectsAndCountsWorkBeyondItsQueue() {
+    properties.setImports(new ExecutorProperties.Pool(1, 1, 1, ExecutorProperties.RejectionPolicy.ABORT));
+    AsyncTaskExecutor executor = start(config.importExecutor());
+
+    executor.execute(this::block);
+    executor.execute(this::block);
+
+    assertThrows(TaskRejectedException.class, () -> executor.execute(this::block));
+    assertEquals(1, meterRegistry.get("app.executor.rejected").tag("pool", "imports").counter().count());
+  }
+
+  @Test
+  void callerRunsPool_RunsOverflowOnTheSubmittingThread() {
+    properties.setMail(new ExecutorProperties.Pool(1, 1, 1, ExecutorProperties.RejectionPolicy.CALLER_RUNS));
+    AsyncTaskExecutor executor = start(config.mailExecutor());
+    AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+    executor.execute(this::block);
+    executor.execute(this::block);
+    executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+    assertSame(Thread.currentThread(), ranOn.get());
+    assertEquals(1, meterRegistry.get("app.executor.rejected").tag("pool", "mail").counter().count());
+  }
+
+  @Test
+  void tasks_CarryTheCallersMdcAndCountWhileRunning() throws Exception {
+    AsyncTaskExecutor executor = start(config.reportExecutor());
+    MDC.put("requestId", "req-1");
+
+    Future<String> requestId = executor.submit(() -> {
+      assertEquals(1, meterRegistry.get("app.executor.active").tag("pool", "reports").gauge().value());
+      return MDC.get("requestId");
+    });
+
+    assertEquals("req-1", requestId.get(5, TimeUnit.SECONDS));
+  }
+
+  private AsyncTaskExecutor start(AsyncTaskExecutor executor) {
+    ThreadPoolTaskExecutor pool = (ThreadPoolTaskExecutor) executor;
+    pool.initialize();
+    executors.add(pool);
+    return pool;
+  }
+
+  private void block() {
+    try {
+      release.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
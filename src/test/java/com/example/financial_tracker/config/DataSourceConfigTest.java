@@ -0,0 +1,46 @@
+package com.example.financial_tracker.config;
+
+import com.example.financial_tracker.datasource.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourceConfigTest {
+
+  private final MockEnvironment environment = new MockEnvironment();
+  private final DataSourceConfig.ConcurrencyLimitingPostProcessor postProcessor =
+    new DataSourceConfig.ConcurrencyLimitingPostProcessor(environment, 20, 5_000);
+
+  @Test
+  void limitFor_GivesEachPoolNoMorePermitsThanConnections() {
+    assertEquals(20, postProcessor.limitFor("interactiveDataSource", pool(30)));
+    assertEquals(4, postProcessor.limitFor("reportingDataSource", pool(4)));
+    assertEquals(10, postProcessor.limitFor("dataSource", new HikariDataSource()));
+  }
+
+  @Test
+  void limitFor_PrefersThePerPoolSetting() {
+    environment.setProperty("app.db.concurrency-limit.pools.reportingDataSource", "2");
+
+    assertEquals(2, postProcessor.limitFor("reportingDataSource", pool(4)));
+  }
+
+  @Test
+  void postProcessAfterInitialization_WrapsEachPoolWithItsOwnLimit() {
+    Object wrapped = postProcessor.postProcessAfterInitialization(pool(4), "reportingDataSource");
+
+    assertEquals(4, assertInstanceOf(ConcurrencyLimitedDataSource.class, wrapped).getAvailablePermits());
+    assertSame(wrapped, postProcessor.postProcessAfterInitialization(wrapped, "reportingDataSource"));
+    assertEquals(20, assertInstanceOf(ConcurrencyLimitedDataSource.class,
+      postProcessor.postProcessAfterInitialization(new DriverManagerDataSource(), "dataSource")).getAvailablePermits());
+  }
+
+  private static HikariDataSource pool(int size) {
+    HikariDataSource pool = new HikariDataSource();
+    pool.setMaximumPoolSize(size);
+    return pool;
+  }
+}
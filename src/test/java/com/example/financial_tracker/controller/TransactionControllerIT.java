@@ -1,29 +1,50 @@
 package com.example.financial_tracker.controller;
 
+import com.example.financial_tracker.dto.ImportResultDTO;
 import com.example.financial_tracker.dto.TransactionDTO;
 import com.example.financial_tracker.enumerations.TransactionType;
 import com.example.financial_tracker.entity.User;
 import com.example.financial_tracker.enumerations.Role;
 import com.example.financial_tracker.service.TransactionService;
 import com.example.financial_tracker.service.SavedSearchService;
+import com.example.financial_tracker.service.TransactionStreamService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -41,12 +62,22 @@ class TransactionControllerIT {
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  @Qualifier("importExecutor")
+  private AsyncTaskExecutor importExecutor;
+
   @MockBean
   private TransactionService transactionService;
 
   @MockBean
   private SavedSearchService savedSearchService;
 
+  @MockBean
+  private TransactionStreamService transactionStreamService;
+
   private User createTestUser() {
     User user = new User();
     user.setId(1L);
@@ -88,6 +119,28 @@ class TransactionControllerIT {
       .andExpect(jsonPath("$[0].description").value("Test transaction"));
   }
 
+  @Test
+  @WithMockUser(username = "test@example.com")
+  void testGetAllTransactions_StreamsNdjson() throws Exception {
+    User user = createTestUser();
+    doAnswer(invocation -> {
+      OutputStream out = invocation.getArgument(5);
+      out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+      return 2L;
+    }).when(transactionStreamService).writeNdjson(any(User.class), isNull(), isNull(), isNull(), isNull(), any());
+
+    MvcResult result = mockMvc.perform(get("/api/v1/transactions")
+        .with(user(user))
+        .accept(MediaType.APPLICATION_NDJSON))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+      .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+  }
+
   @Test
   void testGetAllTransactions_Unauthorized() throws Exception {
     mockMvc.perform(get("/api/v1/transactions")
@@ -301,4 +354,101 @@ class TransactionControllerIT {
       .andExpect(status().isOk())
       .andExpect(jsonPath("$[0].type").value("EXPENSE"));
   }
-}
\ No newline at end of file
+
+  @Test
+  @WithMockUser(username = "test@example.com")
+  void testExportCsv_StatementTimeoutReturns503() throws Exception {
+    User user = createTestUser();
+    double timedOutBefore = meterRegistry.counter("app.db.queries.timed-out").count();
+    when(transactionService.exportTransactionsToCsv(any(User.class), any()))
+        .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+    MvcResult result = mockMvc.perform(get("/api/v1/transactions/export/csv")
+        .with(user(user)))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isServiceUnavailable())
+      .andExpect(jsonPath("$.error").value("QUERY_TIMEOUT"));
+    assertEquals(timedOutBefore + 1, meterRegistry.counter("app.db.queries.timed-out").count());
+  }
+
+  @Test
+  @WithMockUser(username = "test@example.com")
+  void testImportFile_RunsOnImportExecutorAfterReleasingTheRequestThread() throws Exception {
+    User user = createTestUser();
+    List<String> importThreads = new ArrayList<>();
+    when(transactionService.importFromFile(any(User.class), any())).thenAnswer(invocation -> {
+      importThreads.add(Thread.currentThread().getName());
+      return ImportResultDTO.builder().successfulImports(3).errors(List.of()).importedTransactions(List.of()).build();
+    });
+
+    MvcResult result = mockMvc.perform(multipart("/api/v1/transactions/import/csv")
+        .file(csvFile())
+        .with(user(user)))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.successfulImports").value(3));
+    assertEquals(1, importThreads.size());
+    assertTrue(importThreads.get(0).startsWith("imports-"));
+  }
+
+  @Test
+  @WithMockUser(username = "test@example.com")
+  void testImportFile_SaturatedImportExecutorReturns503() throws Exception {
+    User user = createTestUser();
+    CountDownLatch release = new CountDownLatch(1);
+    ThreadPoolTaskExecutor pool = (ThreadPoolTaskExecutor) importExecutor;
+    Runnable block = () -> {
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+    try {
+      // Occupy every thread before filling the queue, so no idle thread can drain it afterwards.
+      for (int i = 0; i < pool.getMaxPoolSize(); i++) {
+        pool.execute(block);
+      }
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while ((pool.getActiveCount() < pool.getMaxPoolSize() || pool.getQueueSize() > 0)
+        && System.nanoTime() < deadline) {
+        Thread.sleep(5);
+      }
+      assertEquals(0, pool.getQueueSize());
+      while (pool.getQueueSize() < pool.getQueueCapacity()) {
+        pool.execute(block);
+      }
+
+      MvcResult result = mockMvc.perform(multipart("/api/v1/transactions/import/csv")
+          .file(csvFile())
+          .with(user(user)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+      // The rejection becomes the concurrent result before any interceptor runs, so MockMvc never
+      // records it as the async result; dispatch the request ourselves as the container would.
+      assertInstanceOf(TaskRejectedException.class,
+        WebAsyncUtils.getAsyncManager(result.getRequest()).getConcurrentResult());
+      MockHttpServletRequest dispatch = result.getRequest();
+      dispatch.setDispatcherType(DispatcherType.ASYNC);
+      dispatch.setAsyncStarted(false);
+
+      mockMvc.perform(servletContext -> dispatch)
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(jsonPath("$.error").value("SERVICE_BUSY"));
+    } finally {
+      release.countDown();
+    }
+  }
+
+  private static MockMultipartFile csvFile() {
+    return new MockMultipartFile("file", "transactions.csv", "text/csv",
+      "date,amount\n2024-01-01,10\n".getBytes(StandardCharsets.UTF_8));
+  }
+}
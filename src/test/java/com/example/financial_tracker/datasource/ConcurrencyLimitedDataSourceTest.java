@@ -0,0 +1,86 @@
+package com.example.financial_tracker.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitedDataSourceTest {
+
+  @Mock
+  private DataSource pool;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    lenient().when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+  }
+
+  @Test
+  void getConnection_WaitsForAPermitAndGetsItOnClose() throws Exception {
+    ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(pool, 1, 5_000);
+    Connection first = limited.getConnection();
+
+    CompletableFuture<Connection> second = CompletableFuture.supplyAsync(() -> {
+      try {
+        return limited.getConnection();
+      } catch (SQLException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (limited.getWaitingThreads() == 0 && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(1, limited.getWaitingThreads());
+    assertFalse(second.isDone());
+
+    first.close();
+
+    second.get(5, TimeUnit.SECONDS).close();
+    assertEquals(1, limited.getAvailablePermits());
+  }
+
+  @Test
+  void getConnection_TimesOutWhenNoPermitFreesUp() throws Exception {
+    ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(pool, 1, 50);
+    Connection held = limited.getConnection();
+
+    assertThrows(SQLTransientConnectionException.class, limited::getConnection);
+
+    held.close();
+    assertEquals(1, limited.getAvailablePermits());
+  }
+
+  @Test
+  void close_ReleasesThePermitOnlyOnce() throws Exception {
+    ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(pool, 2, 50);
+    Connection connection = limited.getConnection();
+
+    connection.close();
+    connection.close();
+
+    assertEquals(2, limited.getAvailablePermits());
+  }
+
+  @Test
+  void getConnection_ReleasesThePermitWhenThePoolFails() throws Exception {
+    when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+    ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(pool, 1, 50);
+
+    assertThrows(SQLException.class, limited::getConnection);
+
+    assertEquals(1, limited.getAvailablePermits());
+  }
+}
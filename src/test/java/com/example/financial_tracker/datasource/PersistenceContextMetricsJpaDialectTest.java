@@ -0,0 +1,150 @@
+package com.example.financial_tracker.datasource;
+
+import com.example.financial_tracker.entity.Category;
+import com.example.financial_tracker.entity.Transaction;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.enumerations.Role;
+import com.example.financial_tracker.enumerations.TransactionType;
+import com.example.financial_tracker.repository.CategoryRepository;
+import com.example.financial_tracker.repository.TransactionRepository;
+import com.example.financial_tracker.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.persistence.context.snapshot-sample-every=1")
+@ActiveProfiles("test")
+class PersistenceContextMetricsJpaDialectTest {
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private EntityManager sharedEntityManager;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private TransactionRepository transactionRepository;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Test
+  void readOnlyTransaction_LoadsWithoutSnapshots() {
+    User user = seed("read-only-dialect@example.com", 3);
+    DistributionSummary snapshots = meterRegistry.get("app.persistence.context.snapshots")
+      .tag("read-only", "true").summary();
+    long recordedBefore = snapshots.count();
+    double totalBefore = snapshots.totalAmount();
+
+    TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+    readOnly.setReadOnly(true);
+    readOnly.executeWithoutResult(status -> {
+      List<Transaction> loaded = transactionRepository.findAll(byUser(user));
+      assertEquals(3, loaded.size());
+      assertTrue(sharedEntityManager.unwrap(Session.class).isReadOnly(loaded.get(0)));
+    });
+
+    assertEquals(recordedBefore + 1, snapshots.count());
+    assertEquals(totalBefore, snapshots.totalAmount());
+  }
+
+  @Test
+  void readOnlyTransaction_OnPreBoundEntityManager_LeavesLaterWritesDirtyChecked() {
+    User user = seed("pre-bound-dialect@example.com", 1);
+
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+    try {
+      TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+      readOnly.setReadOnly(true);
+      Transaction loaded = readOnly.execute(status -> transactionRepository.findAll(byUser(user)).get(0));
+
+      assertFalse(entityManager.unwrap(Session.class).isDefaultReadOnly());
+      assertFalse(entityManager.unwrap(Session.class).isReadOnly(loaded));
+
+      transactionTemplate.executeWithoutResult(status -> loaded.setDescription("updated"));
+    } finally {
+      TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+      entityManager.close();
+    }
+
+    assertEquals("updated", transactionRepository.findAll(byUser(user)).get(0).getDescription());
+  }
+
+  @Test
+  void forEachMatching_LeavesPersistenceContextEmpty() {
+    User user = seed("stateless-export@example.com", 5);
+    TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+    readOnly.setReadOnly(true);
+
+    readOnly.executeWithoutResult(status -> {
+      List<String> categories = new ArrayList<>();
+      long exported = transactionRepository.forEachMatching(byUser(user), Sort.by(Sort.Direction.DESC, "date"),
+        transaction -> categories.add(transaction.getCategory().getName()));
+
+      assertEquals(5, exported);
+      assertEquals(List.of("Food", "Food", "Food", "Food", "Food"), categories);
+      assertEquals(0, sharedEntityManager.unwrap(SessionImplementor.class)
+        .getPersistenceContextInternal().getNumberOfManagedEntities());
+    });
+  }
+
+  private static Specification<Transaction> byUser(User user) {
+    return (root, query, cb) -> cb.equal(root.get("user"), user);
+  }
+
+  private User seed(String email, int transactions) {
+    User user = new User();
+    user.setName("Dialect");
+    user.setEmail(email);
+    user.setPassword("password");
+    user.setRole(Role.USER);
+    User saved = userRepository.save(user);
+
+    Category category = new Category();
+    category.setName("Food");
+    category.setColor("#00ff00");
+    category.setType(TransactionType.EXPENSE);
+    category.setUser(saved);
+    Category savedCategory = categoryRepository.save(category);
+
+    for (int i = 0; i < transactions; i++) {
+      transactionRepository.save(Transaction.builder()
+        .amount(new BigDecimal("10.00"))
+        .type(TransactionType.EXPENSE)
+        .category(savedCategory)
+        .user(saved)
+        .date(LocalDate.now().minusDays(i))
+        .build());
+    }
+    return saved;
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.financial_tracker.datasource;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryCancellationTest {
+
+  /** Runs for minutes on H2 unless it is cancelled. */
+  private static final String SLOW_QUERY =
+    "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 200000) a, SYSTEM_RANGE(1, 200000) b WHERE a.X + b.X = 7";
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void cancel_AbortsTheRunningStatementFromAnotherThread() throws Exception {
+    TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+    QueryCancellation.Task<Object> task = QueryCancellation.task(() ->
+      readOnly.execute(status -> entityManager.createNativeQuery(SLOW_QUERY).getSingleResult()));
+
+    Future<Object> result = executor.submit(task);
+    Thread.sleep(500);
+    long start = System.nanoTime();
+    task.cancel("test");
+
+    ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+    assertTrue(task.isCancelled());
+    assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5, "statement kept running after cancel");
+    assertNotNull(failure.getCause());
+  }
+
+  @Test
+  void transactionTimeout_BoundsStatementRuntime() {
+    TransactionTemplate timed = new TransactionTemplate(transactionManager);
+    timed.setReadOnly(true);
+    timed.setTimeout(1);
+
+    long start = System.nanoTime();
+    Exception failure = assertThrows(Exception.class, () ->
+      timed.execute(status -> entityManager.createNativeQuery(SLOW_QUERY).getSingleResult()));
+
+    assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5, "statement ignored the timeout");
+    assertInstanceOf(jakarta.persistence.QueryTimeoutException.class, failure, failure.toString());
+  }
+}
@@ -0,0 +1,133 @@
+package com.example.financial_tracker.datasource;
+
+import com.example.financial_tracker.entity.Transaction;
+import com.example.financial_tracker.service.UserDataChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadReplicasTest {
+
+  private final DataSource primary = h2("primary");
+  private final DataSource replica = h2("replica");
+  private final AtomicLong nanos = new AtomicLong();
+  private final ReadYourWritesGuard guard = new ReadYourWritesGuard(Duration.ofSeconds(5), nanos::get);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private ReadReplicas replicas;
+  private JdbcTemplate jdbc;
+  private TransactionTemplate readOnly;
+  private TransactionTemplate readWrite;
+
+  @BeforeEach
+  void setUp() {
+    new JdbcTemplate(primary).execute("CREATE TABLE node (name VARCHAR(20))");
+    new JdbcTemplate(primary).update("INSERT INTO node VALUES ('primary')");
+    new JdbcTemplate(replica).execute("CREATE TABLE node (name VARCHAR(20))");
+    new JdbcTemplate(replica).update("INSERT INTO node VALUES ('replica')");
+    new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (seconds INT)");
+    new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (0)");
+
+    Map<String, DataSource> targets = new LinkedHashMap<>();
+    targets.put("down", new DriverManagerDataSource("jdbc:h2:mem:no-such-replica;IFEXISTS=TRUE", "sa", ""));
+    targets.put("replica", replica);
+    replicas = new ReadReplicas(targets, guard, "SELECT seconds FROM replica_lag", Duration.ofSeconds(5));
+    replicas.bindTo(registry);
+
+    DataSource routed = replicas.wrap(primary);
+    jdbc = new JdbcTemplate(routed);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routed);
+    readWrite = new TransactionTemplate(transactionManager);
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+    new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    DataOwnerContext.restore(null);
+  }
+
+  @Test
+  void readOnlyTransactions_GoToAHealthyReplica() {
+    assertEquals("replica", readNode(readOnly));
+    assertEquals("replica", readNode(readOnly));
+    assertEquals("primary", readNode(readWrite));
+    assertEquals(0, registry.get("app.db.replica.healthy").tag("replica", "down").gauge().value());
+    assertEquals(1, registry.get("app.db.replica.healthy").tag("replica", "replica").gauge().value());
+  }
+
+  @Test
+  void laggingReplica_FallsBackToPrimaryUntilItCatchesUp() {
+    new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 30");
+    replicas.checkHealth();
+    assertEquals("primary", readNode(readOnly));
+    assertEquals(1, registry.get("app.db.replica.fallbacks").tag("reason", "unavailable").counter().count());
+
+    new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 0");
+    replicas.checkHealth();
+    assertEquals("replica", readNode(readOnly));
+  }
+
+  @Test
+  void writer_ReadsFromPrimaryForTheWindow() {
+    signIn(7L);
+    guard.onUserDataChanged(new UserDataChangedEvent(7L, Transaction.class, null, null));
+    assertEquals("primary", readNode(readOnly));
+
+    signIn(8L);
+    assertEquals("replica", readNode(readOnly));
+
+    signIn(7L);
+    nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+    assertEquals("replica", readNode(readOnly));
+    assertEquals(1, registry.get("app.db.replica.fallbacks").tag("reason", "read-your-writes").counter().count());
+  }
+
+  @Test
+  void writer_ReadsFromPrimaryOnThreadsTheWorkIsHandedTo() throws Exception {
+    guard.onUserDataChanged(new UserDataChangedEvent(7L, Transaction.class, null, null));
+    signIn(7L);
+
+    Callable<String> propagated = DataOwnerContext.propagate(() -> readNode(readOnly));
+    String node = CompletableFuture.supplyAsync(() -> {
+      try {
+        return propagated.call();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }).get();
+    String unboundNode = CompletableFuture.supplyAsync(() -> readNode(readOnly)).get();
+
+    assertEquals("primary", node);
+    assertEquals("replica", unboundNode);
+  }
+
+  private String readNode(TransactionTemplate template) {
+    return template.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+  }
+
+  private static void signIn(Long userId) {
+    DataOwnerContext.enter(userId);
+  }
+
+  private static DataSource h2(String name) {
+    return new DriverManagerDataSource("jdbc:h2:mem:" + name + "-replica-test;DB_CLOSE_DELAY=-1", "sa", "");
+  }
+}
@@ -0,0 +1,113 @@
+package com.example.financial_tracker.datasource;
+
+import com.example.financial_tracker.entity.Transaction;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.enumerations.Role;
+import com.example.financial_tracker.service.UserDataChangedEvent;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The replica is the test database itself, reached through a URL that tags its
+ * connections, so a write that reused the connection of an earlier read-only
+ * transaction in the same request would report the replica.
+ */
+@SpringBootTest(properties = {
+  "app.db.replicas.enabled=true",
+  "app.db.replicas.targets[0].url=jdbc:h2:mem:testdb;INIT=SET @pool = 'replica'",
+  "app.db.replicas.lag-query="
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingIT {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ReadYourWritesGuard guard;
+
+  @Test
+  @WithMockUser(username = "test@example.com")
+  void writeTransaction_AfterReadOnlyOneInSameRequest_UsesPrimary() throws Exception {
+    mockMvc.perform(get("/api/v1/test/replicas"))
+      .andExpect(status().isOk())
+      .andExpect(content().string("replica,null,replica"));
+  }
+
+  @Test
+  void readOnlyTransactions_OfAUserWhoJustWrote_UsePrimary() throws Exception {
+    User writer = User.builder().id(4242L).email("writer@example.com").role(Role.USER).build();
+    guard.onUserDataChanged(new UserDataChangedEvent(writer.getId(), Transaction.class, null, null));
+
+    mockMvc.perform(get("/api/v1/test/replicas").with(user(writer)))
+      .andExpect(status().isOk())
+      .andExpect(content().string("null,null,null"));
+  }
+
+  @TestConfiguration
+  static class Probes {
+
+    @Bean
+    NodeProbe nodeProbe(EntityManager entityManager) {
+      return new NodeProbe(entityManager);
+    }
+
+    @Bean
+    NodeProbeController nodeProbeController(NodeProbe nodeProbe) {
+      return new NodeProbeController(nodeProbe);
+    }
+  }
+
+  static class NodeProbe {
+    private final EntityManager entityManager;
+
+    NodeProbe(EntityManager entityManager) {
+      this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public String read() {
+      return pool();
+    }
+
+    @Transactional
+    public String write() {
+      return pool();
+    }
+
+    private String pool() {
+      return String.valueOf(entityManager.createNativeQuery("SELECT @pool").getSingleResult());
+    }
+  }
+
+  @RestController
+  static class NodeProbeController {
+    private final NodeProbe nodeProbe;
+
+    NodeProbeController(NodeProbe nodeProbe) {
+      this.nodeProbe = nodeProbe;
+    }
+
+    @GetMapping("/api/v1/test/replicas")
+    String nodes() {
+      return nodeProbe.read() + "," + nodeProbe.write() + "," + nodeProbe.read();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.financial_tracker.datasource;
+
+import com.example.financial_tracker.config.WorkloadDataSourceConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WorkloadRoutingDataSourceTest {
+
+  private final DataSource interactive = mock(DataSource.class);
+  private final DataSource reporting = mock(DataSource.class);
+  private final Connection interactiveConnection = mock(Connection.class);
+  private final Connection reportingConnection = mock(Connection.class);
+
+  private final WorkloadRoutingDataSource routing =
+    new WorkloadRoutingDataSource(interactive, Map.of(Workload.REPORTING, reporting));
+
+  @Test
+  void annotatedMethods_DrawFromTheirWorkloadPool() throws Exception {
+    when(interactive.getConnection()).thenReturn(interactiveConnection);
+    when(reporting.getConnection()).thenReturn(reportingConnection);
+    Jobs jobs = proxy(new Jobs());
+
+    assertSame(reportingConnection, jobs.export());
+    assertSame(interactiveConnection, jobs.lookup());
+    assertSame(interactiveConnection, routing.getConnection());
+    assertNull(WorkloadContext.current());
+  }
+
+  @Test
+  void classLevelAnnotation_AppliesUnlessMethodOverrides() throws Exception {
+    when(interactive.getConnection()).thenReturn(interactiveConnection);
+    when(reporting.getConnection()).thenReturn(reportingConnection);
+    ReportJobs jobs = proxy(new ReportJobs());
+
+    assertSame(reportingConnection, jobs.report());
+    assertSame(interactiveConnection, jobs.quickCheck());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(T target) {
+    ProxyFactory factory = new ProxyFactory(target);
+    factory.setProxyTargetClass(true);
+    factory.addAdvisor(WorkloadDataSourceConfig.workloadClassAdvisor());
+    return (T) factory.getProxy();
+  }
+
+  class Jobs {
+    @WorkloadClass(Workload.REPORTING)
+    public Connection export() throws Exception {
+      return routing.getConnection();
+    }
+
+    public Connection lookup() throws Exception {
+      return routing.getConnection();
+    }
+  }
+
+  @WorkloadClass(Workload.REPORTING)
+  class ReportJobs {
+    public Connection report() throws Exception {
+      return routing.getConnection();
+    }
+
+    @WorkloadClass(Workload.INTERACTIVE)
+    public Connection quickCheck() throws Exception {
+      return routing.getConnection();
+    }
+  }
+}
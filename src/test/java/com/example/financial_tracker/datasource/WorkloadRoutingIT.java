@@ -0,0 +1,92 @@
+package com.example.financial_tracker.datasource;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Goes through the full MVC stack, so a request-scoped EntityManager holding one
+ * connection for the whole request would show up as the reporting transaction
+ * running on the interactive pool.
+ */
+@SpringBootTest(properties = "app.db.workloads.reporting.connection-init-sql=SET @pool = 'reporting'")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class WorkloadRoutingIT {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  @WithMockUser(username = "test@example.com")
+  void reportingTransaction_AfterInteractiveOneInSameRequest_UsesReportingPool() throws Exception {
+    mockMvc.perform(get("/api/v1/test/pools"))
+      .andExpect(status().isOk())
+      .andExpect(content().string("null,reporting,null"));
+  }
+
+  @TestConfiguration
+  static class Probes {
+
+    @Bean
+    PoolProbe poolProbe(EntityManager entityManager) {
+      return new PoolProbe(entityManager);
+    }
+
+    @Bean
+    PoolProbeController poolProbeController(PoolProbe poolProbe) {
+      return new PoolProbeController(poolProbe);
+    }
+  }
+
+  static class PoolProbe {
+    private final EntityManager entityManager;
+
+    PoolProbe(EntityManager entityManager) {
+      this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public String interactive() {
+      return pool();
+    }
+
+    @Transactional(readOnly = true)
+    @WorkloadClass(Workload.REPORTING)
+    public String reporting() {
+      return pool();
+    }
+
+    private String pool() {
+      return String.valueOf(entityManager.createNativeQuery("SELECT @pool").getSingleResult());
+    }
+  }
+
+  @RestController
+  static class PoolProbeController {
+    private final PoolProbe poolProbe;
+
+    PoolProbeController(PoolProbe poolProbe) {
+      this.poolProbe = poolProbe;
+    }
+
+    @GetMapping("/api/v1/test/pools")
+    String pools() {
+      return poolProbe.interactive() + "," + poolProbe.reporting() + "," + poolProbe.interactive();
+    }
+  }
+}
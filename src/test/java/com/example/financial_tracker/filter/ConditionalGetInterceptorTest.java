@@ -0,0 +1,84 @@
+package com.example.financial_tracker.filter;
+
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.service.CurrencyService;
+import com.example.financial_tracker.service.ExchangeRateMatrix;
+import com.example.financial_tracker.service.InMemoryDataVersionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConditionalGetInterceptorTest {
+
+  private final InMemoryDataVersionStore versionStore = new InMemoryDataVersionStore();
+  private ConditionalGetInterceptor interceptor;
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    CurrencyService currencyService = mock(CurrencyService.class);
+    when(currencyService.getRateMatrix()).thenReturn(ExchangeRateMatrix.build(List.of(), LocalDateTime.of(2024, 1, 1, 0, 0)));
+    interceptor = new ConditionalGetInterceptor(versionStore, currencyService);
+
+    user = new User();
+    user.setId(42L);
+    SecurityContextHolder.getContext().setAuthentication(
+      new UsernamePasswordAuthenticationToken(user, null, List.of()));
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void preHandle_Returns304WhileVersionIsUnchanged() {
+    MockHttpServletResponse first = new MockHttpServletResponse();
+    assertTrue(interceptor.preHandle(get("/api/v1/dashboard", null), first, null));
+    String etag = first.getHeader("ETag");
+    assertNotNull(etag);
+
+    MockHttpServletResponse second = new MockHttpServletResponse();
+    assertFalse(interceptor.preHandle(get("/api/v1/dashboard", etag), second, null));
+    assertEquals(304, second.getStatus());
+
+    versionStore.bump(user.getId());
+    MockHttpServletResponse third = new MockHttpServletResponse();
+    assertTrue(interceptor.preHandle(get("/api/v1/dashboard", etag), third, null));
+    assertNotEquals(etag, third.getHeader("ETag"));
+  }
+
+  @Test
+  void etag_DependsOnQueryParametersButNotTheirOrder() {
+    MockHttpServletRequest march = get("/api/v1/analytics/full", null);
+    march.addParameter("startDate", "2024-03-01");
+    march.addParameter("endDate", "2024-03-31");
+    MockHttpServletRequest reordered = get("/api/v1/analytics/full", null);
+    reordered.addParameter("endDate", "2024-03-31");
+    reordered.addParameter("startDate", "2024-03-01");
+    MockHttpServletRequest april = get("/api/v1/analytics/full", null);
+    april.addParameter("startDate", "2024-04-01");
+    april.addParameter("endDate", "2024-04-30");
+
+    assertEquals(interceptor.etag(march, user), interceptor.etag(reordered, user));
+    assertNotEquals(interceptor.etag(march, user), interceptor.etag(april, user));
+  }
+
+  private static MockHttpServletRequest get(String uri, String ifNoneMatch) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+    if (ifNoneMatch != null) {
+      request.addHeader("If-None-Match", ifNoneMatch);
+    }
+    return request;
+  }
+}
@@ -0,0 +1,99 @@
+package com.example.financial_tracker.scheduler;
+
+import com.example.financial_tracker.dto.OutgoingEmail;
+import com.example.financial_tracker.entity.EmailHistory;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.service.BulkMailSender;
+import com.example.financial_tracker.service.ReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportMailPipelineTest {
+
+  @Mock
+  private BulkMailSender bulkMailSender;
+
+  @Mock
+  private ReportService.ReportBatch<String> reports;
+
+  private ReportMailPipeline pipeline;
+
+  @BeforeEach
+  void setUp() {
+    pipeline = new ReportMailPipeline(bulkMailSender, Runnable::run);
+    ReflectionTestUtils.setField(pipeline, "pageSize", 2);
+    lenient().when(reports.forUser(any(User.class))).thenAnswer(invocation ->
+      "report for " + invocation.<User>getArgument(0).getEmail());
+  }
+
+  @Test
+  void run_SendsEachPageOfUsersAsItIsFetched() {
+    Map<Long, List<User>> pages = Map.of(0L, List.of(user(1L), user(2L)), 2L, List.of(user(3L)));
+    List<Long> fetchedAfter = new ArrayList<>();
+    when(bulkMailSender.send(any())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+    pipeline.run("weekly", () -> reports, (afterId, size) -> {
+      fetchedAfter.add(afterId);
+      return pages.getOrDefault(afterId, List.of());
+    }, ReportMailPipelineTest::render);
+
+    assertEquals(List.of(0L, 2L), fetchedAfter);
+    assertEquals(List.of(List.of("user1@example.com", "user2@example.com"), List.of("user3@example.com")),
+      sentPages());
+  }
+
+  @Test
+  void run_LeavesOutUsersWhoseReportFailsToRender() {
+    when(bulkMailSender.send(any())).thenReturn(1);
+
+    pipeline.run("weekly", () -> reports, (afterId, size) -> afterId == 0L ? List.of(user(1L), user(2L)) : List.of(),
+      (user, report) -> {
+        if (user.getId() == 1L) {
+          throw new IllegalStateException("template failed");
+        }
+        return render(user, report);
+      });
+
+    assertEquals(List.of(List.of("user2@example.com")), sentPages());
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<List<String>> sentPages() {
+    ArgumentCaptor<List<OutgoingEmail>> pages = ArgumentCaptor.forClass(List.class);
+    verify(bulkMailSender, atLeastOnce()).send(pages.capture());
+    return pages.getAllValues().stream()
+      .map(page -> page.stream().map(OutgoingEmail::getTo).toList())
+      .toList();
+  }
+
+  private static OutgoingEmail render(User user, String report) {
+    return OutgoingEmail.builder()
+      .to(user.getEmail())
+      .subject("Your weekly report")
+      .htmlContent("<p>" + report + "</p>")
+      .type(EmailHistory.EmailType.WEEKLY_REPORT)
+      .user(user)
+      .build();
+  }
+
+  private static User user(Long id) {
+    User user = new User();
+    user.setId(id);
+    user.setEmail("user" + id + "@example.com");
+    return user;
+  }
+}
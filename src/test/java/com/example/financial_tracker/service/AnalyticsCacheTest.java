@@ -0,0 +1,119 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.cache.InMemoryCacheInvalidationBus;
+import com.example.financial_tracker.config.CacheConfig;
+import com.example.financial_tracker.dto.MonthlyStatsDTO;
+import com.example.financial_tracker.entity.Category;
+import com.example.financial_tracker.entity.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsCacheTest {
+
+  private final AnalyticsCache analyticsCache = new AnalyticsCache(
+    new CacheConfig().analyticsResultCache(1000, Duration.ofDays(7), Duration.ofMinutes(5)),
+    new InMemoryCacheInvalidationBus(), Duration.ofDays(7));
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  void transactionWrite_EvictsOnlyRangesCoveringItsMonth() {
+    AnalyticsCacheKey january = key(1L, AnalyticsCacheKey.Kind.MONTHLY, "2024-01-01", "2024-01-31");
+    AnalyticsCacheKey march = key(1L, AnalyticsCacheKey.Kind.MONTHLY, "2024-03-01", "2024-03-31");
+    AnalyticsCacheKey otherUser = key(2L, AnalyticsCacheKey.Kind.MONTHLY, "2024-01-01", "2024-01-31");
+    AnalyticsCacheKey full = key(1L, AnalyticsCacheKey.Kind.FULL, "2024-03-01", "2024-03-31");
+    List.of(january, march, otherUser, full).forEach(this::load);
+    assertEquals(4, loads.get());
+
+    analyticsCache.onUserDataChanged(new UserDataChangedEvent(1L, Transaction.class,
+      LocalDate.of(2024, 1, 15), null));
+    List.of(january, march, otherUser, full).forEach(this::load);
+
+    assertEquals(6, loads.get());
+  }
+
+  @Test
+  void transactionMovedBetweenMonths_EvictsBothMonths() {
+    AnalyticsCacheKey january = key(1L, AnalyticsCacheKey.Kind.MONTHLY, "2024-01-01", "2024-01-31");
+    AnalyticsCacheKey february = key(1L, AnalyticsCacheKey.Kind.MONTHLY, "2024-02-01", "2024-02-29");
+    load(january);
+    load(february);
+
+    analyticsCache.onUserDataChanged(new UserDataChangedEvent(1L, Transaction.class,
+      LocalDate.of(2024, 2, 3), LocalDate.of(2024, 1, 20)));
+    load(january);
+    load(february);
+
+    assertEquals(4, loads.get());
+  }
+
+  @Test
+  void get_DoesNotKeepResultComputedAcrossAnEviction() {
+    AnalyticsCacheKey january = key(1L, AnalyticsCacheKey.Kind.MONTHLY, "2024-01-01", "2024-01-31");
+    analyticsCache.get(january, () -> {
+      analyticsCache.onUserDataChanged(new UserDataChangedEvent(1L, Category.class, null, null));
+      return List.of();
+    });
+
+    load(january);
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void exchangeRatesChanged_EvictsOnlyEntriesCoveringTheCurrentMonth() {
+    AnalyticsCacheKey january = key(1L, AnalyticsCacheKey.Kind.MONTHLY, "2024-01-01", "2024-01-31");
+    AnalyticsCacheKey current = currentMonth(1L);
+    AnalyticsCacheKey otherUser = currentMonth(2L);
+    List.of(january, current, otherUser).forEach(this::load);
+
+    analyticsCache.onExchangeRatesChanged(new ExchangeRatesChangedEvent());
+    List.of(january, current, otherUser).forEach(this::load);
+
+    assertEquals(5, loads.get());
+  }
+
+  @Test
+  void get_DoesNotKeepCurrentResultComputedAcrossARateChange() {
+    AnalyticsCacheKey january = key(1L, AnalyticsCacheKey.Kind.MONTHLY, "2024-01-01", "2024-01-31");
+    AnalyticsCacheKey current = currentMonth(1L);
+    for (AnalyticsCacheKey key : List.of(january, current)) {
+      analyticsCache.get(key, () -> {
+        analyticsCache.onExchangeRatesChanged(new ExchangeRatesChangedEvent());
+        return List.of();
+      });
+    }
+
+    load(january);
+    load(current);
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void weigh_CountsDtoRows() {
+    assertEquals(3, AnalyticsCache.weigh(List.of(new MonthlyStatsDTO(), new MonthlyStatsDTO())));
+    assertTrue(key(1L, AnalyticsCacheKey.Kind.MONTHLY, "2024-01-01", "2024-01-31").isClosedPast(LocalDate.of(2024, 2, 1)));
+    assertFalse(key(1L, AnalyticsCacheKey.Kind.FULL, "2024-01-01", "2024-01-31").isClosedPast(LocalDate.of(2024, 2, 1)));
+  }
+
+  private void load(AnalyticsCacheKey key) {
+    analyticsCache.get(key, () -> {
+      loads.incrementAndGet();
+      return List.of();
+    });
+  }
+
+  private static AnalyticsCacheKey currentMonth(Long userId) {
+    LocalDate today = LocalDate.now();
+    return new AnalyticsCacheKey(userId, AnalyticsCacheKey.Kind.MONTHLY, today.withDayOfMonth(1),
+      today.withDayOfMonth(today.lengthOfMonth()), 0, "USD/-");
+  }
+
+  private static AnalyticsCacheKey key(Long userId, AnalyticsCacheKey.Kind kind, String start, String end) {
+    return new AnalyticsCacheKey(userId, kind, LocalDate.parse(start), LocalDate.parse(end), 0, "USD/-");
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.entity.Category;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.enumerations.Role;
+import com.example.financial_tracker.enumerations.TransactionType;
+import com.example.financial_tracker.repository.CategoryRepository;
+import com.example.financial_tracker.repository.UserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds one user with {@code rows} transactions for database-backed benchmarks.
+ * Amounts run from 1.00 to 1000.00; every fourth row is income.
+ */
+final class BenchmarkData {
+
+  private BenchmarkData() {
+  }
+
+  static User seed(UserRepository userRepository, CategoryRepository categoryRepository,
+                   JdbcTemplate jdbcTemplate, String email, int rows) {
+    User user = new User();
+    user.setName("Benchmark");
+    user.setEmail(email);
+    user.setPassword("password");
+    user.setRole(Role.USER);
+    user = userRepository.save(user);
+
+    Category category = new Category();
+    category.setName("Benchmark");
+    category.setColor("#000000");
+    category.setType(TransactionType.EXPENSE);
+    category.setUser(user);
+    category = categoryRepository.save(category);
+
+    List<Object[]> batch = new ArrayList<>(rows);
+    LocalDate today = LocalDate.now();
+    for (int i = 0; i < rows; i++) {
+      batch.add(new Object[]{
+        BigDecimal.valueOf(100 + (i % 99_901), 2),
+        "USD",
+        i % 4 == 0 ? "INCOME" : "EXPENSE",
+        category.getId(),
+        user.getId(),
+        Date.valueOf(today.minusDays(i % 365)),
+        "Transaction " + i
+      });
+    }
+    jdbcTemplate.batchUpdate("INSERT INTO transactions "
+      + "(amount, currency, transaction_type, category_id, user_id, date, description, created_at) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", batch);
+    return user;
+  }
+}
@@ -0,0 +1,143 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.dto.OutgoingEmail;
+import com.example.financial_tracker.entity.EmailHistory;
+import com.example.financial_tracker.entity.User;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkMailSenderTest {
+
+  @RegisterExtension
+  static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+  @Mock
+  private EmailOutboxService emailOutboxService;
+
+  @Mock
+  private EmailQuotaService emailQuotaService;
+
+  @Mock
+  private EmailHistoryWriter emailHistoryWriter;
+
+  private JavaMailSenderImpl mailSender;
+  private BulkMailSender bulkMailSender;
+  private final List<EmailHistory> written = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    mailSender = spy(new JavaMailSenderImpl());
+    mailSender.setHost("localhost");
+    mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+    EmailService emailService = new EmailService(mailSender, null, emailOutboxService, null);
+    ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@test.com");
+    ReflectionTestUtils.setField(emailService, "fromName", "Test App");
+
+    bulkMailSender = new BulkMailSender(mailSender, emailService, emailQuotaService, emailHistoryWriter,
+      emailOutboxService);
+    ReflectionTestUtils.setField(bulkMailSender, "batchSize", 2);
+    ReflectionTestUtils.setField(bulkMailSender, "ratePerSecond", 1000.0);
+    ReflectionTestUtils.setField(bulkMailSender, "quotaRetrySeconds", 600L);
+
+    lenient().doAnswer(invocation -> written.addAll(invocation.getArgument(0)))
+      .when(emailHistoryWriter).writeAll(anyCollection());
+  }
+
+  @Test
+  void send_DefersEmailsTheQuotaCannotCoverToTheOutbox() {
+    when(emailQuotaService.tryAcquire()).thenReturn(true, false);
+    List<OutgoingEmail> emails = List.of(email("a@example.com"), email("b@example.com"), email("c@example.com"));
+
+    assertEquals(1, bulkMailSender.send(emails));
+
+    assertEquals(1, greenMail.getReceivedMessages().length);
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<OutgoingEmail>> deferred = ArgumentCaptor.forClass(List.class);
+    verify(emailOutboxService, times(2)).enqueueAll(deferred.capture(), eq(Duration.ofSeconds(600)));
+    assertEquals(List.of("b@example.com", "c@example.com"),
+      deferred.getAllValues().stream().flatMap(Collection::stream).map(OutgoingEmail::getTo).toList());
+    assertEquals(1, written.size());
+    assertEquals(EmailHistory.EmailStatus.SENT, written.get(0).getStatus());
+  }
+
+  @Test
+  void send_SendsEachBatchOverOneCall() {
+    when(emailQuotaService.tryAcquire()).thenReturn(true);
+    List<OutgoingEmail> emails = List.of(email("a@example.com"), email("b@example.com"), email("c@example.com"),
+      email("d@example.com"), email("e@example.com"));
+
+    assertEquals(5, bulkMailSender.send(emails));
+
+    verify(mailSender, times(3)).send(any(MimeMessage[].class));
+    verify(emailHistoryWriter, times(3)).writeAll(anyCollection());
+    assertEquals(5, greenMail.getReceivedMessages().length);
+    assertTrue(written.stream().allMatch(history -> history.getStatus() == EmailHistory.EmailStatus.SENT));
+  }
+
+  @Test
+  void send_FailsOnlyTheRejectedMessageOfABatch() {
+    when(emailQuotaService.tryAcquire()).thenReturn(true);
+    doAnswer(invocation -> {
+      Map<Object, Exception> failed = new LinkedHashMap<>();
+      List<MimeMessage> accepted = new ArrayList<>();
+      for (Object argument : invocation.getArguments()) {
+        MimeMessage message = (MimeMessage) argument;
+        if (message.getAllRecipients()[0].toString().equals("bad@example.com")) {
+          failed.put(message, new MessagingException("550 mailbox unavailable"));
+        } else {
+          accepted.add(message);
+        }
+      }
+      mailSender.send(accepted.toArray(new MimeMessage[0]));
+      throw new MailSendException(failed);
+    }).doCallRealMethod().when(mailSender).send(any(MimeMessage[].class));
+
+    assertEquals(1, bulkMailSender.send(List.of(email("good@example.com"), email("bad@example.com"))));
+
+    assertEquals(1, greenMail.getReceivedMessages().length);
+    verify(emailQuotaService, times(1)).release();
+    Map<String, EmailHistory> byRecipient = new LinkedHashMap<>();
+    written.forEach(history -> byRecipient.put(history.getRecipient(), history));
+    assertEquals(EmailHistory.EmailStatus.SENT, byRecipient.get("good@example.com").getStatus());
+    assertNotNull(byRecipient.get("good@example.com").getSentAt());
+    assertEquals(EmailHistory.EmailStatus.FAILED, byRecipient.get("bad@example.com").getStatus());
+    assertEquals("Mail error: 550 mailbox unavailable", byRecipient.get("bad@example.com").getErrorMessage());
+  }
+
+  private static OutgoingEmail email(String to) {
+    User user = new User();
+    user.setId(7L);
+    return OutgoingEmail.builder()
+      .to(to)
+      .subject("Your weekly report")
+      .htmlContent("<p>Report</p>")
+      .type(EmailHistory.EmailType.WEEKLY_REPORT)
+      .user(user)
+      .build();
+  }
+}
@@ -0,0 +1,137 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.dto.CashFlowForecastDTO;
+import com.example.financial_tracker.entity.Category;
+import com.example.financial_tracker.entity.RecurringTransaction;
+import com.example.financial_tracker.entity.Transaction;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.enumerations.RecurrenceFrequency;
+import com.example.financial_tracker.enumerations.TransactionType;
+import com.example.financial_tracker.exception.BadRequestException;
+import com.example.financial_tracker.repository.RecurringTransactionRepository;
+import com.example.financial_tracker.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CashFlowForecastServiceTest {
+
+  @Mock
+  private TransactionRepository transactionRepository;
+
+  @Mock
+  private RecurringTransactionRepository recurringTransactionRepository;
+
+  private CashFlowForecastService cashFlowForecastService;
+  private User testUser;
+  private LocalDate today;
+
+  @BeforeEach
+  void setUp() {
+    cashFlowForecastService = new CashFlowForecastService(
+      transactionRepository, recurringTransactionRepository, new ConcurrentMapCacheManager("cashFlowForecasts"));
+
+    testUser = new User();
+    testUser.setId(1L);
+    testUser.setEmail("test@example.com");
+    today = LocalDate.now();
+  }
+
+  @Test
+  void getForecast_ExpandsSchedulesIntoDailyBalance() {
+    List<Object[]> schedules = new ArrayList<>();
+    schedules.add(new Object[]{BigDecimal.valueOf(10.50), TransactionType.EXPENSE, RecurrenceFrequency.DAILY,
+      today, null, null, null});
+    schedules.add(new Object[]{BigDecimal.valueOf(100), TransactionType.INCOME, RecurrenceFrequency.WEEKLY,
+      today.plusDays(3), null, null, null});
+
+    when(transactionRepository.calculateBalanceByUser(testUser)).thenReturn(BigDecimal.valueOf(1000));
+    when(recurringTransactionRepository.findForecastSchedules(eq(testUser), eq(today), any())).thenReturn(schedules);
+
+    CashFlowForecastDTO result = cashFlowForecastService.getForecast(testUser, 30);
+
+    assertEquals(31, result.getDailyBalances().size());
+    assertEquals(today.plusDays(30), result.getEndDate());
+    assertEquals(0, new BigDecimal("989.50").compareTo(result.getDailyBalances().get(0).getBalance()));
+    assertEquals(0, new BigDecimal("1058.00").compareTo(result.getDailyBalances().get(3).getBalance()));
+    assertEquals(0, new BigDecimal("325.50").compareTo(result.getProjectedExpense()));
+    assertEquals(0, new BigDecimal("400").compareTo(result.getProjectedIncome()));
+    assertEquals(0, new BigDecimal("1074.50").compareTo(result.getEndingBalance()));
+    assertEquals(today.plusDays(2), result.getLowestBalanceDate());
+  }
+
+  @Test
+  void getForecast_RespectsEndDateAndOverdueSchedules() {
+    List<Object[]> schedules = new ArrayList<>();
+    schedules.add(new Object[]{BigDecimal.valueOf(50), TransactionType.EXPENSE, RecurrenceFrequency.DAILY,
+      today.minusDays(5), today.plusDays(1), null, null});
+
+    when(transactionRepository.calculateBalanceByUser(testUser)).thenReturn(null);
+    when(recurringTransactionRepository.findForecastSchedules(eq(testUser), eq(today), any())).thenReturn(schedules);
+
+    CashFlowForecastDTO result = cashFlowForecastService.getForecast(testUser, 90);
+
+    assertEquals(0, new BigDecimal("-100").compareTo(result.getEndingBalance()));
+    assertEquals(0, new BigDecimal("50").compareTo(result.getDailyBalances().get(0).getExpense()));
+  }
+
+  @Test
+  void getForecast_ReusesCachedForecastForShorterHorizons() {
+    when(transactionRepository.calculateBalanceByUser(testUser)).thenReturn(BigDecimal.ZERO);
+    when(recurringTransactionRepository.findForecastSchedules(any(), any(), any())).thenReturn(List.of());
+
+    cashFlowForecastService.getForecast(testUser, 365);
+    CashFlowForecastDTO result = cashFlowForecastService.getForecast(testUser, 90);
+
+    assertEquals(90, result.getHorizonDays());
+    verify(recurringTransactionRepository, times(1)).findForecastSchedules(any(), any(), any());
+  }
+
+  @Test
+  void onUserDataChanged_RebuildsForecastAfterTransactionAndScheduleWrites() {
+    when(transactionRepository.calculateBalanceByUser(testUser)).thenReturn(BigDecimal.ZERO);
+    when(recurringTransactionRepository.findForecastSchedules(any(), any(), any())).thenReturn(List.of());
+
+    cashFlowForecastService.getForecast(testUser, 30);
+    cashFlowForecastService.onUserDataChanged(new UserDataChangedEvent(1L, Category.class, null, null));
+    cashFlowForecastService.getForecast(testUser, 30);
+    cashFlowForecastService.onUserDataChanged(new UserDataChangedEvent(1L, Transaction.class, today, null));
+    cashFlowForecastService.getForecast(testUser, 30);
+    cashFlowForecastService.onUserDataChanged(new UserDataChangedEvent(1L, RecurringTransaction.class, null, null));
+    cashFlowForecastService.getForecast(testUser, 30);
+
+    verify(recurringTransactionRepository, times(3)).findForecastSchedules(any(), any(), any());
+  }
+
+  @Test
+  void getForecast_DoesNotKeepForecastBuiltAcrossAWrite() {
+    when(transactionRepository.calculateBalanceByUser(testUser)).thenAnswer(invocation -> {
+      cashFlowForecastService.onUserDataChanged(new UserDataChangedEvent(1L, Transaction.class, today, null));
+      return BigDecimal.ZERO;
+    }).thenReturn(BigDecimal.TEN);
+    when(recurringTransactionRepository.findForecastSchedules(any(), any(), any())).thenReturn(List.of());
+
+    cashFlowForecastService.getForecast(testUser, 30);
+
+    assertEquals(0, BigDecimal.TEN.compareTo(cashFlowForecastService.getForecast(testUser, 30).getStartingBalance()));
+  }
+
+  @Test
+  void getForecast_InvalidHorizon_ThrowsException() {
+    assertThrows(BadRequestException.class, () -> cashFlowForecastService.getForecast(testUser, 0));
+    assertThrows(BadRequestException.class, () -> cashFlowForecastService.getForecast(testUser, 366));
+  }
+}
@@ -0,0 +1,102 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.entity.ExchangeRate;
+import com.example.financial_tracker.enumerations.Currency;
+import com.example.financial_tracker.repository.ExchangeRateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrencyServiceTest {
+
+  @Mock
+  private ExchangeRateRepository exchangeRateRepository;
+
+  @Mock
+  private ExchangeRateIngestionService exchangeRateIngestionService;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private CurrencyService currencyService;
+
+  @BeforeEach
+  void setUp() {
+    FileExchangeRateProvider provider = new FileExchangeRateProvider(new ObjectMapper());
+    ReflectionTestUtils.setField(provider, "ratesFile", new ClassPathResource("exchange-rates.json"));
+
+    currencyService = new CurrencyService(exchangeRateRepository, provider, exchangeRateIngestionService, eventPublisher,
+      Runnable::run);
+    ReflectionTestUtils.setField(currencyService, "baseCurrencies", List.of(Currency.USD, Currency.EUR, Currency.PLN));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void updateExchangeRates_StoresAllBasesInOneBatchAndSwapsMatrix() {
+    when(exchangeRateIngestionService.store(anyMap(), eq("FILE"), any())).thenReturn(8);
+    when(exchangeRateRepository.findAllCurrentRates(any())).thenReturn(List.of(
+      rate(Currency.USD, Currency.EUR, "0.92"),
+      rate(Currency.USD, Currency.UAH, "41.25")));
+
+    currencyService.updateExchangeRates();
+
+    ArgumentCaptor<Map<Currency, Map<Currency, BigDecimal>>> captor = ArgumentCaptor.forClass(Map.class);
+    verify(exchangeRateIngestionService).store(captor.capture(), eq("FILE"), any(LocalDateTime.class));
+    Map<Currency, Map<Currency, BigDecimal>> stored = captor.getValue();
+    assertEquals(5, stored.get(Currency.USD).size());
+    assertFalse(stored.get(Currency.USD).containsKey(Currency.USD));
+    assertEquals(new BigDecimal("44.83"), stored.get(Currency.EUR).get(Currency.UAH));
+    assertTrue(stored.get(Currency.PLN).isEmpty());
+
+    assertEquals(new BigDecimal("44.84"), currencyService.convert(new BigDecimal("1"), Currency.EUR, Currency.UAH));
+    verify(exchangeRateRepository, times(1)).findAllCurrentRates(any());
+  }
+
+  @Test
+  void getExchangeRate_LoadsMatrixOnceAndServesFromMemory() {
+    when(exchangeRateRepository.findAllCurrentRates(any())).thenReturn(List.of(rate(Currency.USD, Currency.EUR, "0.92")));
+
+    assertEquals(new BigDecimal("0.92"), currencyService.getExchangeRate(Currency.USD, Currency.EUR));
+    assertEquals(new BigDecimal("1.086957"), currencyService.getExchangeRate(Currency.EUR, Currency.USD));
+    assertEquals(new BigDecimal("9.20"), currencyService.convert(BigDecimal.TEN, Currency.USD, Currency.EUR));
+
+    verify(exchangeRateRepository, times(1)).findAllCurrentRates(any());
+  }
+
+  @Test
+  void refreshRates_AnnouncesOnlyRatesItHasNotLoadedYet() {
+    when(exchangeRateRepository.findMaxId()).thenReturn(10L, 10L, 12L, 12L);
+
+    currencyService.reloadRates();
+    currencyService.refreshRates();
+    verify(eventPublisher, times(1)).publishEvent(any(ExchangeRatesChangedEvent.class));
+
+    currencyService.refreshRates();
+    verify(eventPublisher, times(2)).publishEvent(any(ExchangeRatesChangedEvent.class));
+  }
+
+  private static ExchangeRate rate(Currency from, Currency to, String value) {
+    ExchangeRate rate = new ExchangeRate();
+    rate.setFromCurrency(from);
+    rate.setToCurrency(to);
+    rate.setRate(new BigDecimal(value));
+    return rate;
+  }
+}
@@ -0,0 +1,155 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.cache.InMemoryCacheInvalidationBus;
+import com.example.financial_tracker.datasource.Workload;
+import com.example.financial_tracker.datasource.WorkloadContext;
+import com.example.financial_tracker.dto.BudgetDTO;
+import com.example.financial_tracker.dto.DashboardDTO;
+import com.example.financial_tracker.entity.Transaction;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.enumerations.Currency;
+import com.example.financial_tracker.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardWarmerTest {
+
+  @Mock
+  private DashboardService dashboardService;
+
+  @Mock
+  private BudgetService budgetService;
+
+  @Mock
+  private UserRepository userRepository;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = new User();
+    user.setId(1L);
+    user.setEmail("test@example.com");
+    user.setDefaultCurrency(Currency.USD);
+  }
+
+  @Test
+  void warm_PrecomputesInTheBackgroundOnTheReportingWorkload() {
+    DashboardWarmer warmer = warmer(Runnable::run);
+    AtomicReference<Workload> workload = new AtomicReference<>();
+    DashboardDTO dashboard = dashboard("100");
+    when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+    when(dashboardService.getDashboard(any(User.class))).thenAnswer(invocation -> {
+      workload.set(WorkloadContext.current());
+      return dashboard;
+    });
+    when(budgetService.getUserBudgets(any(User.class))).thenReturn(List.of(new BudgetDTO()));
+
+    warmer.warm(user);
+
+    assertSame(dashboard, warmer.getDashboard(user));
+    assertEquals(1, warmer.getUserBudgets(user).size());
+    assertEquals(Workload.REPORTING, workload.get());
+    verify(dashboardService, times(1)).getDashboard(any(User.class));
+    verify(budgetService, times(1)).getUserBudgets(any(User.class));
+    assertEquals(2, reads("warm"));
+  }
+
+  @Test
+  void getDashboard_ComputesMissesLiveAndKeepsTheResult() {
+    DashboardWarmer warmer = warmer(Runnable::run);
+    DashboardDTO dashboard = dashboard("100");
+    when(dashboardService.getDashboard(user)).thenReturn(dashboard);
+
+    assertSame(dashboard, warmer.getDashboard(user));
+    assertSame(dashboard, warmer.getDashboard(user));
+
+    verify(dashboardService, times(1)).getDashboard(user);
+    assertEquals(1, reads("cold"));
+    assertEquals(1, reads("warm"));
+  }
+
+  @Test
+  void onUserDataChanged_DropsTheUsersEntries() {
+    DashboardWarmer warmer = warmer(Runnable::run);
+    when(dashboardService.getDashboard(user)).thenReturn(dashboard("100"), dashboard("250"));
+
+    warmer.getDashboard(user);
+    warmer.onUserDataChanged(new UserDataChangedEvent(1L, Transaction.class, LocalDate.now(), null));
+
+    assertEquals(new BigDecimal("250"), warmer.getDashboard(user).getCurrentBalance());
+  }
+
+  @Test
+  void warm_DiscardsABackgroundLoadThatAWriteRacedPast() {
+    DashboardWarmer warmer = warmer(Runnable::run);
+    when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+    when(dashboardService.getDashboard(any(User.class))).thenAnswer(invocation -> {
+      warmer.onUserDataChanged(new UserDataChangedEvent(1L, Transaction.class, LocalDate.now(), null));
+      return dashboard("100");
+    }).thenReturn(dashboard("250"));
+
+    warmer.warm(user);
+
+    assertEquals(new BigDecimal("250"), warmer.getDashboard(user).getCurrentBalance());
+    assertEquals(1, reads("cold"));
+  }
+
+  @Test
+  void getDashboard_IgnoresEntriesComputedForOtherCurrencies() {
+    DashboardWarmer warmer = warmer(Runnable::run);
+    when(dashboardService.getDashboard(user)).thenReturn(dashboard("100"), dashboard("92"));
+
+    warmer.getDashboard(user);
+    user.setDefaultCurrency(Currency.EUR);
+
+    assertEquals(new BigDecimal("92"), warmer.getDashboard(user).getCurrentBalance());
+  }
+
+  @Test
+  void warm_SkipsWorkTheWarmingExecutorCannotTake() {
+    DashboardWarmer warmer = warmer(task -> {
+      throw new RejectedExecutionException("saturated");
+    });
+
+    assertDoesNotThrow(() -> warmer.warm(user));
+
+    verifyNoInteractions(dashboardService, budgetService, userRepository);
+    assertEquals(2, meterRegistry.get("app.dashboard.warming.skipped").counter().count());
+  }
+
+  private DashboardWarmer warmer(Executor executor) {
+    DashboardWarmer warmer = new DashboardWarmer(dashboardService, budgetService, userRepository, executor,
+      new InMemoryCacheInvalidationBus(), true, 100, Duration.ofMinutes(5), Duration.ofMinutes(15),
+      Duration.ofHours(2));
+    warmer.bindTo(meterRegistry);
+    return warmer;
+  }
+
+  private double reads(String result) {
+    return meterRegistry.get("app.dashboard.warming.reads").tag("result", result).counter().count();
+  }
+
+  private static DashboardDTO dashboard(String balance) {
+    return DashboardDTO.builder().currentBalance(new BigDecimal(balance)).build();
+  }
+}
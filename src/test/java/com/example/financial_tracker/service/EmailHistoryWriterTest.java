@@ -0,0 +1,130 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.entity.EmailHistory;
+import com.example.financial_tracker.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailHistoryWriterTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  private EmailHistoryWriter writer;
+  private final List<Integer> flushedBatches = new ArrayList<>();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final Answer<int[][]> recordBatch = invocation -> {
+    flushedBatches.add(((Collection<?>) invocation.getArgument(1)).size());
+    return new int[0][];
+  };
+
+  @BeforeEach
+  void setUp() {
+    writer = new EmailHistoryWriter(jdbcTemplate, 8, 3, 30, 3);
+    writer.bindTo(meterRegistry);
+    lenient().when(batchInsert()).thenAnswer(recordBatch);
+  }
+
+  @Test
+  void write_FlushesInBatchesOnceBatchSizeIsReached() {
+    writer.write(history());
+    writer.write(history());
+    assertTrue(flushedBatches.isEmpty());
+
+    writer.write(history());
+    writer.write(history());
+    assertEquals(List.of(3), flushedBatches);
+
+    writer.flush();
+    assertEquals(List.of(3, 1), flushedBatches);
+  }
+
+  @Test
+  void shutdown_DrainsBufferAndWritesLateRowsDirectly() {
+    writer.writeAll(List.of(history(), history()));
+
+    writer.shutdown();
+    writer.write(history());
+
+    assertEquals(List.of(2, 1), flushedBatches);
+  }
+
+  @Test
+  void flush_RetriesAFailedBatchBeforeDrainingLaterRows() {
+    when(batchInsert())
+      .thenThrow(new DataAccessResourceFailureException("database down"))
+      .thenAnswer(recordBatch);
+
+    writer.writeAll(List.of(history(), history(), history()));
+    writer.write(history());
+    assertTrue(flushedBatches.isEmpty());
+
+    writer.flush();
+
+    assertEquals(List.of(3, 1), flushedBatches);
+    assertEquals(1, meterRegistry.get("app.mail.history.failed-inserts").counter().count());
+    assertEquals(0, meterRegistry.get("app.mail.history.dropped").counter().count());
+  }
+
+  @Test
+  void flush_DropsABatchOnceItFailedMaxAttemptsTimes() {
+    when(batchInsert())
+      .thenThrow(new DataAccessResourceFailureException("database down"))
+      .thenThrow(new DataAccessResourceFailureException("database down"))
+      .thenThrow(new DataAccessResourceFailureException("database down"))
+      .thenAnswer(recordBatch);
+
+    writer.writeAll(List.of(history(), history(), history()));
+    writer.write(history());
+    writer.flush();
+    assertEquals(0, meterRegistry.get("app.mail.history.dropped").counter().count());
+
+    writer.flush();
+
+    assertEquals(List.of(1), flushedBatches);
+    assertEquals(3, meterRegistry.get("app.mail.history.failed-inserts").counter().count());
+    assertEquals(3, meterRegistry.get("app.mail.history.dropped").counter().count());
+  }
+
+  @Test
+  void purgeExpired_DeletesInChunksUntilNothingIsLeft() {
+    when(jdbcTemplate.update(anyString(), any(), eq(15))).thenReturn(15, 15, 4);
+
+    assertEquals(34, writer.purgeExpired());
+    verify(jdbcTemplate, times(3)).update(startsWith("DELETE FROM email_history"), any(), eq(15));
+  }
+
+  private int[][] batchInsert() {
+    return jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+      any(ParameterizedPreparedStatementSetter.class));
+  }
+
+  private EmailHistory history() {
+    User user = new User();
+    user.setId(1L);
+    EmailHistory history = new EmailHistory();
+    history.setUser(user);
+    history.setRecipient("user@example.com");
+    history.setSubject("Weekly report");
+    history.setType(EmailHistory.EmailType.WEEKLY_REPORT);
+    history.setStatus(EmailHistory.EmailStatus.SENT);
+    return history;
+  }
+}
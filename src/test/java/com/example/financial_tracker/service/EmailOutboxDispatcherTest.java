@@ -0,0 +1,114 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.entity.EmailHistory;
+import com.example.financial_tracker.entity.EmailOutbox;
+import com.example.financial_tracker.entity.User;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+  @RegisterExtension
+  static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+  @Mock
+  private EmailOutboxService emailOutboxService;
+
+  @Mock
+  private EmailQuotaService emailQuotaService;
+
+  @Mock
+  private EmailHistoryWriter emailHistoryWriter;
+
+  private JavaMailSenderImpl mailSender;
+  private EmailOutboxDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() {
+    mailSender = new JavaMailSenderImpl();
+    mailSender.setHost("localhost");
+    mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+    EmailService emailService = new EmailService(mailSender, null, emailOutboxService, null);
+    ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@test.com");
+    ReflectionTestUtils.setField(emailService, "fromName", "Test App");
+
+    dispatcher = new EmailOutboxDispatcher(emailOutboxService, emailService, emailQuotaService,
+      emailHistoryWriter, mailSender, Runnable::run, 2);
+    ReflectionTestUtils.setField(dispatcher, "batchSize", 20);
+    ReflectionTestUtils.setField(dispatcher, "quotaRetrySeconds", 600L);
+  }
+
+  @Test
+  void dispatch_SendsClaimedEmailsAndRecordsHistory() throws Exception {
+    when(emailOutboxService.claimDue(2)).thenReturn(List.of(outbox(1L, "a@example.com"), outbox(2L, "b@example.com")));
+    when(emailQuotaService.tryAcquire()).thenReturn(true);
+
+    dispatcher.dispatch();
+
+    MimeMessage[] received = greenMail.getReceivedMessages();
+    assertEquals(2, received.length);
+    assertEquals("Verify your email address", received[0].getSubject());
+    verify(emailOutboxService).markSent(1L);
+    verify(emailOutboxService).markSent(2L);
+    verify(emailHistoryWriter, times(2)).write(argThat(history ->
+      history.getStatus() == EmailHistory.EmailStatus.SENT && history.getSentAt() != null));
+  }
+
+  @Test
+  void dispatch_SchedulesRetryWhenSmtpIsUnavailable() {
+    mailSender.setPort(ServerSetupTest.SMTP.getPort() + 7);
+    when(emailOutboxService.claimDue(2)).thenReturn(List.of(outbox(1L, "a@example.com")));
+    when(emailQuotaService.tryAcquire()).thenReturn(true);
+    when(emailOutboxService.markFailed(eq(1L), anyString())).thenReturn(false);
+
+    dispatcher.dispatch();
+
+    verify(emailQuotaService).release();
+    verify(emailOutboxService, never()).markSent(any());
+    verifyNoInteractions(emailHistoryWriter);
+  }
+
+  @Test
+  void dispatch_DefersWhenQuotaIsExhausted() {
+    when(emailOutboxService.claimDue(2)).thenReturn(List.of(outbox(1L, "a@example.com")));
+    when(emailQuotaService.tryAcquire()).thenReturn(false);
+
+    dispatcher.dispatch();
+
+    assertEquals(0, greenMail.getReceivedMessages().length);
+    verify(emailOutboxService).defer(1L, Duration.ofSeconds(600));
+    verify(emailOutboxService, never()).markFailed(any(), any());
+  }
+
+  private EmailOutbox outbox(Long id, String recipient) {
+    User user = new User();
+    user.setId(7L);
+    EmailOutbox outbox = new EmailOutbox();
+    outbox.setId(id);
+    outbox.setUser(user);
+    outbox.setRecipient(recipient);
+    outbox.setSubject("Verify your email address");
+    outbox.setBody("<p>Hello</p>");
+    outbox.setType(EmailHistory.EmailType.EMAIL_VERIFICATION);
+    outbox.setStatus(EmailOutbox.Status.SENDING);
+    return outbox;
+  }
+}
@@ -0,0 +1,61 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.entity.EmailOutbox;
+import com.example.financial_tracker.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceTest {
+
+  @Mock
+  private EmailOutboxRepository emailOutboxRepository;
+
+  @InjectMocks
+  private EmailOutboxService emailOutboxService;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(emailOutboxService, "maxAttempts", 4);
+    ReflectionTestUtils.setField(emailOutboxService, "initialBackoffSeconds", 30L);
+    ReflectionTestUtils.setField(emailOutboxService, "maxBackoffSeconds", 100L);
+  }
+
+  @Test
+  void backoff_GrowsExponentiallyUpToCap() {
+    assertEquals(Duration.ofSeconds(30), emailOutboxService.backoff(1));
+    assertEquals(Duration.ofSeconds(60), emailOutboxService.backoff(2));
+    assertEquals(Duration.ofSeconds(100), emailOutboxService.backoff(3));
+    assertEquals(Duration.ofSeconds(100), emailOutboxService.backoff(40));
+  }
+
+  @Test
+  void markFailed_ReschedulesUntilAttemptsAreExhausted() {
+    EmailOutbox outbox = new EmailOutbox();
+    outbox.setStatus(EmailOutbox.Status.SENDING);
+    outbox.setClaimedAt(LocalDateTime.now());
+    when(emailOutboxRepository.findById(1L)).thenReturn(Optional.of(outbox));
+
+    assertFalse(emailOutboxService.markFailed(1L, "connection refused"));
+    assertEquals(EmailOutbox.Status.PENDING, outbox.getStatus());
+    assertEquals(1, outbox.getAttempts());
+    assertNull(outbox.getClaimedAt());
+    assertTrue(outbox.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+
+    outbox.setAttempts(3);
+    assertTrue(emailOutboxService.markFailed(1L, "connection refused"));
+    assertEquals(EmailOutbox.Status.FAILED, outbox.getStatus());
+  }
+}
@@ -0,0 +1,147 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.repository.EmailQuotaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailQuotaServiceTest {
+
+  private static final ZoneId ZONE = ZoneId.of("UTC");
+  private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 15, 10, 30);
+
+  @Mock
+  private EmailQuotaRepository emailQuotaRepository;
+
+  @InjectMocks
+  private EmailQuotaService emailQuotaService;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(emailQuotaService, "quotaEnabled", true);
+    ReflectionTestUtils.setField(emailQuotaService, "hourlyLimit", 5);
+    ReflectionTestUtils.setField(emailQuotaService, "dailyLimit", 8);
+    ReflectionTestUtils.setField(emailQuotaService, "monthlyLimit", 100);
+    ReflectionTestUtils.setField(emailQuotaService, "reserveSize", 10);
+    setClock(NOW);
+  }
+
+  @Test
+  void tryAcquire_EnforcesHourlyAndDailyLimitsWithoutTouchingDatabase() {
+    for (int i = 0; i < 5; i++) {
+      assertTrue(emailQuotaService.tryAcquire());
+    }
+    assertFalse(emailQuotaService.tryAcquire());
+
+    emailQuotaService.release();
+    assertTrue(emailQuotaService.tryAcquire());
+
+    setClock(NOW.plusHours(1));
+    assertTrue(emailQuotaService.tryAcquire());
+    assertTrue(emailQuotaService.tryAcquire());
+    assertTrue(emailQuotaService.tryAcquire());
+    assertFalse(emailQuotaService.tryAcquire());
+
+    assertEquals(0, emailQuotaService.getQuotaStatus().getDailyRemaining());
+    verifyNoInteractions(emailQuotaRepository);
+  }
+
+  @Test
+  void tryAcquire_ConcurrentCallersNeverExceedLimit() throws Exception {
+    ReflectionTestUtils.setField(emailQuotaService, "hourlyLimit", 1000);
+    ReflectionTestUtils.setField(emailQuotaService, "dailyLimit", 1000);
+
+    AtomicInteger granted = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < 500; i++) {
+          if (emailQuotaService.tryAcquire()) {
+            granted.incrementAndGet();
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(100, granted.get());
+  }
+
+  @Test
+  void flush_WritesAccumulatedCountInOneUpdate() {
+    when(emailQuotaRepository.addSent(any(), anyInt())).thenReturn(0, 1);
+
+    emailQuotaService.tryAcquire();
+    emailQuotaService.tryAcquire();
+    emailQuotaService.tryAcquire();
+    emailQuotaService.flush();
+    emailQuotaService.flush();
+
+    verify(emailQuotaRepository, times(2)).addSent(NOW.toLocalDate(), 3);
+    verify(emailQuotaRepository).save(argThat(quota -> quota.getDate().equals(NOW.toLocalDate())));
+    verify(emailQuotaRepository, times(2)).addSent(any(), anyInt());
+  }
+
+  @Test
+  void tryAcquire_SharedModeLeasesTokensInBatches() {
+    ReflectionTestUtils.setField(emailQuotaService, "shared", true);
+    ReflectionTestUtils.setField(emailQuotaService, "hourlyLimit", 50);
+    ReflectionTestUtils.setField(emailQuotaService, "dailyLimit", 50);
+    LocalDate today = NOW.toLocalDate();
+    LocalDateTime hour = NOW.withMinute(0);
+    when(emailQuotaRepository.reserve(today, hour, 10, 50, 50, 100)).thenReturn(1, 0);
+    when(emailQuotaRepository.reserve(today, hour, 1, 50, 50, 100)).thenReturn(1, 0);
+    when(emailQuotaRepository.existsByDate(today)).thenReturn(true);
+
+    for (int i = 0; i < 11; i++) {
+      assertTrue(emailQuotaService.tryAcquire());
+    }
+    assertFalse(emailQuotaService.tryAcquire());
+
+    verify(emailQuotaRepository, times(3)).reserve(eq(today), eq(hour), eq(10), anyInt(), anyInt(), anyInt());
+    verify(emailQuotaRepository, times(2)).reserve(eq(today), eq(hour), eq(1), anyInt(), anyInt(), anyInt());
+  }
+
+  @Test
+  void tryAcquire_DisabledQuotaAlwaysAllows() {
+    ReflectionTestUtils.setField(emailQuotaService, "quotaEnabled", false);
+
+    for (int i = 0; i < 20; i++) {
+      assertTrue(emailQuotaService.tryAcquire());
+    }
+    verifyNoInteractions(emailQuotaRepository);
+  }
+
+  private void setClock(LocalDateTime now) {
+    ReflectionTestUtils.setField(emailQuotaService, "clock", Clock.fixed(now.atZone(ZONE).toInstant(), ZONE));
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.enumerations.Currency;
+import com.example.financial_tracker.enumerations.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeRateHistoryTest {
+
+  private final ExchangeRateHistory history = ExchangeRateHistory.build(List.of(
+    row(Currency.USD, Currency.EUR, "0.900000", LocalDateTime.of(2024, 1, 1, 0, 0)),
+    row(Currency.USD, Currency.UAH, "38.000000", LocalDateTime.of(2024, 1, 1, 0, 0)),
+    row(Currency.USD, Currency.EUR, "0.950000", LocalDateTime.of(2024, 3, 1, 12, 0)),
+    row(Currency.USD, Currency.EUR, "0.920000", LocalDateTime.of(2024, 3, 2, 0, 0))
+  ));
+
+  @Test
+  void rate_UsesRateInEffectAtEndOfDay() {
+    assertEquals(new BigDecimal("0.900000"), history.rate(Currency.USD, Currency.EUR, LocalDate.of(2024, 2, 29)));
+    assertEquals(new BigDecimal("0.950000"), history.rate(Currency.USD, Currency.EUR, LocalDate.of(2024, 3, 1)));
+    assertEquals(new BigDecimal("0.920000"), history.rate(Currency.USD, Currency.EUR, LocalDate.of(2024, 3, 2)));
+    assertEquals(new BigDecimal("0.900000"), history.rate(Currency.USD, Currency.EUR, LocalDate.of(2023, 6, 1)));
+  }
+
+  @Test
+  void rate_FallsBackToInverseThenCrossViaUsd() {
+    LocalDate date = LocalDate.of(2024, 2, 1);
+    assertEquals(new BigDecimal("1.111111"), history.rate(Currency.EUR, Currency.USD, date));
+    assertEquals(new BigDecimal("42.222218"), history.rate(Currency.EUR, Currency.UAH, date));
+    assertNull(history.rate(Currency.USD, Currency.JPY, date));
+    assertEquals(BigDecimal.ONE, history.rate(Currency.JPY, Currency.JPY, date));
+  }
+
+  @Test
+  void adjustment_ConvertsEachRowAtItsOwnDate() {
+    ForeignCurrencyAdjustment adjustment = ForeignCurrencyAdjustment.of(List.of(
+      new Object[]{Currency.USD, LocalDate.of(2024, 2, 1), TransactionType.EXPENSE, 7L, new BigDecimal("100.00")},
+      new Object[]{Currency.USD, LocalDate.of(2024, 3, 5), TransactionType.EXPENSE, 8L, new BigDecimal("100.00")},
+      new Object[]{Currency.JPY, LocalDate.of(2024, 3, 5), TransactionType.INCOME, 9L, new BigDecimal("500")}
+    ), Currency.EUR, history);
+
+    assertEquals(new BigDecimal("-18.00"), adjustment.total(TransactionType.EXPENSE));
+    assertEquals(new BigDecimal("-8.00"), adjustment.total(TransactionType.EXPENSE,
+      LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)));
+    assertEquals(new BigDecimal("-10.00"), adjustment.forCategory(7L, TransactionType.EXPENSE, null, null));
+    assertEquals(BigDecimal.ZERO, adjustment.total(TransactionType.INCOME));
+    assertEquals(new BigDecimal("18.00"), adjustment.balance());
+  }
+
+  private static Object[] row(Currency from, Currency to, String rate, LocalDateTime validFrom) {
+    return new Object[]{from, to, new BigDecimal(rate), validFrom};
+  }
+}
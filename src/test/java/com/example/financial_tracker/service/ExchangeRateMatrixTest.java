@@ -0,0 +1,51 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.entity.ExchangeRate;
+import com.example.financial_tracker.enumerations.Currency;
+import com.example.financial_tracker.exception.BusinessLogicException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeRateMatrixTest {
+
+  private final ExchangeRateMatrix matrix = ExchangeRateMatrix.build(List.of(
+    rate(Currency.USD, Currency.EUR, "0.900000"),
+    rate(Currency.USD, Currency.UAH, "40.000000"),
+    rate(Currency.EUR, Currency.GBP, "0.850000"),
+    rate(Currency.USD, Currency.EUR, "0.920000")
+  ), LocalDateTime.now());
+
+  @Test
+  void rate_PrefersLatestDirectRate() {
+    assertEquals(new BigDecimal("0.920000"), matrix.rate(Currency.USD, Currency.EUR));
+    assertEquals(new BigDecimal("0.850000"), matrix.rate(Currency.EUR, Currency.GBP));
+  }
+
+  @Test
+  void rate_FallsBackToInverseThenCrossViaUsd() {
+    assertEquals(new BigDecimal("0.025000"), matrix.rate(Currency.UAH, Currency.USD));
+    assertEquals(new BigDecimal("1.176471"), matrix.rate(Currency.GBP, Currency.EUR));
+    assertEquals(new BigDecimal("0.023000"), matrix.rate(Currency.UAH, Currency.EUR));
+    assertEquals(BigDecimal.ONE, matrix.rate(Currency.JPY, Currency.JPY));
+  }
+
+  @Test
+  void convert_RoundsToTargetCurrencyAndRejectsUnknownPairs() {
+    assertEquals(new BigDecimal("92.00"), matrix.convert(new BigDecimal("100"), Currency.USD, Currency.EUR));
+    assertFalse(matrix.hasRate(Currency.USD, Currency.JPY));
+    assertThrows(BusinessLogicException.class, () -> matrix.rate(Currency.USD, Currency.JPY));
+  }
+
+  private static ExchangeRate rate(Currency from, Currency to, String value) {
+    ExchangeRate rate = new ExchangeRate();
+    rate.setFromCurrency(from);
+    rate.setToCurrency(to);
+    rate.setRate(new BigDecimal(value));
+    return rate;
+  }
+}
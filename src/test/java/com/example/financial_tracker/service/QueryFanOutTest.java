@@ -0,0 +1,181 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.datasource.Workload;
+import com.example.financial_tracker.datasource.WorkloadContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QueryFanOutTest {
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final ExecutorService reportingExecutor =
+    Executors.newSingleThreadExecutor(task -> new Thread(task, "reporting-fan-out"));
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+    reportingExecutor.shutdownNow();
+  }
+
+  @Test
+  void fork_RunsSubQueriesConcurrentlyInReadOnlyTransactions() {
+    QueryFanOut fanOut = fanOut(true, Duration.ofSeconds(10));
+    CountDownLatch bothStarted = new CountDownLatch(2);
+
+    try (QueryFanOut.Scope scope = fanOut.open("test")) {
+      QueryFanOut.Fork<Integer> first = scope.fork(() -> awaitSibling(bothStarted, 1));
+      QueryFanOut.Fork<Integer> second = scope.fork(() -> awaitSibling(bothStarted, 2));
+      scope.join();
+
+      assertEquals(1, first.get());
+      assertEquals(2, second.get());
+    }
+
+    ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+    verify(transactionManager, times(2)).getTransaction(definitions.capture());
+    assertTrue(definitions.getAllValues().stream().allMatch(TransactionDefinition::isReadOnly));
+    assertTrue(definitions.getAllValues().stream().allMatch(d -> d.getTimeout() > 0 && d.getTimeout() <= 10));
+    assertEquals(1, meterRegistry.get("app.fan-out.duration").tag("mode", "parallel").timer().count());
+  }
+
+  @Test
+  void join_ThrowsWhenTheDeadlinePasses() {
+    QueryFanOut fanOut = fanOut(true, Duration.ofMillis(200));
+    CountDownLatch never = new CountDownLatch(1);
+
+    try (QueryFanOut.Scope scope = fanOut.open("test")) {
+      scope.fork(() -> {
+        try {
+          never.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return null;
+      });
+
+      long start = System.nanoTime();
+      assertThrows(QueryTimeoutException.class, scope::join);
+      assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000, "join ignored the deadline");
+    } finally {
+      never.countDown();
+    }
+  }
+
+  @Test
+  void join_RethrowsTheFirstFailure() {
+    QueryFanOut fanOut = fanOut(true, Duration.ofSeconds(10));
+    IllegalArgumentException failure = new IllegalArgumentException("boom");
+
+    try (QueryFanOut.Scope scope = fanOut.open("test")) {
+      scope.fork(() -> 1);
+      scope.fork(() -> {
+        throw failure;
+      });
+
+      assertSame(failure, assertThrows(IllegalArgumentException.class, scope::join));
+    }
+  }
+
+  @Test
+  void fork_RunsInlineWhenParallelIsDisabled() {
+    QueryFanOut fanOut = fanOut(false, Duration.ofSeconds(10));
+    Thread caller = Thread.currentThread();
+
+    try (QueryFanOut.Scope scope = fanOut.open("test")) {
+      QueryFanOut.Fork<Thread> fork = scope.fork(Thread::currentThread);
+      scope.join();
+
+      assertSame(caller, fork.get());
+    }
+
+    assertEquals(1, meterRegistry.get("app.fan-out.duration").tag("mode", "sequential").timer().count());
+  }
+
+  @Test
+  void inline_RunsForksOnTheCallingThreadDespiteParallelMode() throws Exception {
+    QueryFanOut fanOut = fanOut(true, Duration.ofSeconds(10));
+    Thread caller = Thread.currentThread();
+
+    Thread forkThread = QueryFanOut.inline(() -> {
+      try (QueryFanOut.Scope scope = fanOut.open("test")) {
+        QueryFanOut.Fork<Thread> fork = scope.fork(Thread::currentThread);
+        scope.join();
+        return fork.get();
+      }
+    });
+
+    assertSame(caller, forkThread);
+    assertEquals(1, meterRegistry.get("app.fan-out.duration").tag("mode", "sequential").timer().count());
+  }
+
+  @Test
+  void fork_RunsReportingForksOnTheirOwnExecutor() throws Exception {
+    QueryFanOut fanOut = fanOut(true, Duration.ofSeconds(10));
+    CountDownLatch release = new CountDownLatch(1);
+
+    try (QueryFanOut.Scope reporting = WorkloadContext.bind(Workload.REPORTING, () -> fanOut.open("reporting")).call()) {
+      QueryFanOut.Fork<String> blocked = reporting.fork(() -> {
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return Thread.currentThread().getName();
+      });
+
+      try (QueryFanOut.Scope interactive = fanOut.open("interactive")) {
+        QueryFanOut.Fork<String> fork = interactive.fork(() -> Thread.currentThread().getName());
+        interactive.join();
+        assertNotEquals("reporting-fan-out", fork.get());
+      }
+
+      release.countDown();
+      reporting.join();
+      assertEquals("reporting-fan-out", blocked.get());
+    }
+  }
+
+  private QueryFanOut fanOut(boolean parallel, Duration deadline) {
+    return new QueryFanOut(transactionManager, executor, reportingExecutor, meterRegistry, parallel, deadline);
+  }
+
+  private static int awaitSibling(CountDownLatch bothStarted, int result) {
+    bothStarted.countDown();
+    try {
+      assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "sub-queries ran one after another");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return result;
+  }
+}
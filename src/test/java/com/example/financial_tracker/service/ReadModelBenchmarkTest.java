@@ -0,0 +1,105 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.dto.TransactionDTO;
+import com.example.financial_tracker.entity.Transaction;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.mapper.TransactionMapper;
+import com.example.financial_tracker.repository.CategoryRepository;
+import com.example.financial_tracker.repository.TransactionRepository;
+import com.example.financial_tracker.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Allocation and latency of the unpaged transaction list: entity loading plus
+ * MapStruct mapping against the constructor-expression read model.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadModelBenchmarkTest {
+
+  private static final int ROWS = 20_000;
+  private static final int ROUNDS = 10;
+
+  @Autowired
+  private TransactionService transactionService;
+
+  @Autowired
+  private TransactionRepository transactionRepository;
+
+  @Autowired
+  private TransactionMapper transactionMapper;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Test
+  void entityMappingAgainstReadModel() {
+    User user = BenchmarkData.seed(userRepository, categoryRepository, jdbcTemplate,
+      "read-model-benchmark@example.com", ROWS);
+    Specification<Transaction> byUser = (root, query, cb) -> cb.equal(root.get("user"), user);
+
+    Supplier<List<TransactionDTO>> entities = () -> transactionTemplate.execute(status -> {
+      status.setRollbackOnly();
+      return transactionMapper.toDtoList(transactionRepository.findAll(byUser, Sort.by(Sort.Direction.DESC, "date")));
+    });
+    Supplier<List<TransactionDTO>> readModel = () -> transactionService.getTransactionsByUser(user);
+
+    long[] entityCost = measure(entities);
+    long[] readModelCost = measure(readModel);
+    System.out.printf("%d-row list: entities %d ms / %d MB allocated, read model %d ms / %d MB allocated%n",
+      ROWS, entityCost[0], entityCost[1] >> 20, readModelCost[0], readModelCost[1] >> 20);
+
+    List<TransactionDTO> expected = entities.get();
+    List<TransactionDTO> actual = readModel.get();
+    assertEquals(ROWS, actual.size());
+    assertEquals(expected.get(0).getDate(), actual.get(0).getDate());
+    assertEquals(expected.get(0).getCategoryName(), actual.get(0).getCategoryName());
+    assertTrue(readModelCost[1] < entityCost[1]);
+  }
+
+  /** @return median {milliseconds, bytes allocated on this thread} per call */
+  private long[] measure(Supplier<List<TransactionDTO>> list) {
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    list.get();
+
+    long[] millis = new long[ROUNDS];
+    long[] bytes = new long[ROUNDS];
+    for (int i = 0; i < ROUNDS; i++) {
+      long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+      long start = System.nanoTime();
+      list.get();
+      millis[i] = (System.nanoTime() - start) / 1_000_000;
+      bytes[i] = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+    }
+    Arrays.sort(millis);
+    Arrays.sort(bytes);
+    return new long[]{millis[ROUNDS / 2], bytes[ROUNDS / 2]};
+  }
+}
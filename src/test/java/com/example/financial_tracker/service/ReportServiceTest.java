@@ -0,0 +1,110 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.dto.MonthlyReportDTO;
+import com.example.financial_tracker.dto.WeeklyReportDTO;
+import com.example.financial_tracker.entity.Budget;
+import com.example.financial_tracker.entity.Category;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.enumerations.TransactionType;
+import com.example.financial_tracker.repository.BudgetRepository;
+import com.example.financial_tracker.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportServiceTest {
+
+  @Mock
+  private TransactionRepository transactionRepository;
+
+  @Mock
+  private BudgetRepository budgetRepository;
+
+  @InjectMocks
+  private ReportService reportService;
+
+  private User firstUser;
+  private User secondUser;
+  private User otherUser;
+
+  @BeforeEach
+  void setUp() {
+    firstUser = new User();
+    firstUser.setId(1L);
+    secondUser = new User();
+    secondUser.setId(2L);
+    otherUser = new User();
+    otherUser.setId(3L);
+  }
+
+  @Test
+  void generateWeeklyReports_BuildsReportsForAllUsersFromOneQuery() {
+    when(transactionRepository.streamWeeklyReportAggregates(any(), any())).thenReturn(Stream.of(
+      new Object[]{1L, 10L, "Food", TransactionType.EXPENSE, new BigDecimal("60.00"), 3L},
+      new Object[]{1L, 11L, "Rent", TransactionType.EXPENSE, new BigDecimal("140.00"), 1L},
+      new Object[]{1L, 12L, "Salary", TransactionType.INCOME, new BigDecimal("1000.00"), 1L},
+      new Object[]{2L, 20L, "Fun", TransactionType.EXPENSE, new BigDecimal("25.00"), 2L}
+    ));
+
+    ReportService.ReportBatch<WeeklyReportDTO> batch = reportService.generateWeeklyReports();
+
+    assertEquals(2, batch.size());
+    WeeklyReportDTO first = batch.forUser(firstUser);
+    assertEquals(0, new BigDecimal("200.00").compareTo(first.getTotalExpenses()));
+    assertEquals(0, new BigDecimal("800.00").compareTo(first.getNetAmount()));
+    assertEquals(5, first.getTotalTransactions());
+    assertEquals("Rent", first.getTopExpenseCategories().get(0).getCategoryName());
+    assertEquals(0, new BigDecimal("70.00").compareTo(first.getTopExpenseCategories().get(0).getPercentOfTotal()));
+
+    assertEquals(2, batch.forUser(secondUser).getTotalTransactions());
+    assertEquals(0, batch.forUser(otherUser).getTotalTransactions());
+    verify(transactionRepository, never()).getReportAggregates(any(), any(), any());
+  }
+
+  @Test
+  void generateMonthlyReports_IncludesBudgetsForUsersWithoutTransactions() {
+    Category food = new Category();
+    food.setId(10L);
+    food.setName("Food");
+
+    Budget foodBudget = new Budget();
+    foodBudget.setName("Food budget");
+    foodBudget.setAmount(new BigDecimal("50.00"));
+    foodBudget.setCategory(food);
+    foodBudget.setUser(firstUser);
+
+    Budget totalBudget = new Budget();
+    totalBudget.setName("Everything");
+    totalBudget.setAmount(new BigDecimal("300.00"));
+    totalBudget.setUser(otherUser);
+
+    when(transactionRepository.streamMonthlyReportAggregates(any(), any())).thenReturn(Stream.<Object[]>of(
+      new Object[]{1L, 10L, "Food", TransactionType.EXPENSE, new BigDecimal("60.00"), 3L}
+    ));
+    when(budgetRepository.findActiveForMonthlyReportRecipients()).thenReturn(List.of(foodBudget, totalBudget));
+
+    ReportService.ReportBatch<MonthlyReportDTO> batch = reportService.generateMonthlyReports(1, 2024);
+
+    assertEquals(2, batch.size());
+    MonthlyReportDTO first = batch.forUser(firstUser);
+    assertEquals(1, first.getBudgetsExceeded());
+    assertEquals(0, new BigDecimal("20.00").compareTo(first.getExpensesByCategory().get(0).getAverageAmount()));
+
+    MonthlyReportDTO other = batch.forUser(otherUser);
+    assertEquals(1, other.getBudgetSummary().size());
+    assertEquals(0, BigDecimal.ZERO.compareTo(other.getBudgetSummary().get(0).getSpent()));
+    assertEquals(2024, batch.forUser(secondUser).getYear());
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.dto.TransactionSearchDTO;
+import com.example.financial_tracker.dto.TransactionSearchStatsDTO;
+import com.example.financial_tracker.entity.Transaction;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.enumerations.TransactionType;
+import com.example.financial_tracker.repository.CategoryRepository;
+import com.example.financial_tracker.repository.TransactionRepository;
+import com.example.financial_tracker.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Search statistics over 100k matching rows: the former load-and-stream approach
+ * against the single aggregate query. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchStatsBenchmarkTest {
+
+  private static final int ROWS = 100_000;
+  private static final int ROUNDS = 10;
+
+  @Autowired
+  private TransactionService transactionService;
+
+  @Autowired
+  private TransactionRepository transactionRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Test
+  void aggregateAgainstEntityLoading() {
+    User user = BenchmarkData.seed(userRepository, categoryRepository, jdbcTemplate,
+      "search-stats-benchmark@example.com", ROWS);
+    TransactionSearchDTO search = new TransactionSearchDTO();
+    Specification<Transaction> byUser = (root, query, cb) -> cb.equal(root.get("user"), user);
+
+    Supplier<TransactionSearchStatsDTO> loading = () -> transactionTemplate.execute(status -> {
+      List<Transaction> transactions = transactionRepository.findAll(byUser);
+      BigDecimal income = transactions.stream()
+        .filter(t -> t.getType() == TransactionType.INCOME)
+        .map(Transaction::getAmount)
+        .reduce(BigDecimal.ZERO, BigDecimal::add);
+      BigDecimal expense = transactions.stream()
+        .filter(t -> t.getType() == TransactionType.EXPENSE)
+        .map(Transaction::getAmount)
+        .reduce(BigDecimal.ZERO, BigDecimal::add);
+      return TransactionSearchStatsDTO.builder()
+        .totalCount(transactions.size())
+        .totalIncome(income)
+        .totalExpense(expense)
+        .build();
+    });
+    Supplier<TransactionSearchStatsDTO> aggregate = () -> transactionService.getSearchStats(user, search);
+
+    long loadingMillis = median(loading);
+    long aggregateMillis = median(aggregate);
+    System.out.printf("Search stats over %d rows: %d ms loading entities, %d ms aggregate query%n",
+      ROWS, loadingMillis, aggregateMillis);
+
+    TransactionSearchStatsDTO expected = loading.get();
+    TransactionSearchStatsDTO actual = aggregate.get();
+    assertEquals(ROWS, actual.getTotalCount());
+    assertEquals(expected.getTotalCount(), actual.getTotalCount());
+    assertEquals(0, expected.getTotalIncome().compareTo(actual.getTotalIncome()));
+    assertEquals(0, expected.getTotalExpense().compareTo(actual.getTotalExpense()));
+    assertEquals(0, new BigDecimal("1.00").compareTo(actual.getMinAmount()));
+    assertEquals(0, new BigDecimal("1000.00").compareTo(actual.getMaxAmount()));
+    assertNotNull(actual.getAverageAmount());
+  }
+
+  private long median(Supplier<TransactionSearchStatsDTO> stats) {
+    stats.get();
+    long[] samples = new long[ROUNDS];
+    for (int i = 0; i < ROUNDS; i++) {
+      long start = System.nanoTime();
+      stats.get();
+      samples[i] = (System.nanoTime() - start) / 1_000_000;
+    }
+    Arrays.sort(samples);
+    return samples[ROUNDS / 2];
+  }
+}
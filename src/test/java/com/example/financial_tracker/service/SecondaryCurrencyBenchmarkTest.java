@@ -0,0 +1,98 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.dto.TransactionDTO;
+import com.example.financial_tracker.entity.Category;
+import com.example.financial_tracker.entity.Transaction;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.enumerations.Currency;
+import com.example.financial_tracker.enumerations.TransactionType;
+import com.example.financial_tracker.mapper.TransactionMapper;
+import com.example.financial_tracker.mapper.TransactionMapperImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Maps 1k-row pages with and without secondary-currency conversion.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SecondaryCurrencyBenchmarkTest {
+
+  private static final int PAGE_SIZE = 1000;
+  private static final int WARMUP_ROUNDS = 2000;
+  private static final int MEASURED_ROUNDS = 2000;
+
+  private final TransactionMapper mapper = new TransactionMapperImpl();
+
+  @Test
+  void pageMappingWithAndWithoutSecondaryCurrency() {
+    CurrencyService currencyService = mock(CurrencyService.class);
+    when(currencyService.getRateMatrix()).thenReturn(SecondaryCurrencyServiceTest.matrix());
+    SecondaryCurrencyService secondaryCurrencyService = new SecondaryCurrencyService(currencyService);
+
+    User plain = new User();
+    plain.setDefaultCurrency(Currency.USD);
+    User withSecondary = new User();
+    withSecondary.setDefaultCurrency(Currency.USD);
+    withSecondary.setSecondaryCurrency(Currency.EUR);
+    withSecondary.setDisplaySecondaryCurrency(true);
+
+    List<Transaction> page = page();
+    run(page, plain, secondaryCurrencyService, WARMUP_ROUNDS);
+    run(page, withSecondary, secondaryCurrencyService, WARMUP_ROUNDS);
+
+    long baseline = run(page, plain, secondaryCurrencyService, MEASURED_ROUNDS);
+    long converted = run(page, withSecondary, secondaryCurrencyService, MEASURED_ROUNDS);
+
+    System.out.printf("1k-row page: %.1f us without secondary currency, %.1f us with (%+.1f%%)%n",
+      baseline / 1000.0, converted / 1000.0, (converted - baseline) * 100.0 / baseline);
+
+    List<TransactionDTO> sample = mapper.toDtoList(page);
+    secondaryCurrencyService.applyToTransactions(withSecondary, sample);
+    assertTrue(sample.stream().allMatch(dto -> dto.getConvertedAmount() != null));
+  }
+
+  /** @return median nanoseconds per page */
+  private long run(List<Transaction> page, User user, SecondaryCurrencyService service, int rounds) {
+    long[] samples = new long[rounds];
+    for (int i = 0; i < rounds; i++) {
+      long start = System.nanoTime();
+      List<TransactionDTO> dtos = mapper.toDtoList(page);
+      service.applyToTransactions(user, dtos);
+      samples[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(samples);
+    return samples[rounds / 2];
+  }
+
+  private static List<Transaction> page() {
+    Category category = new Category();
+    category.setId(1L);
+    category.setName("Groceries");
+    User owner = new User();
+    owner.setId(1L);
+
+    List<Transaction> page = new ArrayList<>(PAGE_SIZE);
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      page.add(Transaction.builder()
+        .id((long) i)
+        .amount(BigDecimal.valueOf(1000 + i, 2))
+        .currency(i % 10 == 0 ? Currency.GBP : Currency.USD)
+        .type(TransactionType.EXPENSE)
+        .category(category)
+        .user(owner)
+        .date(LocalDate.now().minusDays(i % 30))
+        .build());
+    }
+    return page;
+  }
+}
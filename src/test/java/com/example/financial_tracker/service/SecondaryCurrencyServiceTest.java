@@ -0,0 +1,99 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.dto.DashboardDTO;
+import com.example.financial_tracker.dto.TransactionDTO;
+import com.example.financial_tracker.entity.ExchangeRate;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.enumerations.Currency;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecondaryCurrencyServiceTest {
+
+  @Mock
+  private CurrencyService currencyService;
+
+  @InjectMocks
+  private SecondaryCurrencyService secondaryCurrencyService;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = new User();
+    user.setDefaultCurrency(Currency.USD);
+    user.setSecondaryCurrency(Currency.EUR);
+    user.setDisplaySecondaryCurrency(true);
+  }
+
+  @Test
+  void applyToTransactions_ConvertsFromEachTransactionCurrencyWithOneSnapshot() {
+    when(currencyService.getRateMatrix()).thenReturn(matrix());
+    TransactionDTO usd = transaction(null, "100.00");
+    TransactionDTO eur = transaction(Currency.EUR, "50.00");
+    TransactionDTO gbp = transaction(Currency.GBP, "10.00");
+
+    secondaryCurrencyService.applyToTransactions(user, List.of(usd, eur, gbp));
+
+    assertEquals(new BigDecimal("90.00"), usd.getConvertedAmount());
+    assertEquals(new BigDecimal("50.00"), eur.getConvertedAmount());
+    assertEquals(new BigDecimal("11.25"), gbp.getConvertedAmount());
+    verify(currencyService, times(1)).getRateMatrix();
+  }
+
+  @Test
+  void applyToDashboard_FillsSecondaryTotalsOnlyWhenEnabled() {
+    DashboardDTO dashboard = DashboardDTO.builder()
+      .currentBalance(new BigDecimal("200.00"))
+      .totalIncome(new BigDecimal("300.00"))
+      .totalExpense(new BigDecimal("100.00"))
+      .build();
+
+    user.setDisplaySecondaryCurrency(false);
+    secondaryCurrencyService.applyToDashboard(user, dashboard);
+    assertEquals(Currency.USD, dashboard.getPrimaryCurrency());
+    assertNull(dashboard.getCurrentBalanceSecondary());
+    verifyNoInteractions(currencyService);
+
+    user.setDisplaySecondaryCurrency(true);
+    when(currencyService.getRateMatrix()).thenReturn(matrix());
+    secondaryCurrencyService.applyToDashboard(user, dashboard);
+    assertEquals(Currency.EUR, dashboard.getSecondaryCurrency());
+    assertEquals(new BigDecimal("180.00"), dashboard.getCurrentBalanceSecondary());
+    assertEquals(new BigDecimal("270.00"), dashboard.getTotalIncomeSecondary());
+  }
+
+  static ExchangeRateMatrix matrix() {
+    return ExchangeRateMatrix.build(List.of(
+      rate(Currency.USD, Currency.EUR, "0.900000"),
+      rate(Currency.GBP, Currency.EUR, "1.125000")
+    ), LocalDateTime.now());
+  }
+
+  static TransactionDTO transaction(Currency currency, String amount) {
+    TransactionDTO dto = new TransactionDTO();
+    dto.setCurrency(currency);
+    dto.setAmount(new BigDecimal(amount));
+    return dto;
+  }
+
+  private static ExchangeRate rate(Currency from, Currency to, String value) {
+    ExchangeRate rate = new ExchangeRate();
+    rate.setFromCurrency(from);
+    rate.setToCurrency(to);
+    rate.setRate(new BigDecimal(value));
+    return rate;
+  }
+}
@@ -1,6 +1,8 @@
 package com.example.financial_tracker.service;
 
 import com.example.financial_tracker.dto.TransactionDTO;
+import com.example.financial_tracker.dto.TransactionSearchDTO;
+import com.example.financial_tracker.dto.TransactionSearchStatsDTO;
 import com.example.financial_tracker.entity.Category;
 import com.example.financial_tracker.entity.Transaction;
 import com.example.financial_tracker.entity.User;
@@ -23,11 +25,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -57,6 +62,9 @@ class TransactionServiceTest {
   @Mock
   private EmailService emailService;
 
+  @Mock
+  private SecondaryCurrencyService secondaryCurrencyService;
+
   @InjectMocks
   private TransactionService transactionService;
 
@@ -107,12 +115,9 @@ class TransactionServiceTest {
 
   @Test
   void testGetTransactionsByUser_Success() {
-    List<Transaction> transactions = List.of(testTransaction);
     List<TransactionDTO> expectedDTOs = List.of(testTransactionDTO);
 
-    when(transactionRepository.findByUserOrderByDateDesc(testUser))
-        .thenReturn(transactions);
-    when(transactionMapper.toDtoList(transactions))
+    when(transactionRepository.findDtosByUser(testUser))
         .thenReturn(expectedDTOs);
 
     List<TransactionDTO> result = transactionService.getTransactionsByUser(testUser);
@@ -122,15 +127,13 @@ class TransactionServiceTest {
     assertEquals(testTransactionDTO.getId(), result.get(0).getId());
     assertEquals(testTransactionDTO.getAmount(), result.get(0).getAmount());
 
-    verify(transactionRepository).findByUserOrderByDateDesc(testUser);
-    verify(transactionMapper).toDtoList(transactions);
+    verify(transactionRepository).findDtosByUser(testUser);
+    verifyNoInteractions(transactionMapper);
   }
 
   @Test
   void testGetTransactionsByUser_EmptyList() {
-    when(transactionRepository.findByUserOrderByDateDesc(testUser))
-        .thenReturn(List.of());
-    when(transactionMapper.toDtoList(any()))
+    when(transactionRepository.findDtosByUser(testUser))
         .thenReturn(List.of());
 
     List<TransactionDTO> result = transactionService.getTransactionsByUser(testUser);
@@ -138,19 +141,16 @@ class TransactionServiceTest {
     assertNotNull(result);
     assertTrue(result.isEmpty());
 
-    verify(transactionRepository).findByUserOrderByDateDesc(testUser);
+    verify(transactionRepository).findDtosByUser(testUser);
   }
 
   @Test
   void testGetTransactionsByUserPaginated_Success() {
     Pageable pageable = PageRequest.of(0, 10);
-    List<Transaction> transactions = List.of(testTransaction);
-    Page<Transaction> transactionPage = new PageImpl<>(transactions, pageable, 1);
+    Page<TransactionDTO> transactionPage = new PageImpl<>(List.of(testTransactionDTO), pageable, 1);
 
-    when(transactionRepository.findByUserOrderByDateDesc(testUser, pageable))
+    when(transactionRepository.findDtosByUser(testUser, pageable))
         .thenReturn(transactionPage);
-    when(transactionMapper.toDto(testTransaction))
-        .thenReturn(testTransactionDTO);
 
     Page<TransactionDTO> result = transactionService.getTransactionsByUser(testUser, pageable);
 
@@ -159,7 +159,7 @@ class TransactionServiceTest {
     assertEquals(1, result.getContent().size());
     assertEquals(testTransactionDTO.getId(), result.getContent().get(0).getId());
 
-    verify(transactionRepository).findByUserOrderByDateDesc(testUser, pageable);
+    verify(transactionRepository).findDtosByUser(testUser, pageable);
   }
 
   @Test
@@ -343,15 +343,12 @@ class TransactionServiceTest {
 
   @Test
   void testRepository_InteractionVerification() {
-    List<Transaction> transactions = List.of(testTransaction);
-    when(transactionRepository.findByUserOrderByDateDesc(testUser))
-        .thenReturn(transactions);
-    when(transactionMapper.toDtoList(transactions))
+    when(transactionRepository.findDtosByUser(testUser))
         .thenReturn(List.of(testTransactionDTO));
 
     transactionService.getTransactionsByUser(testUser);
 
-    verify(transactionRepository, times(1)).findByUserOrderByDateDesc(testUser);
+    verify(transactionRepository, times(1)).findDtosByUser(testUser);
     verifyNoMoreInteractions(transactionRepository);
   }
 
@@ -396,4 +393,54 @@ class TransactionServiceTest {
         transaction.getCategory().equals(testCategory)
     ));
   }
-}
\ No newline at end of file
+
+  @Test
+  void testGetSearchStats_UsesAggregateQuery() {
+    TransactionSearchDTO searchDto = new TransactionSearchDTO();
+    searchDto.setQuickDateFilter(TransactionSearchDTO.QuickDateFilter.THIS_MONTH);
+    TransactionSearchStatsDTO stats = TransactionSearchStatsDTO.builder()
+        .totalCount(2)
+        .totalIncome(new BigDecimal("100.00"))
+        .totalExpense(new BigDecimal("40.00"))
+        .netAmount(new BigDecimal("60.00"))
+        .build();
+    when(transactionRepository.aggregateSearchStats(any())).thenReturn(stats);
+
+    TransactionSearchStatsDTO result = transactionService.getSearchStats(testUser, searchDto);
+
+    assertSame(stats, result);
+    assertEquals(LocalDate.now().withDayOfMonth(1), searchDto.getDateFrom());
+    verify(transactionRepository, never()).findAll(any(Specification.class));
+  }
+
+  @Test
+  void testExportTransactionsToCsv_PropagatesStatementTimeout() {
+    TransactionSearchDTO searchDto = new TransactionSearchDTO();
+    QueryTimeoutException timeout = new QueryTimeoutException("statement timeout");
+    when(transactionRepository.forEachMatching(any(), any(), any())).thenThrow(timeout);
+
+    assertSame(timeout, assertThrows(QueryTimeoutException.class,
+        () -> transactionService.exportTransactionsToCsv(testUser, searchDto)));
+  }
+
+  @Test
+  void testExportTransactionsToExcel_PropagatesCancellation() {
+    TransactionSearchDTO searchDto = new TransactionSearchDTO();
+    when(transactionRepository.forEachMatching(any(), any(), any()))
+        .thenThrow(new CancellationException("Query cancelled: disconnect"));
+
+    assertThrows(CancellationException.class,
+        () -> transactionService.exportTransactionsToExcel(testUser, searchDto));
+  }
+
+  @Test
+  void testExportTransactionsToCsv_KeepsCauseOfOtherFailures() {
+    TransactionSearchDTO searchDto = new TransactionSearchDTO();
+    IllegalStateException failure = new IllegalStateException("broken row");
+    when(transactionRepository.forEachMatching(any(), any(), any())).thenThrow(failure);
+
+    BusinessLogicException thrown = assertThrows(BusinessLogicException.class,
+        () -> transactionService.exportTransactionsToCsv(testUser, searchDto));
+    assertSame(failure, thrown.getCause());
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.financial_tracker.service;
+
+import com.example.financial_tracker.config.AppConfig;
+import com.example.financial_tracker.dto.TransactionDTO;
+import com.example.financial_tracker.entity.User;
+import com.example.financial_tracker.enumerations.Currency;
+import com.example.financial_tracker.enumerations.TransactionType;
+import com.example.financial_tracker.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TransactionStreamServiceTest {
+
+  private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+  private final SecondaryCurrencyService secondaryCurrencyService = mock(SecondaryCurrencyService.class);
+  private final ObjectMapper objectMapper = new AppConfig().objectMapper();
+  private final TransactionStreamService service =
+    new TransactionStreamService(transactionRepository, secondaryCurrencyService, objectMapper);
+
+  private final User user = new User();
+
+  @Test
+  void writeNdjson_WritesOneObjectPerLine() throws Exception {
+    when(transactionRepository.streamDtosByUserWithFilters(user, TransactionType.EXPENSE, null, null, null))
+      .thenReturn(Stream.of(dto(1L), dto(2L)));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long written = service.writeNdjson(user, TransactionType.EXPENSE, null, null, null, out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, written);
+    assertEquals(2, lines.length);
+    JsonNode first = objectMapper.readTree(lines[0]);
+    assertEquals(1L, first.get("id").asLong());
+    assertEquals("EXPENSE", first.get("type").asText());
+    assertEquals("Groceries", first.get("categoryName").asText());
+    assertEquals("2024-03-05", first.get("date").asText());
+    assertEquals(0, new BigDecimal("12.50").compareTo(first.get("amount").decimalValue()));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void writeNdjson_ConvertsInBoundedChunks() throws Exception {
+    int rows = TransactionStreamService.CHUNK_SIZE * 2 + 1;
+    when(transactionRepository.streamDtosByUserWithFilters(any(), any(), any(), any(), any()))
+      .thenReturn(IntStream.range(0, rows).mapToObj(i -> dto((long) i)));
+
+    long written = service.writeNdjson(user, null, null, null, null, new ByteArrayOutputStream());
+
+    assertEquals(rows, written);
+    verify(secondaryCurrencyService, times(3)).applyToTransactions(eq(user),
+      argThat((Collection<TransactionDTO> chunk) -> chunk.size() <= TransactionStreamService.CHUNK_SIZE));
+  }
+
+  private static TransactionDTO dto(Long id) {
+    return new TransactionDTO(id, new BigDecimal("12.50"), Currency.USD, null, null, TransactionType.EXPENSE,
+      3L, "Groceries", "#00ff00", LocalDate.of(2024, 3, 5), "Weekly shop", 7L);
+  }
+}